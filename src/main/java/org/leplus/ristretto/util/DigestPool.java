@@ -0,0 +1,248 @@
+/*
+ * Copyright 2016-present Thomas Leplus
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.leplus.ristretto.util;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Pool of {@link java.security.MessageDigest} instances for a given algorithm, so that the provider
+ * lookup of {@link java.security.MessageDigest#getInstance(String)} is not paid on every hash. New
+ * instances are cloned from a prototype when the provider supports it. How instances are reused
+ * depends on the {@link org.leplus.ristretto.util.ReproducibleUUIDs.DigestPooling} strategy, which
+ * can be changed at any time.
+ *
+ * @author Thomas Leplus
+ * @since 2.1.0
+ */
+final class DigestPool {
+
+  /** Maximum number of idle instances kept by a pool with the bounded strategy. */
+  private static final int BOUNDED_CAPACITY = 2 * Runtime.getRuntime().availableProcessors();
+
+  /** The pools, by algorithm. */
+  private static final ConcurrentMap<String, DigestPool> POOLS = new ConcurrentHashMap<>();
+
+  /** The current pooling strategy. */
+  private static volatile ReproducibleUUIDs.DigestPooling pooling =
+      ReproducibleUUIDs.DigestPooling.THREAD_LOCAL;
+
+  /** The algorithm of the digests. */
+  private final String algorithm;
+
+  /** The instance new ones are cloned from, or null if the provider does not support cloning. */
+  private final MessageDigest prototype;
+
+  /** The idle encoding buffers, shared by all the algorithms. */
+  private static final Idle<Utf8.Buffers> BUFFERS = new Idle<>();
+
+  /** The idle instances. */
+  private final Idle<MessageDigest> idle = new Idle<>();
+
+  /**
+   * Constructor.
+   *
+   * @param algorithm the algorithm of the digests.
+   * @throws IllegalStateException if the algorithm is not supported.
+   */
+  private DigestPool(final String algorithm) {
+    super();
+    this.algorithm = algorithm;
+    final MessageDigest md = getInstance();
+    MessageDigest clonable;
+    try {
+      md.clone();
+      clonable = md;
+    } catch (final CloneNotSupportedException e) {
+      clonable = null;
+    }
+    prototype = clonable;
+  }
+
+  /**
+   * Returns the pool for an algorithm.
+   *
+   * @param algorithm the algorithm of the digests.
+   * @return the pool.
+   * @throws IllegalStateException if the algorithm is not supported.
+   */
+  static DigestPool of(final String algorithm) {
+    return POOLS.computeIfAbsent(algorithm, DigestPool::new);
+  }
+
+  /**
+   * Returns the current pooling strategy.
+   *
+   * @return the pooling strategy.
+   */
+  static ReproducibleUUIDs.DigestPooling getPooling() {
+    return pooling;
+  }
+
+  /**
+   * Changes the pooling strategy. Idle instances pooled with the previous strategy are not
+   * released, they are simply no longer used.
+   *
+   * @param newPooling the new pooling strategy.
+   */
+  static void setPooling(final ReproducibleUUIDs.DigestPooling newPooling) {
+    pooling = Objects.requireNonNull(newPooling, "pooling");
+  }
+
+  /**
+   * Looks up a new instance from the providers, or creates one of the algorithms implemented here.
+   *
+   * @return the new instance.
+   * @throws IllegalStateException if the algorithm is not supported.
+   */
+  private MessageDigest getInstance() {
+    if (Murmur3Digest.ALGORITHM.equals(algorithm)) {
+      return new Murmur3Digest();
+    }
+    try {
+      return MessageDigest.getInstance(algorithm);
+    } catch (final NoSuchAlgorithmException e) {
+      throw new IllegalStateException(algorithm + " not supported", e);
+    }
+  }
+
+  /**
+   * Creates a new instance, cloning the prototype if possible. The instance is not taken from or
+   * given back to the pool, it is meant to be kept by the caller.
+   *
+   * @return the new instance.
+   */
+  MessageDigest newInstance() {
+    if (prototype != null) {
+      try {
+        return (MessageDigest) prototype.clone();
+      } catch (final CloneNotSupportedException e) {
+        // Checked in the constructor.
+      }
+    }
+    return getInstance();
+  }
+
+  /**
+   * Takes a digest from the pool, or creates one if none is idle. The caller has exclusive use of
+   * the digest until it is given back with {@link #release(MessageDigest)}.
+   *
+   * @return a digest in its initial state.
+   */
+  MessageDigest acquire() {
+    if (pooling == ReproducibleUUIDs.DigestPooling.NONE) {
+      return getInstance();
+    }
+    final MessageDigest md = idle.take();
+    return md != null ? md : newInstance();
+  }
+
+  /**
+   * Gives a digest back to the pool. The digest must not be used by the caller anymore.
+   *
+   * @param md the digest.
+   */
+  void release(final MessageDigest md) {
+    md.reset();
+    idle.give(md);
+  }
+
+  /**
+   * Takes encoding buffers from the pool, or creates new ones if none are idle. They are pooled
+   * with the same strategy as the digests. The caller has exclusive use of the buffers until they
+   * are given back with {@link #releaseBuffers(Utf8.Buffers)}.
+   *
+   * @return the buffers.
+   */
+  static Utf8.Buffers acquireBuffers() {
+    final Utf8.Buffers buffers = BUFFERS.take();
+    return buffers != null ? buffers : new Utf8.Buffers();
+  }
+
+  /**
+   * Gives encoding buffers back to the pool. The buffers must not be used by the caller anymore.
+   *
+   * @param buffers the buffers.
+   */
+  static void releaseBuffers(final Utf8.Buffers buffers) {
+    BUFFERS.give(buffers);
+  }
+
+  /**
+   * Idle objects, kept according to the current pooling strategy.
+   *
+   * @param <T> the type of the objects.
+   * @author Thomas Leplus
+   * @since 2.1.0
+   */
+  private static final class Idle<T> {
+
+    /** The idle object of each thread, for the thread-local strategy. */
+    private final ThreadLocal<T> local = new ThreadLocal<>();
+
+    /** The idle objects, for the bounded strategy. */
+    private final ArrayBlockingQueue<T> queue = new ArrayBlockingQueue<>(BOUNDED_CAPACITY);
+
+    /** Constructor. */
+    Idle() {
+      super();
+    }
+
+    /**
+     * Takes an idle object.
+     *
+     * @return the object, or null if none is idle.
+     */
+    T take() {
+      switch (pooling) {
+        case THREAD_LOCAL:
+          final T object = local.get();
+          if (object != null) {
+            // Taken out so that a nested call on the same thread gets its own instance.
+            local.set(null);
+          }
+          return object;
+        case BOUNDED:
+          return queue.poll();
+        default:
+          return null;
+      }
+    }
+
+    /**
+     * Keeps an object which is not used anymore, if the strategy allows it.
+     *
+     * @param object the object.
+     */
+    void give(final T object) {
+      switch (pooling) {
+        case THREAD_LOCAL:
+          local.set(object);
+          break;
+        case BOUNDED:
+          queue.offer(object);
+          break;
+        default:
+          break;
+      }
+    }
+  }
+}
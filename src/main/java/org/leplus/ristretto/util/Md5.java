@@ -0,0 +1,259 @@
+/*
+ * Copyright 2016-present Thomas Leplus
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.leplus.ristretto.util;
+
+import java.util.UUID;
+
+/**
+ * Allocation-free MD5 of inputs which fit in a single 64-byte block, i.e. up to 55 bytes. The hash
+ * is computed in local variables and directly turned into a UUID, identical to the one returned by
+ * {@link java.util.UUID#nameUUIDFromBytes(byte[])}, without going through {@link
+ * java.security.MessageDigest}.
+ *
+ * @author Thomas Leplus
+ * @since 2.1.0
+ */
+final class Md5 {
+
+  /** Maximum number of bytes of an input which fits in a single block. */
+  static final int MAX_SINGLE_BLOCK = 55;
+
+  /** Private constructor to prevent instantiation. */
+  private Md5() {
+    super();
+  }
+
+  /**
+   * Computes the name-based UUID of bytes which fit in a single block.
+   *
+   * @param bytes the bytes.
+   * @param off the offset of the first byte.
+   * @param len the number of bytes, at most {@link #MAX_SINGLE_BLOCK}.
+   * @return the same UUID as {@link java.util.UUID#nameUUIDFromBytes(byte[])}.
+   */
+  static UUID nameUUIDFromBytes(final byte[] bytes, final int off, final int len) {
+    return nameUUID(bytes, off, null, len, null, 0);
+  }
+
+  /**
+   * Computes the name-based UUID of bytes which fit in a single block, into a packed array.
+   *
+   * @param bytes the bytes.
+   * @param off the offset of the first byte.
+   * @param len the number of bytes, at most {@link #MAX_SINGLE_BLOCK}.
+   * @param dst the packed array.
+   * @param index the index of the most significant bits of the UUID in the array.
+   */
+  static void nameUUIDFromBytes(
+      final byte[] bytes, final int off, final int len, final long[] dst, final int index) {
+    nameUUID(bytes, off, null, len, dst, index);
+  }
+
+  /**
+   * Computes the name-based UUID of the UTF-8 encoding of an ASCII string which fits in a single
+   * block. Since the string is ASCII, its UTF-8 bytes are its chars.
+   *
+   * @param s the string, whose chars must all be lower than 0x80.
+   * @return the same UUID as {@link java.util.UUID#nameUUIDFromBytes(byte[])}.
+   */
+  static UUID nameUUIDFromAscii(final CharSequence s) {
+    return nameUUID(null, 0, s, s.length(), null, 0);
+  }
+
+  /**
+   * Computes the name-based UUID of an ASCII string which fits in a single block, into a packed
+   * array.
+   *
+   * @param s the string, whose chars must all be lower than 0x80.
+   * @param dst the packed array.
+   * @param index the index of the most significant bits of the UUID in the array.
+   */
+  static void nameUUIDFromAscii(final CharSequence s, final long[] dst, final int index) {
+    nameUUID(null, 0, s, s.length(), dst, index);
+  }
+
+  /**
+   * Tells whether a string is made of ASCII chars only and fits in a single block.
+   *
+   * @param s the string.
+   * @return true if {@link #nameUUIDFromAscii(CharSequence)} can be used.
+   */
+  @SuppressWarnings("checkstyle:magicnumber")
+  static boolean isShortAscii(final CharSequence s) {
+    final int len = s.length();
+    if (len > MAX_SINGLE_BLOCK) {
+      return false;
+    }
+    for (int i = 0; i < len; i++) {
+      if (s.charAt(i) >= 0x80) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Reads a little-endian word of the padded block.
+   *
+   * @param bytes the input bytes, or null if the input is a string.
+   * @param off the offset of the first byte.
+   * @param chars the input string, or null if the input is bytes.
+   * @param len the length of the input.
+   * @param i the index of the word.
+   * @return the word.
+   */
+  @SuppressWarnings("checkstyle:magicnumber")
+  private static int word(
+      final byte[] bytes, final int off, final CharSequence chars, final int len, final int i) {
+    int word = 0;
+    for (int j = 3; j >= 0; j--) {
+      final int k = (i << 2) + j;
+      final int b;
+      if (k < len) {
+        b = bytes != null ? bytes[off + k] & 0xff : chars.charAt(k);
+      } else {
+        b = k == len ? 0x80 : 0;
+      }
+      word = word << 8 | b;
+    }
+    return word;
+  }
+
+  /**
+   * Computes the name-based UUID of an input which fits in a single block.
+   *
+   * @param bytes the input bytes, or null if the input is a string.
+   * @param off the offset of the first byte.
+   * @param chars the input string, or null if the input is bytes.
+   * @param len the length of the input.
+   * @param dst the packed array to write the UUID to, or null to return it.
+   * @param index the index of the most significant bits of the UUID in the packed array.
+   * @return the same UUID as {@link java.util.UUID#nameUUIDFromBytes(byte[])}, or null if it was
+   *     written to the packed array.
+   */
+  @SuppressWarnings({"checkstyle:magicnumber", "checkstyle:methodlength"})
+  private static UUID nameUUID(
+      final byte[] bytes,
+      final int off,
+      final CharSequence chars,
+      final int len,
+      final long[] dst,
+      final int index) {
+    final int x0 = word(bytes, off, chars, len, 0);
+    final int x1 = word(bytes, off, chars, len, 1);
+    final int x2 = word(bytes, off, chars, len, 2);
+    final int x3 = word(bytes, off, chars, len, 3);
+    final int x4 = word(bytes, off, chars, len, 4);
+    final int x5 = word(bytes, off, chars, len, 5);
+    final int x6 = word(bytes, off, chars, len, 6);
+    final int x7 = word(bytes, off, chars, len, 7);
+    final int x8 = word(bytes, off, chars, len, 8);
+    final int x9 = word(bytes, off, chars, len, 9);
+    final int x10 = word(bytes, off, chars, len, 10);
+    final int x11 = word(bytes, off, chars, len, 11);
+    final int x12 = word(bytes, off, chars, len, 12);
+    final int x13 = word(bytes, off, chars, len, 13);
+    // The length in bits, whose high word is always zero for a single block.
+    final int x14 = len << 3;
+    final int x15 = 0;
+    int a = 0x67452301;
+    int b = 0xefcdab89;
+    int c = 0x98badcfe;
+    int d = 0x10325476;
+    a = b + Integer.rotateLeft(a + (b & c | ~b & d) + x0 + 0xd76aa478, 7);
+    d = a + Integer.rotateLeft(d + (a & b | ~a & c) + x1 + 0xe8c7b756, 12);
+    c = d + Integer.rotateLeft(c + (d & a | ~d & b) + x2 + 0x242070db, 17);
+    b = c + Integer.rotateLeft(b + (c & d | ~c & a) + x3 + 0xc1bdceee, 22);
+    a = b + Integer.rotateLeft(a + (b & c | ~b & d) + x4 + 0xf57c0faf, 7);
+    d = a + Integer.rotateLeft(d + (a & b | ~a & c) + x5 + 0x4787c62a, 12);
+    c = d + Integer.rotateLeft(c + (d & a | ~d & b) + x6 + 0xa8304613, 17);
+    b = c + Integer.rotateLeft(b + (c & d | ~c & a) + x7 + 0xfd469501, 22);
+    a = b + Integer.rotateLeft(a + (b & c | ~b & d) + x8 + 0x698098d8, 7);
+    d = a + Integer.rotateLeft(d + (a & b | ~a & c) + x9 + 0x8b44f7af, 12);
+    c = d + Integer.rotateLeft(c + (d & a | ~d & b) + x10 + 0xffff5bb1, 17);
+    b = c + Integer.rotateLeft(b + (c & d | ~c & a) + x11 + 0x895cd7be, 22);
+    a = b + Integer.rotateLeft(a + (b & c | ~b & d) + x12 + 0x6b901122, 7);
+    d = a + Integer.rotateLeft(d + (a & b | ~a & c) + x13 + 0xfd987193, 12);
+    c = d + Integer.rotateLeft(c + (d & a | ~d & b) + x14 + 0xa679438e, 17);
+    b = c + Integer.rotateLeft(b + (c & d | ~c & a) + x15 + 0x49b40821, 22);
+    a = b + Integer.rotateLeft(a + (b & d | c & ~d) + x1 + 0xf61e2562, 5);
+    d = a + Integer.rotateLeft(d + (a & c | b & ~c) + x6 + 0xc040b340, 9);
+    c = d + Integer.rotateLeft(c + (d & b | a & ~b) + x11 + 0x265e5a51, 14);
+    b = c + Integer.rotateLeft(b + (c & a | d & ~a) + x0 + 0xe9b6c7aa, 20);
+    a = b + Integer.rotateLeft(a + (b & d | c & ~d) + x5 + 0xd62f105d, 5);
+    d = a + Integer.rotateLeft(d + (a & c | b & ~c) + x10 + 0x02441453, 9);
+    c = d + Integer.rotateLeft(c + (d & b | a & ~b) + x15 + 0xd8a1e681, 14);
+    b = c + Integer.rotateLeft(b + (c & a | d & ~a) + x4 + 0xe7d3fbc8, 20);
+    a = b + Integer.rotateLeft(a + (b & d | c & ~d) + x9 + 0x21e1cde6, 5);
+    d = a + Integer.rotateLeft(d + (a & c | b & ~c) + x14 + 0xc33707d6, 9);
+    c = d + Integer.rotateLeft(c + (d & b | a & ~b) + x3 + 0xf4d50d87, 14);
+    b = c + Integer.rotateLeft(b + (c & a | d & ~a) + x8 + 0x455a14ed, 20);
+    a = b + Integer.rotateLeft(a + (b & d | c & ~d) + x13 + 0xa9e3e905, 5);
+    d = a + Integer.rotateLeft(d + (a & c | b & ~c) + x2 + 0xfcefa3f8, 9);
+    c = d + Integer.rotateLeft(c + (d & b | a & ~b) + x7 + 0x676f02d9, 14);
+    b = c + Integer.rotateLeft(b + (c & a | d & ~a) + x12 + 0x8d2a4c8a, 20);
+    a = b + Integer.rotateLeft(a + (b ^ c ^ d) + x5 + 0xfffa3942, 4);
+    d = a + Integer.rotateLeft(d + (a ^ b ^ c) + x8 + 0x8771f681, 11);
+    c = d + Integer.rotateLeft(c + (d ^ a ^ b) + x11 + 0x6d9d6122, 16);
+    b = c + Integer.rotateLeft(b + (c ^ d ^ a) + x14 + 0xfde5380c, 23);
+    a = b + Integer.rotateLeft(a + (b ^ c ^ d) + x1 + 0xa4beea44, 4);
+    d = a + Integer.rotateLeft(d + (a ^ b ^ c) + x4 + 0x4bdecfa9, 11);
+    c = d + Integer.rotateLeft(c + (d ^ a ^ b) + x7 + 0xf6bb4b60, 16);
+    b = c + Integer.rotateLeft(b + (c ^ d ^ a) + x10 + 0xbebfbc70, 23);
+    a = b + Integer.rotateLeft(a + (b ^ c ^ d) + x13 + 0x289b7ec6, 4);
+    d = a + Integer.rotateLeft(d + (a ^ b ^ c) + x0 + 0xeaa127fa, 11);
+    c = d + Integer.rotateLeft(c + (d ^ a ^ b) + x3 + 0xd4ef3085, 16);
+    b = c + Integer.rotateLeft(b + (c ^ d ^ a) + x6 + 0x04881d05, 23);
+    a = b + Integer.rotateLeft(a + (b ^ c ^ d) + x9 + 0xd9d4d039, 4);
+    d = a + Integer.rotateLeft(d + (a ^ b ^ c) + x12 + 0xe6db99e5, 11);
+    c = d + Integer.rotateLeft(c + (d ^ a ^ b) + x15 + 0x1fa27cf8, 16);
+    b = c + Integer.rotateLeft(b + (c ^ d ^ a) + x2 + 0xc4ac5665, 23);
+    a = b + Integer.rotateLeft(a + (c ^ (b | ~d)) + x0 + 0xf4292244, 6);
+    d = a + Integer.rotateLeft(d + (b ^ (a | ~c)) + x7 + 0x432aff97, 10);
+    c = d + Integer.rotateLeft(c + (a ^ (d | ~b)) + x14 + 0xab9423a7, 15);
+    b = c + Integer.rotateLeft(b + (d ^ (c | ~a)) + x5 + 0xfc93a039, 21);
+    a = b + Integer.rotateLeft(a + (c ^ (b | ~d)) + x12 + 0x655b59c3, 6);
+    d = a + Integer.rotateLeft(d + (b ^ (a | ~c)) + x3 + 0x8f0ccc92, 10);
+    c = d + Integer.rotateLeft(c + (a ^ (d | ~b)) + x10 + 0xffeff47d, 15);
+    b = c + Integer.rotateLeft(b + (d ^ (c | ~a)) + x1 + 0x85845dd1, 21);
+    a = b + Integer.rotateLeft(a + (c ^ (b | ~d)) + x8 + 0x6fa87e4f, 6);
+    d = a + Integer.rotateLeft(d + (b ^ (a | ~c)) + x15 + 0xfe2ce6e0, 10);
+    c = d + Integer.rotateLeft(c + (a ^ (d | ~b)) + x6 + 0xa3014314, 15);
+    b = c + Integer.rotateLeft(b + (d ^ (c | ~a)) + x13 + 0x4e0811a1, 21);
+    a = b + Integer.rotateLeft(a + (c ^ (b | ~d)) + x4 + 0xf7537e82, 6);
+    d = a + Integer.rotateLeft(d + (b ^ (a | ~c)) + x11 + 0xbd3af235, 10);
+    c = d + Integer.rotateLeft(c + (a ^ (d | ~b)) + x2 + 0x2ad7d2bb, 15);
+    b = c + Integer.rotateLeft(b + (d ^ (c | ~a)) + x9 + 0xeb86d391, 21);
+    a += 0x67452301;
+    b += 0xefcdab89;
+    c += 0x98badcfe;
+    d += 0x10325476;
+    // The hash is little-endian while UUIDs are big-endian.
+    long msb = (long) Integer.reverseBytes(a) << 32 | Integer.reverseBytes(b) & 0xffffffffL;
+    long lsb = (long) Integer.reverseBytes(c) << 32 | Integer.reverseBytes(d) & 0xffffffffL;
+    // Version 3 and IETF variant, for compatibility with UUID.nameUUIDFromBytes(byte[]).
+    msb = msb & ~0xf000L | 0x3000L;
+    lsb = lsb & 0x3fffffffffffffffL | 0x8000000000000000L;
+    if (dst == null) {
+      return new UUID(msb, lsb);
+    }
+    dst[index] = msb;
+    dst[index + 1] = lsb;
+    return null;
+  }
+}
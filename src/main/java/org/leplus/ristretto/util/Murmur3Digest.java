@@ -0,0 +1,209 @@
+/*
+ * Copyright 2016-present Thomas Leplus
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.leplus.ristretto.util;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.security.MessageDigest;
+
+/**
+ * The 128-bit variant of MurmurHash3 for 64-bit platforms (MurmurHash3_x64_128), with a seed of
+ * zero, exposed as a {@link java.security.MessageDigest} so that it can be used wherever a digest
+ * is. The 16 bytes of the hash are the two 64-bit halves in little-endian order, as in the
+ * reference implementation and in Guava's {@code Hashing.murmur3_128()}.
+ *
+ * <p>This hash is not cryptographic: it is much faster than MD5 but collisions can be crafted.
+ *
+ * @author Thomas Leplus
+ * @since 2.1.0
+ */
+final class Murmur3Digest extends MessageDigest implements Cloneable {
+
+  /** The name of the algorithm. */
+  static final String ALGORITHM = "MurmurHash3_x64_128";
+
+  /** Bytes per block. */
+  private static final int BLOCK_BYTES = 16;
+
+  /** First multiplier of the blocks. */
+  private static final long C1 = 0x87c37b91114253d5L;
+
+  /** Second multiplier of the blocks. */
+  private static final long C2 = 0x4cf5ad432745937fL;
+
+  /** View of a byte array as little-endian longs. */
+  private static final VarHandle LITTLE_ENDIAN_LONGS =
+      MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+  /** First half of the state. */
+  private long h1;
+
+  /** Second half of the state. */
+  private long h2;
+
+  /** The number of bytes hashed so far. */
+  private long length;
+
+  /** The bytes of the current incomplete block. */
+  private byte[] tail = new byte[BLOCK_BYTES];
+
+  /** Constructor. */
+  Murmur3Digest() {
+    super(ALGORITHM);
+  }
+
+  /**
+   * Mixes a block into the state.
+   *
+   * @param k1 the first half of the block.
+   * @param k2 the second half of the block.
+   */
+  @SuppressWarnings("checkstyle:magicnumber")
+  private void mix(final long k1, final long k2) {
+    h1 ^= Long.rotateLeft(k1 * C1, 31) * C2;
+    h1 = (Long.rotateLeft(h1, 27) + h2) * 5 + 0x52dce729;
+    h2 ^= Long.rotateLeft(k2 * C2, 33) * C1;
+    h2 = (Long.rotateLeft(h2, 31) + h1) * 5 + 0x38495ab5;
+  }
+
+  /** Mixes the current block, once complete, into the state. */
+  private void mixTail() {
+    mix((long) LITTLE_ENDIAN_LONGS.get(tail, 0), (long) LITTLE_ENDIAN_LONGS.get(tail, Long.BYTES));
+  }
+
+  /**
+   * Final avalanche of a half of the state.
+   *
+   * @param k the half of the state.
+   * @return the mixed value.
+   */
+  @SuppressWarnings("checkstyle:magicnumber")
+  static long fmix(final long k) {
+    long h = k;
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    h *= 0xc4ceb9fe1a85ec53L;
+    h ^= h >>> 33;
+    return h;
+  }
+
+  /**
+   * @see java.security.MessageDigestSpi#engineGetDigestLength()
+   */
+  @Override
+  protected int engineGetDigestLength() {
+    return BLOCK_BYTES;
+  }
+
+  /**
+   * @see java.security.MessageDigestSpi#engineUpdate(byte)
+   */
+  @Override
+  protected void engineUpdate(final byte input) {
+    final int buffered = (int) length & (BLOCK_BYTES - 1);
+    tail[buffered] = input;
+    length++;
+    if (buffered == BLOCK_BYTES - 1) {
+      mixTail();
+    }
+  }
+
+  /**
+   * @see java.security.MessageDigestSpi#engineUpdate(byte[], int, int)
+   */
+  @Override
+  protected void engineUpdate(final byte[] input, final int offset, final int len) {
+    int off = offset;
+    final int end = offset + len;
+    final int buffered = (int) length & (BLOCK_BYTES - 1);
+    length += len;
+    if (buffered > 0) {
+      final int n = Math.min(BLOCK_BYTES - buffered, len);
+      System.arraycopy(input, off, tail, buffered, n);
+      off += n;
+      if (buffered + n < BLOCK_BYTES) {
+        return;
+      }
+      mixTail();
+    }
+    for (; off <= end - BLOCK_BYTES; off += BLOCK_BYTES) {
+      mix(
+          (long) LITTLE_ENDIAN_LONGS.get(input, off),
+          (long) LITTLE_ENDIAN_LONGS.get(input, off + Long.BYTES));
+    }
+    System.arraycopy(input, off, tail, 0, end - off);
+  }
+
+  /**
+   * @see java.security.MessageDigestSpi#engineDigest()
+   */
+  @Override
+  @SuppressWarnings("checkstyle:magicnumber")
+  protected byte[] engineDigest() {
+    final int buffered = (int) length & (BLOCK_BYTES - 1);
+    long k1 = 0;
+    long k2 = 0;
+    for (int i = buffered - 1; i >= Long.BYTES; i--) {
+      k2 = k2 << 8 | tail[i] & 0xff;
+    }
+    for (int i = Math.min(buffered, Long.BYTES) - 1; i >= 0; i--) {
+      k1 = k1 << 8 | tail[i] & 0xff;
+    }
+    if (buffered > Long.BYTES) {
+      h2 ^= Long.rotateLeft(k2 * C2, 33) * C1;
+    }
+    if (buffered > 0) {
+      h1 ^= Long.rotateLeft(k1 * C1, 31) * C2;
+    }
+    h1 ^= length;
+    h2 ^= length;
+    h1 += h2;
+    h2 += h1;
+    h1 = fmix(h1);
+    h2 = fmix(h2);
+    h1 += h2;
+    h2 += h1;
+    final byte[] hash = new byte[BLOCK_BYTES];
+    LITTLE_ENDIAN_LONGS.set(hash, 0, h1);
+    LITTLE_ENDIAN_LONGS.set(hash, Long.BYTES, h2);
+    engineReset();
+    return hash;
+  }
+
+  /**
+   * @see java.security.MessageDigestSpi#engineReset()
+   */
+  @Override
+  protected void engineReset() {
+    h1 = 0;
+    h2 = 0;
+    length = 0;
+  }
+
+  /**
+   * @see java.security.MessageDigest#clone()
+   */
+  @Override
+  public Object clone() throws CloneNotSupportedException {
+    final Murmur3Digest clone = (Murmur3Digest) super.clone();
+    clone.tail = tail.clone();
+    return clone;
+  }
+}
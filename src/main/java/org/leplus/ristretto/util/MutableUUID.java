@@ -0,0 +1,262 @@
+/*
+ * Copyright 2016-present Thomas Leplus
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.leplus.ristretto.util;
+
+import java.util.UUID;
+
+/**
+ * This class is a mutable holder for the 128 bits of a UUID. A single instance can be reused to
+ * look at each element of a large packed array, file or list of UUIDs in turn, and compare or hash
+ * it, without creating a {@link java.util.UUID} object per element. An immutable {@link
+ * java.util.UUID} is only created when {@link #toUUID()} is called.
+ *
+ * <p>The {@link #hashCode()} of a mutable UUID is the same as the one of the equal {@link
+ * java.util.UUID}, and its natural order is the same as {@link
+ * java.util.UUID#compareTo(java.util.UUID)}. However, to keep {@link #equals(Object)} symmetric, a
+ * mutable UUID is never equal to a {@link java.util.UUID}: use {@link #matches(UUID)} instead.
+ * Since instances are mutable, they should not be used as keys in hash-based collections while
+ * they can still change.
+ *
+ * <p>Instances of this class are not thread-safe.
+ *
+ * @author Thomas Leplus
+ * @since 2.1.0
+ */
+public final class MutableUUID implements Comparable<MutableUUID> {
+
+  /** The most significant bits. */
+  private long msb;
+
+  /** The least significant bits. */
+  private long lsb;
+
+  /** Creates a nil UUID (all bits set to zero). */
+  public MutableUUID() {
+    super();
+  }
+
+  /**
+   * Creates a mutable UUID with the given bits.
+   *
+   * @param msb the most significant bits.
+   * @param lsb the least significant bits.
+   */
+  public MutableUUID(final long msb, final long lsb) {
+    super();
+    this.msb = msb;
+    this.lsb = lsb;
+  }
+
+  /**
+   * Creates a mutable copy of a UUID.
+   *
+   * @param uuid the UUID.
+   */
+  public MutableUUID(final UUID uuid) {
+    this(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+  }
+
+  /**
+   * Returns the most significant bits.
+   *
+   * @return the most significant bits.
+   */
+  public long getMostSignificantBits() {
+    return msb;
+  }
+
+  /**
+   * Returns the least significant bits.
+   *
+   * @return the least significant bits.
+   */
+  public long getLeastSignificantBits() {
+    return lsb;
+  }
+
+  /**
+   * Sets the bits of this UUID.
+   *
+   * @param newMsb the most significant bits.
+   * @param newLsb the least significant bits.
+   * @return this mutable UUID.
+   */
+  public MutableUUID set(final long newMsb, final long newLsb) {
+    msb = newMsb;
+    lsb = newLsb;
+    return this;
+  }
+
+  /**
+   * Copies the bits of a UUID.
+   *
+   * @param uuid the UUID.
+   * @return this mutable UUID.
+   */
+  public MutableUUID set(final UUID uuid) {
+    return set(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+  }
+
+  /**
+   * Reads the bits from {@value org.leplus.ristretto.util.UUIDConvertor#MAX_BYTES} bytes of the
+   * provided array, in the same order as {@link
+   * org.leplus.ristretto.util.UUIDConvertor#toBytes(UUID)}.
+   *
+   * @param src the source array.
+   * @param off the offset in the source array.
+   * @return this mutable UUID.
+   * @throws ArrayIndexOutOfBoundsException if the source array does not have {@value
+   *     org.leplus.ristretto.util.UUIDConvertor#MAX_BYTES} elements available from the given
+   *     offset.
+   */
+  public MutableUUID set(final byte[] src, final int off) throws ArrayIndexOutOfBoundsException {
+    return set(src, off, UUIDLayout.BIG_ENDIAN);
+  }
+
+  /**
+   * Reads the bits from {@value org.leplus.ristretto.util.UUIDConvertor#MAX_BYTES} bytes of the
+   * provided array using the given layout.
+   *
+   * @param src the source array.
+   * @param off the offset in the source array.
+   * @param layout the binary layout of the source bytes.
+   * @return this mutable UUID.
+   * @throws ArrayIndexOutOfBoundsException if the source array does not have {@value
+   *     org.leplus.ristretto.util.UUIDConvertor#MAX_BYTES} elements available from the given
+   *     offset.
+   */
+  public MutableUUID set(final byte[] src, final int off, final UUIDLayout layout)
+      throws ArrayIndexOutOfBoundsException {
+    UUIDConvertor.checkRange(src.length, off, UUIDConvertor.MAX_BYTES);
+    return set(layout.readMsb(src, off), layout.readLsb(src, off));
+  }
+
+  /**
+   * Reads the bits from {@value org.leplus.ristretto.util.UUIDConvertor#MAX_LONGS} longs of the
+   * provided array, e.g. an array packed like {@link
+   * org.leplus.ristretto.util.UUIDConvertor#toPackedLongs(UUID[])}.
+   *
+   * @param src the source array.
+   * @param off the offset in the source array.
+   * @return this mutable UUID.
+   * @throws ArrayIndexOutOfBoundsException if the source array does not have {@value
+   *     org.leplus.ristretto.util.UUIDConvertor#MAX_LONGS} elements available from the given
+   *     offset.
+   */
+  public MutableUUID set(final long[] src, final int off) throws ArrayIndexOutOfBoundsException {
+    UUIDConvertor.checkRange(src.length, off, UUIDConvertor.MAX_LONGS);
+    return set(src[off], src[off + 1]);
+  }
+
+  /**
+   * Tells whether this mutable UUID has the same bits as a UUID.
+   *
+   * @param uuid the UUID.
+   * @return true if the UUID is not null and has the same bits.
+   */
+  public boolean matches(final UUID uuid) {
+    return uuid != null
+        && uuid.getLeastSignificantBits() == lsb
+        && uuid.getMostSignificantBits() == msb;
+  }
+
+  /**
+   * Compares this mutable UUID to a UUID, like {@link java.util.UUID#compareTo(java.util.UUID)}.
+   *
+   * @param uuid the UUID.
+   * @return a negative integer, zero, or a positive integer as this UUID is less than, equal to, or
+   *     greater than the given one.
+   */
+  public int compareTo(final UUID uuid) {
+    final int result = Long.compare(msb, uuid.getMostSignificantBits());
+    return result != 0 ? result : Long.compare(lsb, uuid.getLeastSignificantBits());
+  }
+
+  /**
+   * Compares this mutable UUID to another one, like {@link
+   * java.util.UUID#compareTo(java.util.UUID)}.
+   *
+   * @param other the other mutable UUID.
+   * @return a negative integer, zero, or a positive integer as this UUID is less than, equal to, or
+   *     greater than the other one.
+   */
+  @Override
+  public int compareTo(final MutableUUID other) {
+    final int result = Long.compare(msb, other.msb);
+    return result != 0 ? result : Long.compare(lsb, other.lsb);
+  }
+
+  /**
+   * Compares this mutable UUID to a UUID in unsigned order, like {@link
+   * org.leplus.ristretto.util.UUIDArrays#compareUnsigned(UUID, UUID)}.
+   *
+   * @param uuid the UUID.
+   * @return a negative integer, zero, or a positive integer as this UUID is less than, equal to, or
+   *     greater than the given one.
+   */
+  public int compareUnsigned(final UUID uuid) {
+    return UUIDArrays.compareUnsigned(
+        msb, lsb, uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+  }
+
+  /**
+   * Creates an immutable UUID with the current bits of this mutable UUID.
+   *
+   * @return a new UUID.
+   */
+  public UUID toUUID() {
+    return new UUID(msb, lsb);
+  }
+
+  /**
+   * Returns the same hash code as the equal {@link java.util.UUID}.
+   *
+   * @return the hash code.
+   * @see java.util.UUID#hashCode()
+   */
+  @Override
+  @SuppressWarnings("checkstyle:magicnumber")
+  public int hashCode() {
+    final long hilo = msb ^ lsb;
+    return ((int) (hilo >> 32)) ^ (int) hilo;
+  }
+
+  /**
+   * @see java.lang.Object#equals(java.lang.Object)
+   */
+  @Override
+  public boolean equals(final Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (!(obj instanceof MutableUUID)) {
+      return false;
+    }
+    final MutableUUID other = (MutableUUID) obj;
+    return msb == other.msb && lsb == other.lsb;
+  }
+
+  /**
+   * Returns the canonical representation of the UUID, like {@link java.util.UUID#toString()}.
+   *
+   * @return the canonical representation.
+   */
+  @Override
+  public String toString() {
+    return toUUID().toString();
+  }
+}
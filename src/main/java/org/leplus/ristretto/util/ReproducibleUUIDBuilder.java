@@ -0,0 +1,282 @@
+/*
+ * Copyright 2016-present Thomas Leplus
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.leplus.ristretto.util;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.util.UUID;
+
+/**
+ * This class builds reproducible UUIDs from composite names, such as a tuple of a tenant, a type, a
+ * natural key and a version, without concatenating them first. The values are fed incrementally to
+ * the hash through a small reusable buffer, and each of them is framed with a type tag and, for
+ * variable-length values, a length prefix. So two different sequences of values can never produce
+ * the same input to the hash, e.g. {@code put("ab").put("c")} and {@code put("a").put("bc")} give
+ * different UUIDs.
+ *
+ * <p>The UUIDs generated by a builder are therefore not the same as those generated by the
+ * corresponding {@link org.leplus.ristretto.util.ReproducibleUUIDGenerator} from the concatenated
+ * bytes. They only depend on the sequence of values put since the builder was created or last
+ * built, so a builder can be reused for any number of UUIDs:
+ *
+ * <pre>{@code
+ * ReproducibleUUIDBuilder builder = ReproducibleUUIDs.builder();
+ * UUID id = builder.put(tenant).put("order").put(orderNumber).put(2).build();
+ * }</pre>
+ *
+ * <p>Instances of this class are not thread-safe.
+ *
+ * @author Thomas Leplus
+ * @since 2.1.0
+ */
+public final class ReproducibleUUIDBuilder {
+
+  /** Tag of null values. */
+  private static final byte NULL = 0;
+
+  /** Tag of int values. */
+  private static final byte INT = 1;
+
+  /** Tag of long values. */
+  private static final byte LONG = 2;
+
+  /** Tag of UUID values. */
+  private static final byte UUID_VALUE = 3;
+
+  /** Tag of string values, followed by the length of their UTF-8 encoding. */
+  private static final byte STRING = 4;
+
+  /** Tag of byte values, followed by their length. */
+  private static final byte BYTES = 5;
+
+  /** Size of the buffer. */
+  private static final int BUFFER_SIZE = 512;
+
+  /** Bytes of the largest fixed-size value with its tag. */
+  private static final int MAX_FIXED_BYTES = 1 + 2 * Long.BYTES;
+
+  /** The generator whose algorithm, version and namespace are used. */
+  private final ReproducibleUUIDGenerator generator;
+
+  /** The digest, owned by this builder. */
+  private final MessageDigest md;
+
+  /** The bytes not yet fed to the digest. */
+  private final byte[] buffer = new byte[BUFFER_SIZE];
+
+  /** The buffer into which the chars of strings are read. */
+  private final char[] chars = new char[Utf8.CHUNK_SIZE];
+
+  /** The number of bytes in the buffer. */
+  private int position;
+
+  /**
+   * Constructor.
+   *
+   * @param generator the generator whose algorithm, version and namespace are used.
+   * @param md a digest of the algorithm of the generator, in its initial state.
+   */
+  ReproducibleUUIDBuilder(final ReproducibleUUIDGenerator generator, final MessageDigest md) {
+    super();
+    this.generator = generator;
+    this.md = md;
+    generator.start(md);
+  }
+
+  /** Feeds the buffered bytes to the digest. */
+  private void flush() {
+    if (position > 0) {
+      md.update(buffer, 0, position);
+      position = 0;
+    }
+  }
+
+  /**
+   * Makes room for a number of bytes in the buffer.
+   *
+   * @param n the number of bytes, at most the size of the buffer.
+   */
+  private void reserve(final int n) {
+    if (position > BUFFER_SIZE - n) {
+      flush();
+    }
+  }
+
+  /**
+   * Writes an int to the buffer, which must have room for it.
+   *
+   * @param value the int.
+   */
+  @SuppressWarnings("checkstyle:magicnumber")
+  private void writeInt(final int value) {
+    buffer[position++] = (byte) (value >>> 24);
+    buffer[position++] = (byte) (value >>> 16);
+    buffer[position++] = (byte) (value >>> 8);
+    buffer[position++] = (byte) value;
+  }
+
+  /**
+   * Writes a long to the buffer, which must have room for it.
+   *
+   * @param value the long.
+   */
+  private void writeLong(final long value) {
+    writeInt((int) (value >>> Integer.SIZE));
+    writeInt((int) value);
+  }
+
+  /**
+   * Writes the tag and length of a variable-length value, or the null tag.
+   *
+   * @param tag the tag.
+   * @param length the length, or -1 for a null value.
+   * @return true if the value is not null.
+   */
+  private boolean writeHeader(final byte tag, final long length) {
+    reserve(MAX_FIXED_BYTES);
+    if (length < 0) {
+      buffer[position++] = NULL;
+      return false;
+    }
+    buffer[position++] = tag;
+    writeLong(length);
+    return true;
+  }
+
+  /**
+   * Appends an int.
+   *
+   * @param value the int.
+   * @return this builder.
+   */
+  public ReproducibleUUIDBuilder put(final int value) {
+    reserve(MAX_FIXED_BYTES);
+    buffer[position++] = INT;
+    writeInt(value);
+    return this;
+  }
+
+  /**
+   * Appends a long.
+   *
+   * @param value the long.
+   * @return this builder.
+   */
+  public ReproducibleUUIDBuilder put(final long value) {
+    reserve(MAX_FIXED_BYTES);
+    buffer[position++] = LONG;
+    writeLong(value);
+    return this;
+  }
+
+  /**
+   * Appends a UUID.
+   *
+   * @param value the UUID, or null.
+   * @return this builder.
+   */
+  public ReproducibleUUIDBuilder put(final UUID value) {
+    reserve(MAX_FIXED_BYTES);
+    if (value == null) {
+      buffer[position++] = NULL;
+    } else {
+      buffer[position++] = UUID_VALUE;
+      writeLong(value.getMostSignificantBits());
+      writeLong(value.getLeastSignificantBits());
+    }
+    return this;
+  }
+
+  /**
+   * Appends a string, encoded in UTF-8.
+   *
+   * @param value the string, or null.
+   * @return this builder.
+   */
+  public ReproducibleUUIDBuilder put(final CharSequence value) {
+    if (writeHeader(STRING, value == null ? -1 : Utf8.encodedLength(value))) {
+      position = Utf8.encode(value, chars, md, buffer, position);
+    }
+    return this;
+  }
+
+  /**
+   * Appends bytes.
+   *
+   * @param value the bytes, or null.
+   * @return this builder.
+   */
+  public ReproducibleUUIDBuilder put(final byte[] value) {
+    if (writeHeader(BYTES, value == null ? -1 : value.length)) {
+      if (value.length <= BUFFER_SIZE - position) {
+        System.arraycopy(value, 0, buffer, position, value.length);
+        position += value.length;
+      } else {
+        flush();
+        md.update(value);
+      }
+    }
+    return this;
+  }
+
+  /**
+   * Appends the remaining bytes of a buffer, which is consumed like by {@link
+   * java.security.MessageDigest#update(ByteBuffer)}. The same bytes give the same UUID as {@link
+   * #put(byte[])}.
+   *
+   * @param value the buffer, or null.
+   * @return this builder.
+   */
+  public ReproducibleUUIDBuilder put(final ByteBuffer value) {
+    if (writeHeader(BYTES, value == null ? -1 : value.remaining())) {
+      final int n = value.remaining();
+      if (n <= BUFFER_SIZE - position) {
+        value.get(buffer, position, n);
+        position += n;
+      } else {
+        flush();
+        md.update(value);
+      }
+    }
+    return this;
+  }
+
+  /**
+   * Generates the UUID of the values appended so far, and resets this builder.
+   *
+   * @return the resulting UUID.
+   */
+  public UUID build() {
+    flush();
+    final UUID uuid = generator.digest(md);
+    generator.start(md);
+    return uuid;
+  }
+
+  /**
+   * Discards the values appended so far.
+   *
+   * @return this builder.
+   */
+  public ReproducibleUUIDBuilder reset() {
+    position = 0;
+    md.reset();
+    generator.start(md);
+    return this;
+  }
+}
@@ -0,0 +1,1100 @@
+/*
+ * Copyright 2016-present Thomas Leplus
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.leplus.ristretto.util;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestException;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.Collector;
+import java.util.stream.Stream;
+
+/**
+ * This class generates name-based UUIDs of a given version, optionally within a namespace, as
+ * described in RFC 9562. Given the same namespace and the same name, it always returns the same
+ * UUID. Instances are obtained from {@link org.leplus.ristretto.util.ReproducibleUUIDs#v3(UUID)},
+ * {@link org.leplus.ristretto.util.ReproducibleUUIDs#v5(UUID)}, {@link
+ * org.leplus.ristretto.util.ReproducibleUUIDs#v8(UUID)} and {@link
+ * org.leplus.ristretto.util.ReproducibleUUIDs#murmur3(UUID)}.
+ *
+ * <p>Without a namespace, the name is hashed alone and the version bits are stamped on the hash
+ * all the same, like {@link java.util.UUID#nameUUIDFromBytes(byte[])} does. The resulting UUIDs
+ * are reproducible but they are not the RFC 9562 UUIDs of any namespace.
+ *
+ * <p>The name is hashed with a {@link java.security.MessageDigest}, from the default provider for
+ * the standard algorithms, which the JVM replaces with CPU instructions for the SHA algorithms
+ * where available. The digests are pooled as configured with {@link
+ * org.leplus.ristretto.util.ReproducibleUUIDs#setDigestPooling(ReproducibleUUIDs.DigestPooling)}.
+ *
+ * <p>Instances of this class are immutable and thread-safe.
+ *
+ * @author Thomas Leplus
+ * @since 2.1.0
+ */
+@SuppressFBWarnings({"WEAK_MESSAGE_DIGEST_MD5", "WEAK_MESSAGE_DIGEST_SHA1"})
+public final class ReproducibleUUIDGenerator {
+
+  /** Version of the format of the tree hashes, hashed with them so that they never change. */
+  public static final int TREE_HASH_VERSION = 1;
+
+  /** Size of the chunks of the tree hashes. */
+  public static final int TREE_HASH_CHUNK_SIZE = 1 << 22;
+
+  /** Magic number of the tree hashes ("RTH" followed by the format version). */
+  private static final int TREE_HASH_MAGIC = 0x52544800 | TREE_HASH_VERSION;
+
+  /** Version of the format of the directory hashes, hashed with them so that they never change. */
+  public static final int DIRECTORY_HASH_VERSION = 1;
+
+  /** Magic number of the directory hashes ("RDH" followed by the format version). */
+  private static final int DIRECTORY_HASH_MAGIC = 0x52444800 | DIRECTORY_HASH_VERSION;
+
+  /** Size below which files are read rather than memory-mapped. */
+  private static final int SMALL_FILE_SIZE = 1 << 16;
+
+  /** Maximum number of bytes mapped at once. */
+  private static final int MAP_SIZE = 1 << 30;
+
+  /** Number of names below which a batch is not split further. */
+  private static final int BATCH_SIZE = 1024;
+
+  /** View of a byte array as big-endian longs. */
+  private static final VarHandle BIG_ENDIAN_LONGS =
+      MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+
+  /** Bytes per UUID. */
+  private static final int UUID_BYTES = 16;
+
+  /** Size of the buffer through which UUIDs are hashed. */
+  private static final int UUID_BUFFER_SIZE = 32 * UUID_BYTES;
+
+  /** Buffer size for digest. */
+  private static final int BUFFER_SIZE = 8192;
+
+  /** The pool of digests of the hash algorithm. */
+  private final DigestPool digests;
+
+  /** The version of the generated UUIDs. */
+  private final int version;
+
+  /** The namespace, or null. */
+  private final UUID namespace;
+
+  /** The bytes of the namespace, hashed before the name, or null. */
+  private final byte[] prefix;
+
+  /** True if short names can be hashed with {@link org.leplus.ristretto.util.Md5}. */
+  private final boolean singleBlockMd5;
+
+  /**
+   * True if a single UUID is returned as is rather than hashed, like the legacy version 3
+   * generator without a namespace always did.
+   */
+  private final boolean singleUUIDAsIs;
+
+  /**
+   * Constructor.
+   *
+   * @param algorithm the hash algorithm.
+   * @param version the version of the generated UUIDs.
+   * @param namespace the namespace, or null to hash the name alone.
+   * @throws IllegalStateException if the algorithm is not supported.
+   */
+  ReproducibleUUIDGenerator(final String algorithm, final int version, final UUID namespace) {
+    super();
+    digests = DigestPool.of(algorithm);
+    this.version = version;
+    this.namespace = namespace;
+    prefix = namespace == null ? null : UUIDConvertor.toBytes(namespace);
+    singleBlockMd5 = namespace == null && "MD5".equals(algorithm);
+    singleUUIDAsIs = singleBlockMd5 && version == 3;
+  }
+
+  /**
+   * Returns the version of the generated UUIDs.
+   *
+   * @return the version.
+   */
+  public int version() {
+    return version;
+  }
+
+  /**
+   * Returns the namespace of the generated UUIDs.
+   *
+   * @return the namespace, or null if the names are hashed alone.
+   */
+  public UUID namespace() {
+    return namespace;
+  }
+
+  /**
+   * Generates a UUID from the given String. The same String will always produce the same UUID.
+   *
+   * @param s the input string.
+   * @return the resulting UUID.
+   */
+  public UUID fromString(final String s) {
+    return fromCharSequence(s);
+  }
+
+  /**
+   * Generates a UUID from the UTF-8 encoding of the given chars, which is hashed in chunks rather
+   * than allocated as a whole. The same chars will always produce the same UUID, the same as {@link
+   * #fromString(String)} for a String of those chars.
+   *
+   * @param s the input chars, e.g. a {@link java.lang.StringBuilder} or a {@link
+   *     java.nio.CharBuffer}.
+   * @return the resulting UUID.
+   */
+  public UUID fromCharSequence(final CharSequence s) {
+    if (s == null) {
+      return null;
+    }
+    final boolean shortName = singleBlockMd5 && s.length() <= Md5.MAX_SINGLE_BLOCK;
+    if (shortName && Md5.isShortAscii(s)) {
+      return Md5.nameUUIDFromAscii(s);
+    }
+    final Utf8.Buffers buffers = DigestPool.acquireBuffers();
+    try {
+      if (shortName) {
+        // A short name takes at most 3 bytes per char, so it never has to be flushed to a digest.
+        return fromBytes(buffers.bytes, Utf8.encode(s, buffers.chars, null, buffers.bytes, 0));
+      }
+      final MessageDigest md = acquireDigest();
+      try {
+        md.update(buffers.bytes, 0, Utf8.encode(s, buffers.chars, md, buffers.bytes, 0));
+        return digest(md);
+      } finally {
+        digests.release(md);
+      }
+    } finally {
+      DigestPool.releaseBuffers(buffers);
+    }
+  }
+
+  /**
+   * Generates a UUID from the given bytes. The same bytes will always produce the same UUID.
+   *
+   * @param bytes the input bytes.
+   * @return the resulting UUID.
+   */
+  public UUID fromBytes(final byte... bytes) {
+    if (bytes == null) {
+      return null;
+    }
+    return fromBytes(bytes, bytes.length);
+  }
+
+  /**
+   * Generates a UUID from the first bytes of an array.
+   *
+   * @param bytes the input bytes.
+   * @param len the number of bytes to hash.
+   * @return the resulting UUID.
+   */
+  private UUID fromBytes(final byte[] bytes, final int len) {
+    if (singleBlockMd5 && len <= Md5.MAX_SINGLE_BLOCK) {
+      return Md5.nameUUIDFromBytes(bytes, 0, len);
+    }
+    final MessageDigest md = acquireDigest();
+    try {
+      md.update(bytes, 0, len);
+      return digest(md);
+    } finally {
+      digests.release(md);
+    }
+  }
+
+  /**
+   * Generates a UUID from the given byte buffer. The same bytes will always produce the same UUID.
+   *
+   * @param buffer the input byte buffer.
+   * @return the resulting UUID.
+   */
+  public UUID fromByteBuffer(final ByteBuffer buffer) {
+    if (buffer == null) {
+      return null;
+    }
+    if (singleBlockMd5 && buffer.hasArray() && buffer.remaining() <= Md5.MAX_SINGLE_BLOCK) {
+      final UUID uuid =
+          Md5.nameUUIDFromBytes(
+              buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+      buffer.position(buffer.limit());
+      return uuid;
+    }
+    final MessageDigest md = acquireDigest();
+    try {
+      md.update(buffer);
+      return digest(md);
+    } finally {
+      digests.release(md);
+    }
+  }
+
+  /**
+   * Generates a UUID from the given input stream. The same bytes will always produce the same UUID.
+   *
+   * @param input the input stream.
+   * @return the resulting UUID.
+   * @throws IOException if an I/O error occurs.
+   */
+  @SuppressWarnings({"PMD.EmptyWhileStmt", "PMD.EmptyControlStatement", "checkstyle:emptyblock"})
+  public UUID fromInputStream(final InputStream input) throws IOException {
+    if (input == null) {
+      return null;
+    }
+    final MessageDigest md = acquireDigest();
+    try {
+      try (DigestInputStream dis = new DigestInputStream(input, md)) {
+        final byte[] buffer = new byte[BUFFER_SIZE];
+        while (dis.read(buffer) >= 0) {}
+      }
+      return digest(md);
+    } finally {
+      digests.release(md);
+    }
+  }
+
+  /**
+   * Generates a UUID from the content of the given file, which is memory-mapped instead of being
+   * copied through a buffer. The result is the same as {@link #fromInputStream(InputStream)} on the
+   * same bytes.
+   *
+   * @param path the file.
+   * @return the resulting UUID.
+   * @throws IOException if an I/O error occurs.
+   */
+  public UUID fromPath(final Path path) throws IOException {
+    if (path == null) {
+      return null;
+    }
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      final long size = channel.size();
+      final MessageDigest md = acquireDigest();
+      try {
+        for (long position = 0; position < size; position += MAP_SIZE) {
+          md.update(
+              channel.map(
+                  FileChannel.MapMode.READ_ONLY, position, Math.min(MAP_SIZE, size - position)));
+        }
+        return digest(md);
+      } finally {
+        digests.release(md);
+      }
+    }
+  }
+
+  /**
+   * Generates a UUID from the tree hash of the content of the given file, using the common
+   * fork-join pool. See {@link #fromPathTreeHash(Path, ForkJoinPool)}.
+   *
+   * @param path the file.
+   * @return the resulting UUID.
+   * @throws IOException if an I/O error occurs.
+   */
+  public UUID fromPathTreeHash(final Path path) throws IOException {
+    return fromPathTreeHash(path, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Generates a UUID from the tree hash of the content of the given file. The file is split in
+   * chunks of {@link #TREE_HASH_CHUNK_SIZE} bytes which are hashed in parallel, then the UUID is
+   * generated from the hash of the format version, the size of the file and the hashes of the
+   * chunks, in order. The result only depends on the content of the file and on {@link
+   * #TREE_HASH_VERSION}, not on the parallelism, but it is different from {@link #fromPath(Path)}.
+   *
+   * @param path the file.
+   * @param pool the pool in which the chunks are hashed.
+   * @return the resulting UUID.
+   * @throws IOException if an I/O error occurs.
+   */
+  public UUID fromPathTreeHash(final Path path, final ForkJoinPool pool) throws IOException {
+    if (path == null) {
+      return null;
+    }
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      final long size = channel.size();
+      final int chunks = Math.toIntExact((size + TREE_HASH_CHUNK_SIZE - 1) / TREE_HASH_CHUNK_SIZE);
+      final ByteBuffer header = ByteBuffer.allocate(Integer.BYTES + Long.BYTES);
+      header.putInt(TREE_HASH_MAGIC).putLong(size).flip();
+      final MessageDigest md = acquireDigest();
+      try {
+        final int length = md.getDigestLength();
+        final byte[] hashes = new byte[Math.multiplyExact(chunks, length)];
+        if (chunks > 0) {
+          try {
+            pool.invoke(new ChunkHasher(channel, size, hashes, length, 0, chunks));
+          } catch (final UncheckedIOException e) {
+            throw e.getCause();
+          }
+        }
+        md.update(header);
+        md.update(hashes);
+        return digest(md);
+      } finally {
+        digests.release(md);
+      }
+    }
+  }
+
+  /**
+   * Generates a UUID from the content of the files of a directory tree, hashed concurrently by as
+   * many threads as there are processors. See {@link #fromDirectory(Path, Executor)}.
+   *
+   * @param root the root of the directory tree.
+   * @return the resulting UUID.
+   * @throws IOException if an I/O error occurs.
+   */
+  public UUID fromDirectory(final Path root) throws IOException {
+    final ExecutorService executor =
+        Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+    try {
+      return fromDirectory(root, executor);
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  /**
+   * Generates a UUID from the content of the files of a directory tree, hashed concurrently by the
+   * given executor, which should be bounded since each file is a separate task. Each regular file
+   * is hashed like {@link #fromPath(Path)}, then the UUID is built like by {@link #builder()} from
+   * {@link #DIRECTORY_HASH_VERSION}, the number of files and, in the order of their paths relative
+   * to the root (with {@code /} as separator), the path and UUID of each file. The result therefore
+   * does not depend on the order in which the files are walked or hashed, nor on the platform.
+   * Symbolic links are not followed and empty directories are ignored.
+   *
+   * @param root the root of the directory tree.
+   * @param executor the executor by which the files are hashed.
+   * @return the resulting UUID.
+   * @throws IOException if an I/O error occurs.
+   */
+  public UUID fromDirectory(final Path root, final Executor executor) throws IOException {
+    if (root == null) {
+      return null;
+    }
+    final Map<String, CompletableFuture<UUID>> files = new TreeMap<>();
+    try (Stream<Path> walk = Files.walk(root)) {
+      walk.filter(path -> Files.isRegularFile(path, LinkOption.NOFOLLOW_LINKS))
+          .forEach(
+              path ->
+                  files.put(
+                      relativeName(root, path),
+                      CompletableFuture.supplyAsync(() -> fromFile(path), executor)));
+    } catch (final UncheckedIOException e) {
+      throw e.getCause();
+    }
+    final ReproducibleUUIDBuilder builder = builder();
+    builder.put(DIRECTORY_HASH_MAGIC).put((long) files.size());
+    try {
+      for (final Map.Entry<String, CompletableFuture<UUID>> file : files.entrySet()) {
+        builder.put(file.getKey()).put(file.getValue().join());
+      }
+    } catch (final CompletionException e) {
+      if (e.getCause() instanceof UncheckedIOException) {
+        throw ((UncheckedIOException) e.getCause()).getCause();
+      }
+      throw e;
+    }
+    return builder.build();
+  }
+
+  /**
+   * Computes the platform-independent name of a file relative to a root.
+   *
+   * @param root the root.
+   * @param path the file.
+   * @return the names of the path elements from the root to the file, joined by slashes.
+   */
+  private static String relativeName(final Path root, final Path path) {
+    final StringBuilder name = new StringBuilder();
+    for (final Path element : root.relativize(path)) {
+      if (name.length() > 0) {
+        name.append('/');
+      }
+      name.append(element);
+    }
+    return name.toString();
+  }
+
+  /**
+   * Hashes a file of a directory tree, reading small files and mapping larger ones.
+   *
+   * @param path the file.
+   * @return the resulting UUID.
+   * @throws UncheckedIOException if an I/O error occurs.
+   */
+  private UUID fromFile(final Path path) {
+    try {
+      if (Files.size(path) < SMALL_FILE_SIZE) {
+        return fromBytes(Files.readAllBytes(path));
+      }
+      return fromPath(path);
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Generates the UUIDs of a batch of strings in the common fork-join pool. See {@link
+   * #fromStrings(List, ForkJoinPool)}.
+   *
+   * @param names the strings.
+   * @return the resulting UUIDs, packed as in {@link UUIDArrayList#UUIDArrayList(long[])}.
+   * @throws NullPointerException if one of the strings is null.
+   */
+  public long[] fromStrings(final List<? extends CharSequence> names) {
+    return fromStrings(names, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Generates the UUIDs of a batch of strings in the given fork-join pool. The batch is split in
+   * slices, each hashed with a single digest and encoding buffer, and the UUIDs are written to a
+   * packed array rather than allocated. The UUID of the string at index {@code i} is the same as
+   * {@link #fromCharSequence(CharSequence)} and its most and least significant bits are at indexes
+   * {@code 2 * i} and {@code 2 * i + 1} of the array.
+   *
+   * @param names the strings.
+   * @param pool the pool in which the strings are hashed.
+   * @return the resulting UUIDs, packed as in {@link UUIDArrayList#UUIDArrayList(long[])}.
+   * @throws NullPointerException if one of the strings is null.
+   */
+  public long[] fromStrings(final List<? extends CharSequence> names, final ForkJoinPool pool) {
+    return batch(names, pool, this::hash);
+  }
+
+  /**
+   * Generates the UUIDs of a batch of byte arrays in the common fork-join pool. See {@link
+   * #fromByteArrays(List, ForkJoinPool)}.
+   *
+   * @param names the byte arrays.
+   * @return the resulting UUIDs, packed as in {@link UUIDArrayList#UUIDArrayList(long[])}.
+   * @throws NullPointerException if one of the byte arrays is null.
+   */
+  public long[] fromByteArrays(final List<byte[]> names) {
+    return fromByteArrays(names, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Generates the UUIDs of a batch of byte arrays in the given fork-join pool, like {@link
+   * #fromStrings(List, ForkJoinPool)} does for strings. The UUID of each byte array is the same as
+   * {@link #fromBytes(byte...)}.
+   *
+   * @param names the byte arrays.
+   * @param pool the pool in which the byte arrays are hashed.
+   * @return the resulting UUIDs, packed as in {@link UUIDArrayList#UUIDArrayList(long[])}.
+   * @throws NullPointerException if one of the byte arrays is null.
+   */
+  public long[] fromByteArrays(final List<byte[]> names, final ForkJoinPool pool) {
+    return batch(names, pool, this::hash);
+  }
+
+  /**
+   * Returns a collector of the UUIDs of strings, e.g. for parallel streams. Each container of the
+   * collector has its own encoding buffer and the UUIDs are collected in encounter order without
+   * being allocated.
+   *
+   * @return the collector.
+   */
+  public Collector<CharSequence, ?, UUIDArrayList> toUUIDArrayList() {
+    return Collector.of(
+        BatchCollector::new,
+        BatchCollector::accept,
+        BatchCollector::combine,
+        BatchCollector::finish);
+  }
+
+  /**
+   * Generates the UUIDs of a batch of names.
+   *
+   * @param <T> the type of the names.
+   * @param names the names.
+   * @param pool the pool in which the names are hashed.
+   * @param hasher the function which hashes a name.
+   * @return the resulting UUIDs, packed.
+   */
+  private <T> long[] batch(
+      final List<T> names, final ForkJoinPool pool, final NameHasher<? super T> hasher) {
+    if (names == null) {
+      return null;
+    }
+    final List<T> list = names instanceof RandomAccess ? names : new ArrayList<>(names);
+    final long[] uuids = new long[Math.multiplyExact(list.size(), 2)];
+    if (!list.isEmpty()) {
+      pool.invoke(new BatchHasher<>(list, hasher, uuids, 0, list.size()));
+    }
+    return uuids;
+  }
+
+  /**
+   * Hashes a string into a packed array.
+   *
+   * @param s the string.
+   * @param md a digest in its initial state, which is left in its initial state.
+   * @param buffers encoding buffers.
+   * @param dst the packed array.
+   * @param index the index of the most significant bits of the UUID in the array.
+   */
+  private void hash(
+      final CharSequence s,
+      final MessageDigest md,
+      final Utf8.Buffers buffers,
+      final long[] dst,
+      final int index) {
+    if (singleBlockMd5 && Md5.isShortAscii(s)) {
+      Md5.nameUUIDFromAscii(s, dst, index);
+      return;
+    }
+    start(md);
+    md.update(buffers.bytes, 0, Utf8.encode(s, buffers.chars, md, buffers.bytes, 0));
+    digest(md, dst, index);
+  }
+
+  /**
+   * Hashes bytes into a packed array.
+   *
+   * @param bytes the bytes.
+   * @param md a digest in its initial state, which is left in its initial state.
+   * @param buffers encoding buffers, unused.
+   * @param dst the packed array.
+   * @param index the index of the most significant bits of the UUID in the array.
+   */
+  private void hash(
+      final byte[] bytes,
+      final MessageDigest md,
+      final Utf8.Buffers buffers,
+      final long[] dst,
+      final int index) {
+    if (singleBlockMd5 && bytes.length <= Md5.MAX_SINGLE_BLOCK) {
+      Md5.nameUUIDFromBytes(bytes, 0, bytes.length, dst, index);
+      return;
+    }
+    start(md);
+    md.update(bytes);
+    digest(md, dst, index);
+  }
+
+  /**
+   * Function which hashes a name into a packed array.
+   *
+   * @param <T> the type of the names.
+   * @author Thomas Leplus
+   * @since 2.1.0
+   */
+  @FunctionalInterface
+  private interface NameHasher<T> {
+
+    /**
+     * Hashes a name into a packed array.
+     *
+     * @param name the name.
+     * @param md a digest in its initial state, which is left in its initial state.
+     * @param buffers encoding buffers.
+     * @param dst the packed array.
+     * @param index the index of the most significant bits of the UUID in the array.
+     */
+    void hash(T name, MessageDigest md, Utf8.Buffers buffers, long[] dst, int index);
+  }
+
+  /**
+   * Hashes a range of a batch of names, splitting it until it is small enough.
+   *
+   * @param <T> the type of the names.
+   * @author Thomas Leplus
+   * @since 2.1.0
+   */
+  private final class BatchHasher<T> extends RecursiveAction {
+
+    /** Serial version UID. */
+    private static final long serialVersionUID = 1L;
+
+    /** The names. */
+    private final transient List<T> names;
+
+    /** The function which hashes a name. */
+    private final transient NameHasher<? super T> hasher;
+
+    /** The packed UUIDs. */
+    private final long[] uuids;
+
+    /** The index of the first name to hash (inclusive). */
+    private final int from;
+
+    /** The index of the last name to hash (exclusive). */
+    private final int to;
+
+    /**
+     * Constructor.
+     *
+     * @param names the names.
+     * @param hasher the function which hashes a name.
+     * @param uuids the packed UUIDs.
+     * @param from the index of the first name to hash (inclusive).
+     * @param to the index of the last name to hash (exclusive).
+     */
+    BatchHasher(
+        final List<T> names,
+        final NameHasher<? super T> hasher,
+        final long[] uuids,
+        final int from,
+        final int to) {
+      super();
+      this.names = names;
+      this.hasher = hasher;
+      this.uuids = uuids;
+      this.from = from;
+      this.to = to;
+    }
+
+    /**
+     * @see java.util.concurrent.RecursiveAction#compute()
+     */
+    @Override
+    protected void compute() {
+      if (to - from > BATCH_SIZE) {
+        final int mid = (from + to) >>> 1;
+        invokeAll(
+            new BatchHasher<>(names, hasher, uuids, from, mid),
+            new BatchHasher<>(names, hasher, uuids, mid, to));
+        return;
+      }
+      final Utf8.Buffers buffers = DigestPool.acquireBuffers();
+      final MessageDigest md = digests.acquire();
+      try {
+        for (int i = from; i < to; i++) {
+          hasher.hash(names.get(i), md, buffers, uuids, i << 1);
+        }
+      } finally {
+        digests.release(md);
+        DigestPool.releaseBuffers(buffers);
+      }
+    }
+  }
+
+  /**
+   * Container of the collector of the UUIDs of strings.
+   *
+   * @author Thomas Leplus
+   * @since 2.1.0
+   */
+  private final class BatchCollector {
+
+    /** The UUIDs collected so far. */
+    private final UUIDArrayList uuids = new UUIDArrayList();
+
+    /** The encoding buffers. */
+    private final Utf8.Buffers buffers = new Utf8.Buffers();
+
+    /** The UUID being collected. */
+    private final long[] uuid = new long[2];
+
+    /** Constructor. */
+    BatchCollector() {
+      super();
+    }
+
+    /**
+     * Collects the UUID of a string.
+     *
+     * @param s the string.
+     */
+    void accept(final CharSequence s) {
+      final MessageDigest md = digests.acquire();
+      try {
+        hash(s, md, buffers, uuid, 0);
+      } finally {
+        digests.release(md);
+      }
+      uuids.add(uuid[0], uuid[1]);
+    }
+
+    /**
+     * Appends the UUIDs collected by another container.
+     *
+     * @param other the other container.
+     * @return this container.
+     */
+    BatchCollector combine(final BatchCollector other) {
+      uuids.addAll(other.uuids.toPackedLongs());
+      return this;
+    }
+
+    /**
+     * Returns the UUIDs collected.
+     *
+     * @return the UUIDs.
+     */
+    UUIDArrayList finish() {
+      return uuids;
+    }
+  }
+
+  /**
+   * Generates a UUID from the given UUIDs. The same UUIDs will always produce the same UUID. The
+   * version 3 generator without a namespace returns a single UUID as is, for compatibility with
+   * {@link org.leplus.ristretto.util.ReproducibleUUIDs#fromUUIDs(UUID...)}; the other generators
+   * hash it like any other number of UUIDs.
+   *
+   * @param uuids the UUIDs.
+   * @return the resulting UUID.
+   */
+  public UUID fromUUIDs(final UUID... uuids) {
+    if (uuids == null) {
+      return null;
+    }
+    return fromUUIDIterator(Arrays.asList(uuids).iterator());
+  }
+
+  /**
+   * Generates a UUID from the given UUIDs, which are hashed through a small buffer as they are
+   * iterated. The result is the same as {@link #fromUUIDs(UUID...)} with the UUIDs in iteration
+   * order.
+   *
+   * @param uuids the UUIDs.
+   * @return the resulting UUID.
+   */
+  public UUID fromUUIDIterable(final Iterable<? extends UUID> uuids) {
+    if (uuids == null) {
+      return null;
+    }
+    return fromUUIDIterator(uuids.iterator());
+  }
+
+  /**
+   * Generates a UUID from the given UUIDs, which are hashed through a small buffer in encounter
+   * order. The result is the same as {@link #fromUUIDs(UUID...)} with the UUIDs in that order.
+   *
+   * @param uuids the UUIDs.
+   * @return the resulting UUID.
+   */
+  public UUID fromUUIDStream(final Stream<? extends UUID> uuids) {
+    if (uuids == null) {
+      return null;
+    }
+    return fromUUIDIterator(uuids.iterator());
+  }
+
+  /**
+   * Generates a UUID from the given packed UUIDs. The result is the same as {@link
+   * #fromUUIDs(UUID...)} with the UUIDs in the same order.
+   *
+   * @param packed the UUIDs, packed as in {@link UUIDArrayList#UUIDArrayList(long[])}.
+   * @return the resulting UUID.
+   * @throws IllegalArgumentException if the length of the array is odd.
+   */
+  public UUID fromPackedUUIDs(final long[] packed) {
+    if (packed == null || packed.length == 0) {
+      return null;
+    }
+    if ((packed.length & 1) != 0) {
+      throw new IllegalArgumentException("Odd number of longs: " + packed.length);
+    }
+    if (packed.length == 2 && singleUUIDAsIs) {
+      return new UUID(packed[0], packed[1]);
+    }
+    final int longs = UUID_BUFFER_SIZE / Long.BYTES;
+    final byte[] buffer = new byte[Math.min(packed.length, longs) * Long.BYTES];
+    if (packed.length <= longs) {
+      for (int i = 0; i < packed.length; i++) {
+        BIG_ENDIAN_LONGS.set(buffer, i * Long.BYTES, packed[i]);
+      }
+      return fromBytes(buffer, buffer.length);
+    }
+    final MessageDigest md = acquireDigest();
+    try {
+      int pos = 0;
+      for (final long bits : packed) {
+        if (pos == buffer.length) {
+          md.update(buffer, 0, pos);
+          pos = 0;
+        }
+        BIG_ENDIAN_LONGS.set(buffer, pos, bits);
+        pos += Long.BYTES;
+      }
+      md.update(buffer, 0, pos);
+      return digest(md);
+    } finally {
+      digests.release(md);
+    }
+  }
+
+  /**
+   * Generates a UUID from the given UUIDs, filling a small buffer before hashing it so that a few
+   * UUIDs are hashed at once.
+   *
+   * @param it the UUIDs.
+   * @return the resulting UUID.
+   */
+  private UUID fromUUIDIterator(final Iterator<? extends UUID> it) {
+    if (!it.hasNext()) {
+      return null;
+    }
+    final UUID first = it.next();
+    if (!it.hasNext() && singleUUIDAsIs) {
+      return first;
+    }
+    final byte[] buffer = new byte[UUID_BUFFER_SIZE];
+    int pos = put(buffer, 0, first);
+    while (pos < buffer.length && it.hasNext()) {
+      pos = put(buffer, pos, it.next());
+    }
+    if (!it.hasNext()) {
+      return fromBytes(buffer, pos);
+    }
+    final MessageDigest md = acquireDigest();
+    try {
+      do {
+        if (pos == buffer.length) {
+          md.update(buffer, 0, pos);
+          pos = 0;
+        }
+        pos = put(buffer, pos, it.next());
+      } while (it.hasNext());
+      md.update(buffer, 0, pos);
+      return digest(md);
+    } finally {
+      digests.release(md);
+    }
+  }
+
+  /**
+   * Writes a UUID to a buffer.
+   *
+   * @param buffer the buffer.
+   * @param pos the position of the UUID in the buffer.
+   * @param uuid the UUID.
+   * @return the position after the UUID.
+   */
+  private static int put(final byte[] buffer, final int pos, final UUID uuid) {
+    BIG_ENDIAN_LONGS.set(buffer, pos, uuid.getMostSignificantBits());
+    BIG_ENDIAN_LONGS.set(buffer, pos + Long.BYTES, uuid.getLeastSignificantBits());
+    return pos + UUID_BYTES;
+  }
+
+  /**
+   * Returns an order-insensitive digest of UUIDs, whose UUID uses the same hash algorithm, version
+   * and namespace as this generator.
+   *
+   * @return a new empty digest.
+   */
+  public UUIDMultisetDigest multisetDigest() {
+    return new UUIDMultisetDigest(this);
+  }
+
+  /**
+   * Returns a collector of the order-insensitive UUID of UUIDs, e.g. for parallel streams. See
+   * {@link UUIDMultisetDigest}.
+   *
+   * @return the collector.
+   */
+  public Collector<UUID, ?, UUID> toUnorderedUUID() {
+    return Collector.of(
+        this::multisetDigest,
+        UUIDMultisetDigest::add,
+        UUIDMultisetDigest::combine,
+        UUIDMultisetDigest::toUUID,
+        Collector.Characteristics.UNORDERED);
+  }
+
+  /**
+   * Returns a builder of UUIDs from composite names, which uses the same hash algorithm, version
+   * and namespace as this generator.
+   *
+   * @return a new builder.
+   */
+  public ReproducibleUUIDBuilder builder() {
+    return new ReproducibleUUIDBuilder(this, digests.newInstance());
+  }
+
+  /**
+   * Takes a digest from the pool and feeds it the namespace, if any. The digest must be given back
+   * to the pool once used.
+   *
+   * @return the digest to use.
+   */
+  private MessageDigest acquireDigest() {
+    final MessageDigest md = digests.acquire();
+    start(md);
+    return md;
+  }
+
+  /**
+   * Feeds the namespace, if any, to a digest in its initial state.
+   *
+   * @param md the digest.
+   */
+  void start(final MessageDigest md) {
+    if (prefix != null) {
+      md.update(prefix);
+    }
+  }
+
+  /**
+   * Hashes a range of chunks of a file, splitting it until each task hashes a single chunk.
+   *
+   * @author Thomas Leplus
+   * @since 2.1.0
+   */
+  private final class ChunkHasher extends RecursiveAction {
+
+    /** Serial version UID. */
+    private static final long serialVersionUID = 1L;
+
+    /** The file. */
+    private final transient FileChannel channel;
+
+    /** The size of the file. */
+    private final long size;
+
+    /** The hashes of the chunks, one after the other. */
+    private final byte[] hashes;
+
+    /** The length of a hash. */
+    private final int length;
+
+    /** The index of the first chunk to hash (inclusive). */
+    private final int from;
+
+    /** The index of the last chunk to hash (exclusive). */
+    private final int to;
+
+    /**
+     * Constructor.
+     *
+     * @param channel the file.
+     * @param size the size of the file.
+     * @param hashes the hashes of the chunks.
+     * @param length the length of a hash.
+     * @param from the index of the first chunk to hash (inclusive).
+     * @param to the index of the last chunk to hash (exclusive).
+     */
+    ChunkHasher(
+        final FileChannel channel,
+        final long size,
+        final byte[] hashes,
+        final int length,
+        final int from,
+        final int to) {
+      super();
+      this.channel = channel;
+      this.size = size;
+      this.hashes = hashes;
+      this.length = length;
+      this.from = from;
+      this.to = to;
+    }
+
+    /**
+     * @see java.util.concurrent.RecursiveAction#compute()
+     */
+    @Override
+    protected void compute() {
+      if (to - from > 1) {
+        final int mid = (from + to) >>> 1;
+        invokeAll(
+            new ChunkHasher(channel, size, hashes, length, from, mid),
+            new ChunkHasher(channel, size, hashes, length, mid, to));
+        return;
+      }
+      final long position = (long) from * TREE_HASH_CHUNK_SIZE;
+      final MessageDigest md = digests.acquire();
+      try {
+        md.update(
+            channel.map(
+                FileChannel.MapMode.READ_ONLY,
+                position,
+                Math.min(TREE_HASH_CHUNK_SIZE, size - position)));
+        md.digest(hashes, from * length, length);
+      } catch (final IOException e) {
+        throw new UncheckedIOException(e);
+      } catch (final DigestException e) {
+        throw new IllegalStateException(e);
+      } finally {
+        digests.release(md);
+      }
+    }
+  }
+
+  /**
+   * Builds a UUID from the first 128 bits of the hash, with the version and variant bits set as
+   * UUID.nameUUIDFromBytes(byte[]) does for version 3.
+   *
+   * @param md the digest.
+   * @return the resulting UUID.
+   */
+  UUID digest(final MessageDigest md) {
+    return UUIDConvertor.toUUID(stampedDigest(md), 0);
+  }
+
+  /**
+   * Builds a UUID like {@link #digest(MessageDigest)} does, into a packed array.
+   *
+   * @param md the digest.
+   * @param dst the packed array.
+   * @param index the index of the most significant bits of the UUID in the array.
+   */
+  private void digest(final MessageDigest md, final long[] dst, final int index) {
+    final byte[] hash = stampedDigest(md);
+    dst[index] = (long) BIG_ENDIAN_LONGS.get(hash, 0);
+    dst[index + 1] = (long) BIG_ENDIAN_LONGS.get(hash, Long.BYTES);
+  }
+
+  /**
+   * Completes the hash and sets the version and variant bits in its first 128 bits.
+   *
+   * @param md the digest.
+   * @return the hash.
+   */
+  @SuppressWarnings("checkstyle:magicnumber")
+  private byte[] stampedDigest(final MessageDigest md) {
+    final byte[] hash = md.digest();
+    hash[6] &= (byte) 0x0f;
+    hash[6] |= (byte) (version << 4);
+    hash[8] &= (byte) 0x3f;
+    hash[8] |= (byte) 0x80;
+    return hash;
+  }
+}
@@ -16,16 +16,16 @@
 
 package org.leplus.ristretto.util;
 
-import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.ByteBuffer;
-import java.nio.LongBuffer;
-import java.nio.charset.StandardCharsets;
-import java.security.DigestInputStream;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
+import java.nio.file.Path;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collector;
+import java.util.stream.Stream;
 
 /**
  * This class contains utility methods that generate deterministic UUIDs. Meaning that given the
@@ -41,26 +41,163 @@ import java.util.UUID;
  * parts of the system will have generated the same reference UUID allowing for easier
  * reconciliation.
  *
+ * <p>The static methods of this class generate version 3 UUIDs without namespace, compatible with
+ * {@link java.util.UUID#nameUUIDFromBytes(byte[])}. Generators for the name-based UUIDs of RFC 9562
+ * within a namespace are returned by {@link #v3(UUID)}, {@link #v5(UUID)} and {@link #v8(UUID)},
+ * and a faster non-cryptographic alternative by {@link #murmur3(UUID)}.
+ *
+ * <p>The {@link java.security.MessageDigest} instances used to hash the input are pooled, see
+ * {@link #setDigestPooling(DigestPooling)}.
+ *
  * @author Thomas Leplus
  * @since 1.0.0
  */
-@SuppressFBWarnings("WEAK_MESSAGE_DIGEST_MD5")
 public final class ReproducibleUUIDs {
 
+  /** The namespace of fully-qualified domain names, as defined in RFC 9562. */
+  public static final UUID NAMESPACE_DNS = UUID.fromString("6ba7b810-9dad-11d1-80b4-00c04fd430c8");
+
+  /** The namespace of URLs, as defined in RFC 9562. */
+  public static final UUID NAMESPACE_URL = UUID.fromString("6ba7b811-9dad-11d1-80b4-00c04fd430c8");
+
+  /** The namespace of ISO object identifiers, as defined in RFC 9562. */
+  public static final UUID NAMESPACE_OID = UUID.fromString("6ba7b812-9dad-11d1-80b4-00c04fd430c8");
+
+  /** The namespace of X.500 distinguished names, as defined in RFC 9562. */
+  public static final UUID NAMESPACE_X500 =
+      UUID.fromString("6ba7b814-9dad-11d1-80b4-00c04fd430c8");
+
   /** Underlying hash algorithm. MD5 is OK since we do not need a one-way hash function. */
   private static final String MD5 = "MD5";
 
-  /** Bytes per UUID. */
-  private static final int UUID_BYTES = 16;
+  /** Hash algorithm of version 5 UUIDs. */
+  private static final String SHA1 = "SHA-1";
 
-  /** Buffer size for digest. */
-  private static final int BUFFER_SIZE = 8192;
+  /** Hash algorithm of the name-based version 8 UUIDs. */
+  private static final String SHA256 = "SHA-256";
+
+  /**
+   * Generator of the static methods. MD5 is not secure but it's OK in this case since we just need
+   * good entropy, not actual security. Also MD5 gives us exactly the 128 bits we need to create a
+   * UUID.
+   */
+  private static final ReproducibleUUIDGenerator DEFAULT =
+      new ReproducibleUUIDGenerator(MD5, 3, null);
 
   /** Private constructor to prevent instantiation. */
   private ReproducibleUUIDs() {
     super();
   }
 
+  /**
+   * Strategies to reuse the {@link java.security.MessageDigest} instances between calls.
+   *
+   * @author Thomas Leplus
+   * @since 2.1.0
+   */
+  public enum DigestPooling {
+
+    /** A new instance is looked up from the security providers on every call. */
+    NONE,
+
+    /**
+     * Each thread keeps an instance for its own use. This is the cheapest strategy for a bounded
+     * number of long-lived threads, such as those of a thread pool.
+     */
+    THREAD_LOCAL,
+
+    /**
+     * Instances are shared by all threads through a small pool. Threads which find the pool empty
+     * create a new instance, and instances given back to a full pool are dropped. This strategy is
+     * preferable when many short-lived threads (e.g. virtual threads) would each allocate their own
+     * thread-local instance.
+     */
+    BOUNDED
+  }
+
+  /**
+   * Returns the current strategy used to reuse the {@link java.security.MessageDigest} instances.
+   *
+   * @return the pooling strategy, {@link DigestPooling#THREAD_LOCAL} by default.
+   */
+  public static DigestPooling getDigestPooling() {
+    return DigestPool.getPooling();
+  }
+
+  /**
+   * Changes the strategy used to reuse the {@link java.security.MessageDigest} instances. This
+   * setting is global and takes effect for subsequent calls of all threads. It does not change the
+   * generated UUIDs.
+   *
+   * @param pooling the pooling strategy.
+   * @throws NullPointerException if the pooling strategy is null.
+   */
+  public static void setDigestPooling(final DigestPooling pooling) {
+    DigestPool.setPooling(pooling);
+  }
+
+  /**
+   * Returns a generator of version 3 (MD5) UUIDs, as defined in RFC 9562.
+   *
+   * @param namespace the namespace, e.g. {@link #NAMESPACE_DNS}, or null to hash the names alone
+   *     like the static methods of this class.
+   * @return the generator.
+   */
+  @SuppressWarnings("checkstyle:magicnumber")
+  public static ReproducibleUUIDGenerator v3(final UUID namespace) {
+    return namespace == null ? DEFAULT : new ReproducibleUUIDGenerator(MD5, 3, namespace);
+  }
+
+  /**
+   * Returns a generator of version 5 (SHA-1) UUIDs, as defined in RFC 9562.
+   *
+   * @param namespace the namespace, e.g. {@link #NAMESPACE_DNS}, or null to hash the names alone,
+   *     in which case the version bits are still set but the UUIDs are not RFC 9562 UUIDs.
+   * @return the generator.
+   */
+  @SuppressWarnings("checkstyle:magicnumber")
+  public static ReproducibleUUIDGenerator v5(final UUID namespace) {
+    return new ReproducibleUUIDGenerator(SHA1, 5, namespace);
+  }
+
+  /**
+   * Returns a generator of version 8 UUIDs built from the SHA-256 hash of the names, as in the
+   * name-based example of RFC 9562.
+   *
+   * @param namespace the namespace, e.g. {@link #NAMESPACE_DNS}, or null to hash the names alone,
+   *     in which case the version bits are still set but the UUIDs do not follow the example.
+   * @return the generator.
+   */
+  @SuppressWarnings("checkstyle:magicnumber")
+  public static ReproducibleUUIDGenerator v8(final UUID namespace) {
+    return new ReproducibleUUIDGenerator(SHA256, 8, namespace);
+  }
+
+  /**
+   * Returns a generator of version 8 UUIDs built from the 128-bit MurmurHash3 of the names. This
+   * non-cryptographic hash is several times faster than MD5 and well suited to internal keys, but
+   * collisions can be crafted on purpose so it should not be used on untrusted input where that
+   * matters. The generated UUIDs are not compatible with any other version.
+   *
+   * @param namespace the namespace, e.g. {@link #NAMESPACE_DNS}, or null to hash the names alone.
+   * @return the generator.
+   */
+  @SuppressWarnings("checkstyle:magicnumber")
+  public static ReproducibleUUIDGenerator murmur3(final UUID namespace) {
+    return new ReproducibleUUIDGenerator(Murmur3Digest.ALGORITHM, 8, namespace);
+  }
+
+  /**
+   * Returns a builder of version 3 UUIDs from composite names, without namespace like the static
+   * methods of this class. See {@link ReproducibleUUIDGenerator#builder()} for the other
+   * generators.
+   *
+   * @return a new builder.
+   */
+  public static ReproducibleUUIDBuilder builder() {
+    return DEFAULT.builder();
+  }
+
   /**
    * Generates a UUID from the given String. The same String will always produce the same UUID.
    *
@@ -68,10 +205,20 @@ public final class ReproducibleUUIDs {
    * @return the resulting UUID.
    */
   public static UUID fromString(final String s) {
-    if (s == null) {
-      return null;
-    }
-    return fromBytes(s.getBytes(StandardCharsets.UTF_8));
+    return DEFAULT.fromString(s);
+  }
+
+  /**
+   * Generates a UUID from the UTF-8 encoding of the given chars, without copying them. The same
+   * chars will always produce the same UUID, the same as {@link #fromString(String)} for a String
+   * of those chars.
+   *
+   * @param s the input chars, e.g. a {@link java.lang.StringBuilder} or a {@link
+   *     java.nio.CharBuffer}.
+   * @return the resulting UUID.
+   */
+  public static UUID fromCharSequence(final CharSequence s) {
+    return DEFAULT.fromCharSequence(s);
   }
 
   /**
@@ -81,12 +228,7 @@ public final class ReproducibleUUIDs {
    * @return the resulting UUID.
    */
   public static UUID fromBytes(final byte... bytes) {
-    if (bytes == null) {
-      return null;
-    }
-    final MessageDigest md = createDigest();
-    md.update(bytes);
-    return digest(md);
+    return DEFAULT.fromBytes(bytes);
   }
 
   /**
@@ -96,67 +238,145 @@ public final class ReproducibleUUIDs {
    * @return the resulting UUID.
    */
   public static UUID fromByteBuffer(final ByteBuffer buffer) {
-    if (buffer == null) {
-      return null;
-    }
-    final MessageDigest md = createDigest();
-    md.update(buffer);
-    return digest(md);
+    return DEFAULT.fromByteBuffer(buffer);
   }
 
   /**
-   * Digests bytes in a manner compatible with UUID.nameUUIDFromBytes(byte[]).
+   * Generates a UUID from the given input stream. The same bytes will always produce the same UUID.
    *
-   * @param md the digest.
+   * @param input the input stream.
    * @return the resulting UUID.
+   * @throws IOException if an I/O error occurs.
    */
-  @SuppressWarnings("checkstyle:magicnumber")
-  private static UUID digest(final MessageDigest md) {
-    final byte[] md5Bytes = md.digest();
-    // for compatibility with UUID.nameUUIDFromBytes(byte[]).
-    md5Bytes[6] &= (byte) 0x0f;
-    md5Bytes[6] |= (byte) 0x30;
-    md5Bytes[8] &= (byte) 0x3f;
-    md5Bytes[8] |= (byte) 0x80;
-    return UUIDConvertor.toUUID(md5Bytes);
+  public static UUID fromInputStream(final InputStream input) throws IOException {
+    return DEFAULT.fromInputStream(input);
   }
 
   /**
-   * Private factory method for digests.
+   * Generates a UUID from the content of the given file, which is memory-mapped. The same bytes
+   * will always produce the same UUID, the same as {@link #fromInputStream(InputStream)}.
    *
-   * @return the digest to use.
+   * @param path the file.
+   * @return the resulting UUID.
+   * @throws IOException if an I/O error occurs.
    */
-  private static MessageDigest createDigest() {
-    try {
-      /*
-       * MD5 is not secure but it's OK in this case since we just need good
-       * entropy, not actual security. Also MD5 gives us exactly the 128 bits
-       * we need to create a UUID.
-       */
-      return MessageDigest.getInstance(MD5);
-    } catch (final NoSuchAlgorithmException e) {
-      throw new IllegalStateException(MD5 + " not supported", e);
-    }
+  public static UUID fromPath(final Path path) throws IOException {
+    return DEFAULT.fromPath(path);
   }
 
   /**
-   * Generates a UUID from the given input stream. The same bytes will always produce the same UUID.
+   * Generates a UUID from the tree hash of the content of the given file, whose chunks are hashed
+   * in parallel in the common fork-join pool. See {@link
+   * ReproducibleUUIDGenerator#fromPathTreeHash(Path, ForkJoinPool)}.
    *
-   * @param input the input stream.
+   * @param path the file.
    * @return the resulting UUID.
    * @throws IOException if an I/O error occurs.
    */
-  @SuppressWarnings({"PMD.EmptyWhileStmt", "PMD.EmptyControlStatement", "checkstyle:emptyblock"})
-  public static UUID fromInputStream(final InputStream input) throws IOException {
-    if (input == null) {
-      return null;
-    }
-    final MessageDigest md = createDigest();
-    try (DigestInputStream dis = new DigestInputStream(input, md)) {
-      final byte[] buffer = new byte[BUFFER_SIZE];
-      while (dis.read(buffer) >= 0) {}
-    }
-    return digest(md);
+  public static UUID fromPathTreeHash(final Path path) throws IOException {
+    return DEFAULT.fromPathTreeHash(path);
+  }
+
+  /**
+   * Generates a UUID from the tree hash of the content of the given file, whose chunks are hashed
+   * in parallel in the given fork-join pool. See {@link
+   * ReproducibleUUIDGenerator#fromPathTreeHash(Path, ForkJoinPool)}.
+   *
+   * @param path the file.
+   * @param pool the pool in which the chunks are hashed.
+   * @return the resulting UUID.
+   * @throws IOException if an I/O error occurs.
+   */
+  public static UUID fromPathTreeHash(final Path path, final ForkJoinPool pool)
+      throws IOException {
+    return DEFAULT.fromPathTreeHash(path, pool);
+  }
+
+  /**
+   * Generates a UUID from the content of the files of a directory tree, hashed concurrently by as
+   * many threads as there are processors. See {@link
+   * ReproducibleUUIDGenerator#fromDirectory(Path, Executor)}.
+   *
+   * @param root the root of the directory tree.
+   * @return the resulting UUID.
+   * @throws IOException if an I/O error occurs.
+   */
+  public static UUID fromDirectory(final Path root) throws IOException {
+    return DEFAULT.fromDirectory(root);
+  }
+
+  /**
+   * Generates a UUID from the content of the files of a directory tree, hashed concurrently by the
+   * given executor. See {@link ReproducibleUUIDGenerator#fromDirectory(Path, Executor)}.
+   *
+   * @param root the root of the directory tree.
+   * @param executor the executor by which the files are hashed.
+   * @return the resulting UUID.
+   * @throws IOException if an I/O error occurs.
+   */
+  public static UUID fromDirectory(final Path root, final Executor executor) throws IOException {
+    return DEFAULT.fromDirectory(root, executor);
+  }
+
+  /**
+   * Generates the UUIDs of a batch of strings in the common fork-join pool. See {@link
+   * ReproducibleUUIDGenerator#fromStrings(List, ForkJoinPool)}.
+   *
+   * @param names the strings.
+   * @return the resulting UUIDs, packed as in {@link UUIDArrayList#UUIDArrayList(long[])}.
+   * @throws NullPointerException if one of the strings is null.
+   */
+  public static long[] fromStrings(final List<? extends CharSequence> names) {
+    return DEFAULT.fromStrings(names);
+  }
+
+  /**
+   * Generates the UUIDs of a batch of strings in the given fork-join pool. See {@link
+   * ReproducibleUUIDGenerator#fromStrings(List, ForkJoinPool)}.
+   *
+   * @param names the strings.
+   * @param pool the pool in which the strings are hashed.
+   * @return the resulting UUIDs, packed as in {@link UUIDArrayList#UUIDArrayList(long[])}.
+   * @throws NullPointerException if one of the strings is null.
+   */
+  public static long[] fromStrings(
+      final List<? extends CharSequence> names, final ForkJoinPool pool) {
+    return DEFAULT.fromStrings(names, pool);
+  }
+
+  /**
+   * Generates the UUIDs of a batch of byte arrays in the common fork-join pool. See {@link
+   * ReproducibleUUIDGenerator#fromByteArrays(List, ForkJoinPool)}.
+   *
+   * @param names the byte arrays.
+   * @return the resulting UUIDs, packed as in {@link UUIDArrayList#UUIDArrayList(long[])}.
+   * @throws NullPointerException if one of the byte arrays is null.
+   */
+  public static long[] fromByteArrays(final List<byte[]> names) {
+    return DEFAULT.fromByteArrays(names);
+  }
+
+  /**
+   * Generates the UUIDs of a batch of byte arrays in the given fork-join pool. See {@link
+   * ReproducibleUUIDGenerator#fromByteArrays(List, ForkJoinPool)}.
+   *
+   * @param names the byte arrays.
+   * @param pool the pool in which the byte arrays are hashed.
+   * @return the resulting UUIDs, packed as in {@link UUIDArrayList#UUIDArrayList(long[])}.
+   * @throws NullPointerException if one of the byte arrays is null.
+   */
+  public static long[] fromByteArrays(final List<byte[]> names, final ForkJoinPool pool) {
+    return DEFAULT.fromByteArrays(names, pool);
+  }
+
+  /**
+   * Returns a collector of the UUIDs of strings, e.g. for parallel streams. See {@link
+   * ReproducibleUUIDGenerator#toUUIDArrayList()}.
+   *
+   * @return the collector.
+   */
+  public static Collector<CharSequence, ?, UUIDArrayList> toUUIDArrayList() {
+    return DEFAULT.toUUIDArrayList();
   }
 
   /**
@@ -166,18 +386,59 @@ public final class ReproducibleUUIDs {
    * @return the resulting UUID.
    */
   public static UUID fromUUIDs(final UUID... uuids) {
-    if (uuids == null || uuids.length == 0) {
-      return null;
-    }
-    if (uuids.length == 1) {
-      return uuids[0];
-    }
-    final ByteBuffer bytes = ByteBuffer.allocate(uuids.length * UUID_BYTES);
-    final LongBuffer longs = bytes.asLongBuffer();
-    for (final UUID uuid : uuids) {
-      longs.put(uuid.getMostSignificantBits());
-      longs.put(uuid.getLeastSignificantBits());
-    }
-    return fromByteBuffer(bytes);
+    return DEFAULT.fromUUIDs(uuids);
+  }
+
+  /**
+   * Generates a UUID from the given UUIDs, hashed through a small buffer as they are iterated. The
+   * result is the same as {@link #fromUUIDs(UUID...)} with the UUIDs in iteration order.
+   *
+   * @param uuids the UUIDs.
+   * @return the resulting UUID.
+   */
+  public static UUID fromUUIDIterable(final Iterable<? extends UUID> uuids) {
+    return DEFAULT.fromUUIDIterable(uuids);
+  }
+
+  /**
+   * Generates a UUID from the given UUIDs, hashed through a small buffer in encounter order. The
+   * result is the same as {@link #fromUUIDs(UUID...)} with the UUIDs in that order.
+   *
+   * @param uuids the UUIDs.
+   * @return the resulting UUID.
+   */
+  public static UUID fromUUIDStream(final Stream<? extends UUID> uuids) {
+    return DEFAULT.fromUUIDStream(uuids);
+  }
+
+  /**
+   * Generates a UUID from the given packed UUIDs. The result is the same as {@link
+   * #fromUUIDs(UUID...)} with the UUIDs in the same order.
+   *
+   * @param packed the UUIDs, packed as in {@link UUIDArrayList#UUIDArrayList(long[])}.
+   * @return the resulting UUID.
+   * @throws IllegalArgumentException if the length of the array is odd.
+   */
+  public static UUID fromPackedUUIDs(final long[] packed) {
+    return DEFAULT.fromPackedUUIDs(packed);
+  }
+
+  /**
+   * Returns an order-insensitive digest of UUIDs. See {@link UUIDMultisetDigest}.
+   *
+   * @return a new empty digest.
+   */
+  public static UUIDMultisetDigest multisetDigest() {
+    return DEFAULT.multisetDigest();
+  }
+
+  /**
+   * Returns a collector of the order-insensitive UUID of UUIDs, e.g. for parallel streams. See
+   * {@link UUIDMultisetDigest}.
+   *
+   * @return the collector.
+   */
+  public static Collector<UUID, ?, UUID> toUnorderedUUID() {
+    return DEFAULT.toUnorderedUUID();
   }
 }
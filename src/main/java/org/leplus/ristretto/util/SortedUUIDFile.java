@@ -0,0 +1,468 @@
+/*
+ * Copyright 2016-present Thomas Leplus
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.leplus.ristretto.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.UUID;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * This class gives read access to an immutable, sorted set of UUIDs stored in a file, without
+ * loading it on the heap. The file is memory-mapped (in chunks so files larger than 2 GB are
+ * supported) and lookups are done by binary search, in O(log n).
+ *
+ * <p>The file starts with a {@value #HEADER_BYTES}-byte header (a 4-byte magic number, a 4-byte
+ * format version and the 8-byte number of UUIDs, all big-endian) followed by the UUIDs as fixed
+ * {@value org.leplus.ristretto.util.UUIDConvertor#UUID_BYTES}-byte records in the {@link
+ * org.leplus.ristretto.util.UUIDLayout#BIG_ENDIAN} layout, sorted in unsigned order and without
+ * duplicates. Such files are created with a {@link SortedUUIDFile.Builder}.
+ *
+ * <p>Optionally, a sparse index holding every n-th UUID of the file can be kept in memory. It is
+ * searched first so that the binary search in the file only touches a few pages.
+ *
+ * <p>Instances of this class are thread-safe.
+ *
+ * @author Thomas Leplus
+ * @since 2.1.0
+ */
+public final class SortedUUIDFile implements Closeable {
+
+  /** Size of the file header in bytes. */
+  static final int HEADER_BYTES = 16;
+
+  /** The magic number at the start of the file ("RUID" in ASCII). */
+  private static final int MAGIC = 0x52554944;
+
+  /** The version of the file format. */
+  private static final int VERSION = 1;
+
+  /** Size of the memory-mapped chunks. Must be a multiple of the record size. */
+  private static final int CHUNK_BYTES = 1 << 30;
+
+  /** The underlying file channel. */
+  private final FileChannel channel;
+
+  /** The memory-mapped chunks of the file. */
+  private final MappedByteBuffer[] chunks;
+
+  /** The number of UUIDs in the file. */
+  private final long size;
+
+  /** The number of records between two entries of the sparse index, or 0 if there is no index. */
+  private final int indexStride;
+
+  /** The sparse index, packed like {@link UUIDConvertor#toPackedLongs(UUID[])}. */
+  private final long[] index;
+
+  /**
+   * Constructor.
+   *
+   * @param channel the underlying file channel.
+   * @param chunks the memory-mapped chunks of the file.
+   * @param size the number of UUIDs in the file.
+   * @param indexStride the number of records between two entries of the sparse index, or 0.
+   */
+  private SortedUUIDFile(
+      final FileChannel channel,
+      final MappedByteBuffer[] chunks,
+      final long size,
+      final int indexStride) {
+    super();
+    this.channel = channel;
+    this.chunks = chunks;
+    this.size = size;
+    this.indexStride = indexStride;
+    if (indexStride > 0) {
+      final int entries = (int) ((size + indexStride - 1) / indexStride);
+      index = new long[entries * UUIDConvertor.MAX_LONGS];
+      for (int i = 0; i < entries; i++) {
+        final long record = (long) i * indexStride;
+        index[i * UUIDConvertor.MAX_LONGS] = getMsb(record);
+        index[i * UUIDConvertor.MAX_LONGS + 1] = getLsb(record);
+      }
+    } else {
+      index = null;
+    }
+  }
+
+  /**
+   * Creates a builder for a new file.
+   *
+   * @return the builder.
+   */
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Opens an existing file without sparse index.
+   *
+   * @param path the path of the file.
+   * @return the opened file.
+   * @throws IOException if an I/O error occurs or if the file is not a valid sorted UUID file.
+   */
+  public static SortedUUIDFile open(final Path path) throws IOException {
+    return open(path, 0);
+  }
+
+  /**
+   * Opens an existing file.
+   *
+   * @param path the path of the file.
+   * @param indexStride the number of records between two entries of the in-memory sparse index
+   *     (e.g. 4096), or 0 for no index.
+   * @return the opened file.
+   * @throws IOException if an I/O error occurs or if the file is not a valid sorted UUID file.
+   * @throws IllegalArgumentException if the index stride is negative.
+   */
+  public static SortedUUIDFile open(final Path path, final int indexStride) throws IOException {
+    if (indexStride < 0) {
+      throw new IllegalArgumentException("Negative index stride: " + indexStride);
+    }
+    final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+    try {
+      final long fileSize = channel.size();
+      final ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+      while (header.hasRemaining() && channel.read(header, header.position()) >= 0) {
+        continue;
+      }
+      if (header.hasRemaining() || header.getInt(0) != MAGIC) {
+        throw new IOException("Not a sorted UUID file: " + path);
+      }
+      if (header.getInt(Integer.BYTES) != VERSION) {
+        throw new IOException(
+            "Unsupported sorted UUID file version: " + header.getInt(Integer.BYTES));
+      }
+      final long size = header.getLong(Long.BYTES);
+      if (size < 0 || fileSize != HEADER_BYTES + size * UUIDConvertor.UUID_BYTES) {
+        throw new IOException("Corrupted sorted UUID file: " + path);
+      }
+      final MappedByteBuffer[] chunks =
+          new MappedByteBuffer[(int) ((fileSize + CHUNK_BYTES - 1) / CHUNK_BYTES)];
+      for (int i = 0; i < chunks.length; i++) {
+        final long position = (long) i * CHUNK_BYTES;
+        chunks[i] =
+            channel.map(
+                FileChannel.MapMode.READ_ONLY,
+                position,
+                Math.min(CHUNK_BYTES, fileSize - position));
+      }
+      return new SortedUUIDFile(channel, chunks, size, indexStride);
+    } catch (final IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Returns the number of UUIDs in the file.
+   *
+   * @return the number of UUIDs.
+   */
+  public long size() {
+    return size;
+  }
+
+  /**
+   * Returns the most significant bits of the UUID at the given index.
+   *
+   * @param record the index of the UUID.
+   * @return the most significant bits.
+   */
+  private long getMsb(final long record) {
+    final long offset = HEADER_BYTES + record * UUIDConvertor.UUID_BYTES;
+    return chunks[(int) (offset / CHUNK_BYTES)].getLong((int) (offset % CHUNK_BYTES));
+  }
+
+  /**
+   * Returns the least significant bits of the UUID at the given index.
+   *
+   * @param record the index of the UUID.
+   * @return the least significant bits.
+   */
+  private long getLsb(final long record) {
+    final long offset = HEADER_BYTES + record * UUIDConvertor.UUID_BYTES + Long.BYTES;
+    return chunks[(int) (offset / CHUNK_BYTES)].getLong((int) (offset % CHUNK_BYTES));
+  }
+
+  /**
+   * Returns the UUID at the given index.
+   *
+   * @param record the index of the UUID, between 0 and {@link #size()} (exclusive).
+   * @return the UUID.
+   * @throws IndexOutOfBoundsException if the index is out of range.
+   */
+  public UUID get(final long record) throws IndexOutOfBoundsException {
+    if (record < 0 || record >= size) {
+      throw new IndexOutOfBoundsException("Index: " + record + ", Size: " + size);
+    }
+    return new UUID(getMsb(record), getLsb(record));
+  }
+
+  /**
+   * Copies the UUID at the given index into a mutable UUID, without creating a {@link
+   * java.util.UUID}.
+   *
+   * @param record the index of the UUID, between 0 and {@link #size()} (exclusive).
+   * @param dst the mutable UUID to set.
+   * @return the mutable UUID.
+   * @throws IndexOutOfBoundsException if the index is out of range.
+   */
+  public MutableUUID get(final long record, final MutableUUID dst)
+      throws IndexOutOfBoundsException {
+    if (record < 0 || record >= size) {
+      throw new IndexOutOfBoundsException("Index: " + record + ", Size: " + size);
+    }
+    return dst.set(getMsb(record), getLsb(record));
+  }
+
+  /**
+   * Searches the file for the given UUID.
+   *
+   * @param msb the most significant bits of the UUID.
+   * @param lsb the least significant bits of the UUID.
+   * @return the index of the UUID if it is in the file, otherwise (-(insertion point) - 1), like
+   *     {@link java.util.Arrays#binarySearch(long[], long)}.
+   */
+  public long indexOf(final long msb, final long lsb) {
+    long low = 0;
+    long high = size - 1;
+    if (index != null) {
+      // Narrow down the range with the in-memory index first.
+      int entryLow = 0;
+      int entryHigh = index.length / UUIDConvertor.MAX_LONGS - 1;
+      while (entryLow <= entryHigh) {
+        final int mid = (entryLow + entryHigh) >>> 1;
+        final int cmp =
+            UUIDArrays.compareUnsigned(
+                index[mid * UUIDConvertor.MAX_LONGS],
+                index[mid * UUIDConvertor.MAX_LONGS + 1],
+                msb,
+                lsb);
+        if (cmp < 0) {
+          entryLow = mid + 1;
+        } else if (cmp > 0) {
+          entryHigh = mid - 1;
+        } else {
+          return (long) mid * indexStride;
+        }
+      }
+      // The UUID is after entry entryHigh and before entry entryLow.
+      low = entryHigh < 0 ? 0 : (long) entryHigh * indexStride + 1;
+      high = Math.min(size, (long) entryLow * indexStride) - 1;
+    }
+    while (low <= high) {
+      final long mid = (low + high) >>> 1;
+      final int cmp = UUIDArrays.compareUnsigned(getMsb(mid), getLsb(mid), msb, lsb);
+      if (cmp < 0) {
+        low = mid + 1;
+      } else if (cmp > 0) {
+        high = mid - 1;
+      } else {
+        return mid;
+      }
+    }
+    return -(low + 1);
+  }
+
+  /**
+   * Searches the file for the given UUID.
+   *
+   * @param uuid the UUID.
+   * @return the index of the UUID if it is in the file, otherwise (-(insertion point) - 1), like
+   *     {@link java.util.Arrays#binarySearch(long[], long)}.
+   */
+  public long indexOf(final UUID uuid) {
+    return indexOf(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+  }
+
+  /**
+   * Tells whether the file contains the given UUID.
+   *
+   * @param msb the most significant bits of the UUID.
+   * @param lsb the least significant bits of the UUID.
+   * @return true if the UUID is in the file.
+   */
+  public boolean contains(final long msb, final long lsb) {
+    return indexOf(msb, lsb) >= 0;
+  }
+
+  /**
+   * Tells whether the file contains the given UUID.
+   *
+   * @param uuid the UUID.
+   * @return true if the UUID is in the file.
+   */
+  public boolean contains(final UUID uuid) {
+    return contains(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+  }
+
+  /**
+   * Returns the index of the first UUID of the file which is greater than or equal to the given
+   * UUID in unsigned order.
+   *
+   * @param uuid the UUID.
+   * @return the index, or {@link #size()} if all the UUIDs of the file are smaller.
+   */
+  public long lowerBound(final UUID uuid) {
+    final long i = indexOf(uuid);
+    return i >= 0 ? i : -(i + 1);
+  }
+
+  /**
+   * Returns the UUIDs of the file between the two given UUIDs, in unsigned order.
+   *
+   * @param fromInclusive the lower bound (inclusive).
+   * @param toExclusive the upper bound (exclusive).
+   * @return the UUIDs in the range, lazily read from the file.
+   */
+  public Stream<UUID> range(final UUID fromInclusive, final UUID toExclusive) {
+    final long from = lowerBound(fromInclusive);
+    final long to = Math.max(from, lowerBound(toExclusive));
+    return LongStream.range(from, to).mapToObj(this::get);
+  }
+
+  /**
+   * Closes the underlying file channel. The memory mappings are released when this object is
+   * garbage collected.
+   *
+   * @throws IOException if an I/O error occurs.
+   */
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+
+  /**
+   * This class collects UUIDs and writes them to a sorted UUID file.
+   *
+   * <p>Instances of this class are not thread-safe.
+   *
+   * @author Thomas Leplus
+   * @since 2.1.0
+   */
+  public static final class Builder {
+
+    /** Initial capacity of the builder in UUIDs. */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /** Maximum capacity of the builder in UUIDs. */
+    private static final int MAX_CAPACITY = (Integer.MAX_VALUE - 8) / UUIDConvertor.MAX_LONGS;
+
+    /** The UUIDs collected so far, packed like {@link UUIDConvertor#toPackedLongs(UUID[])}. */
+    private long[] packed = new long[UUIDConvertor.MAX_LONGS * INITIAL_CAPACITY];
+
+    /** The number of UUIDs collected so far. */
+    private int count;
+
+    /** Constructor. */
+    private Builder() {
+      super();
+    }
+
+    /**
+     * Adds a UUID.
+     *
+     * @param msb the most significant bits of the UUID.
+     * @param lsb the least significant bits of the UUID.
+     * @return this builder.
+     * @throws OutOfMemoryError if the builder already holds the maximum number of UUIDs that fit in
+     *     an array.
+     */
+    public Builder add(final long msb, final long lsb) {
+      if (count * UUIDConvertor.MAX_LONGS == packed.length) {
+        if (count == MAX_CAPACITY) {
+          throw new OutOfMemoryError("Builder capacity exceeded: " + MAX_CAPACITY + " UUIDs");
+        }
+        final int grown = (int) Math.min(MAX_CAPACITY, 2L * count);
+        packed = Arrays.copyOf(packed, grown * UUIDConvertor.MAX_LONGS);
+      }
+      packed[count * UUIDConvertor.MAX_LONGS] = msb;
+      packed[count * UUIDConvertor.MAX_LONGS + 1] = lsb;
+      count++;
+      return this;
+    }
+
+    /**
+     * Adds a UUID.
+     *
+     * @param uuid the UUID.
+     * @return this builder.
+     */
+    public Builder add(final UUID uuid) {
+      return add(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+    }
+
+    /**
+     * Adds UUIDs.
+     *
+     * @param uuids the UUIDs.
+     * @return this builder.
+     */
+    public Builder addAll(final Collection<UUID> uuids) {
+      for (final UUID uuid : uuids) {
+        add(uuid);
+      }
+      return this;
+    }
+
+    /**
+     * Sorts the UUIDs collected so far, removes the duplicates and writes them to a file. If the
+     * file already exists, it is overwritten.
+     *
+     * @param path the path of the file.
+     * @throws IOException if an I/O error occurs.
+     */
+    public void write(final Path path) throws IOException {
+      final long[] sorted = Arrays.copyOf(packed, count * UUIDConvertor.MAX_LONGS);
+      UUIDArrays.parallelSort(sorted);
+      int unique = 0;
+      for (int i = 0; i < sorted.length; i += UUIDConvertor.MAX_LONGS) {
+        final int last = (unique - 1) * UUIDConvertor.MAX_LONGS;
+        if (unique == 0 || sorted[i] != sorted[last] || sorted[i + 1] != sorted[last + 1]) {
+          sorted[unique * UUIDConvertor.MAX_LONGS] = sorted[i];
+          sorted[unique * UUIDConvertor.MAX_LONGS + 1] = sorted[i + 1];
+          unique++;
+        }
+      }
+      try (FileChannel channel =
+          FileChannel.open(
+              path,
+              StandardOpenOption.CREATE,
+              StandardOpenOption.TRUNCATE_EXISTING,
+              StandardOpenOption.WRITE)) {
+        final ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        header.putInt(MAGIC).putInt(VERSION).putLong(unique).flip();
+        while (header.hasRemaining()) {
+          channel.write(header);
+        }
+        try (UUIDWriter writer = new UUIDWriter(channel)) {
+          writer.write(sorted, 0, unique);
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,542 @@
+/*
+ * Copyright 2016-present Thomas Leplus
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.leplus.ristretto.util;
+
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.UUID;
+
+/**
+ * This class is a resizable list of UUIDs backed by a single array of longs, packed like {@link
+ * org.leplus.ristretto.util.UUIDConvertor#toPackedLongs(UUID[])}. Each element takes {@value
+ * org.leplus.ristretto.util.UUIDConvertor#UUID_BYTES} bytes instead of the reference plus object
+ * header and fields of a {@link java.util.UUID} (about 48 bytes). {@link java.util.UUID} objects
+ * are only created when the {@link java.util.List} methods that return elements are called, the
+ * primitive accessors such as {@link #getMsb(int)} and {@link #add(long, long)} never allocate.
+ *
+ * <p>This list does not accept null elements. Instances of this class are not thread-safe.
+ *
+ * @author Thomas Leplus
+ * @since 2.1.0
+ */
+public class UUIDArrayList extends AbstractList<UUID>
+    implements RandomAccess, Cloneable, Serializable {
+
+  /** Serial version UID. */
+  private static final long serialVersionUID = 2862917430745181623L;
+
+  /** Default capacity in UUIDs. */
+  private static final int DEFAULT_CAPACITY = 10;
+
+  /** Maximum capacity in UUIDs. */
+  private static final int MAX_CAPACITY = (Integer.MAX_VALUE - 8) / UUIDConvertor.MAX_LONGS;
+
+  /** Number of longs per element. */
+  private static final int STRIDE = UUIDConvertor.MAX_LONGS;
+
+  /** The elements, most significant bits followed by least significant bits. */
+  private transient long[] elements;
+
+  /** The number of elements. */
+  private int size;
+
+  /** Creates an empty list with a default capacity. */
+  public UUIDArrayList() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  /**
+   * Creates an empty list with the given capacity.
+   *
+   * @param initialCapacity the initial capacity in UUIDs.
+   * @throws IllegalArgumentException if the capacity is negative or too large.
+   */
+  public UUIDArrayList(final int initialCapacity) {
+    super();
+    if (initialCapacity < 0 || initialCapacity > MAX_CAPACITY) {
+      throw new IllegalArgumentException("Illegal capacity: " + initialCapacity);
+    }
+    elements = new long[initialCapacity * STRIDE];
+  }
+
+  /**
+   * Creates a list containing the elements of the given collection, in iteration order.
+   *
+   * @param c the collection.
+   * @throws NullPointerException if the collection contains null.
+   */
+  public UUIDArrayList(final Collection<? extends UUID> c) {
+    this(c.size());
+    addAll(c);
+  }
+
+  /**
+   * Creates a list containing the UUIDs of an array packed like {@link
+   * org.leplus.ristretto.util.UUIDConvertor#toPackedLongs(UUID[])}.
+   *
+   * @param packed the packed array.
+   * @throws IllegalArgumentException if the length of the packed array is not a multiple of
+   *     {@value org.leplus.ristretto.util.UUIDConvertor#MAX_LONGS}.
+   */
+  public UUIDArrayList(final long[] packed) {
+    this(0);
+    addAll(packed);
+  }
+
+  /**
+   * Makes sure the list can hold the given number of elements without resizing.
+   *
+   * @param minCapacity the minimum capacity in UUIDs.
+   */
+  public void ensureCapacity(final int minCapacity) {
+    if (minCapacity > elements.length / STRIDE) {
+      if (minCapacity > MAX_CAPACITY) {
+        throw new OutOfMemoryError("Required capacity too large: " + minCapacity);
+      }
+      final int grown = (int) Math.min(MAX_CAPACITY, size + (long) (size >> 1));
+      elements =
+          Arrays.copyOf(
+              elements, Math.max(minCapacity, Math.max(DEFAULT_CAPACITY, grown)) * STRIDE);
+    }
+  }
+
+  /** Trims the capacity of the list to its size. */
+  public void trimToSize() {
+    modCount++;
+    if (elements.length > size * STRIDE) {
+      elements = Arrays.copyOf(elements, size * STRIDE);
+    }
+  }
+
+  /**
+   * Checks an index against the size of the list.
+   *
+   * @param index the index.
+   * @throws IndexOutOfBoundsException if the index is out of range.
+   */
+  private void checkIndex(final int index) throws IndexOutOfBoundsException {
+    Objects.checkIndex(index, size);
+  }
+
+  /**
+   * @see java.util.AbstractCollection#size()
+   */
+  @Override
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Returns the most significant bits of the element at the given index.
+   *
+   * @param index the index.
+   * @return the most significant bits.
+   * @throws IndexOutOfBoundsException if the index is out of range.
+   */
+  public long getMsb(final int index) throws IndexOutOfBoundsException {
+    checkIndex(index);
+    return elements[index * STRIDE];
+  }
+
+  /**
+   * Returns the least significant bits of the element at the given index.
+   *
+   * @param index the index.
+   * @return the least significant bits.
+   * @throws IndexOutOfBoundsException if the index is out of range.
+   */
+  public long getLsb(final int index) throws IndexOutOfBoundsException {
+    checkIndex(index);
+    return elements[index * STRIDE + 1];
+  }
+
+  /**
+   * @see java.util.AbstractList#get(int)
+   */
+  @Override
+  public UUID get(final int index) {
+    checkIndex(index);
+    return new UUID(elements[index * STRIDE], elements[index * STRIDE + 1]);
+  }
+
+  /**
+   * Copies the element at the given index into a mutable UUID, without creating a {@link
+   * java.util.UUID}.
+   *
+   * @param index the index.
+   * @param dst the mutable UUID to set.
+   * @return the mutable UUID.
+   * @throws IndexOutOfBoundsException if the index is out of range.
+   */
+  public MutableUUID get(final int index, final MutableUUID dst) throws IndexOutOfBoundsException {
+    checkIndex(index);
+    return dst.set(elements[index * STRIDE], elements[index * STRIDE + 1]);
+  }
+
+  /**
+   * Replaces the element at the given index.
+   *
+   * @param index the index.
+   * @param msb the most significant bits of the new element.
+   * @param lsb the least significant bits of the new element.
+   * @throws IndexOutOfBoundsException if the index is out of range.
+   */
+  public void set(final int index, final long msb, final long lsb)
+      throws IndexOutOfBoundsException {
+    checkIndex(index);
+    elements[index * STRIDE] = msb;
+    elements[index * STRIDE + 1] = lsb;
+  }
+
+  /**
+   * @see java.util.AbstractList#set(int, java.lang.Object)
+   */
+  @Override
+  public UUID set(final int index, final UUID element) {
+    final UUID previous = get(index);
+    set(index, element.getMostSignificantBits(), element.getLeastSignificantBits());
+    return previous;
+  }
+
+  /**
+   * Appends an element to the end of the list.
+   *
+   * @param msb the most significant bits of the element.
+   * @param lsb the least significant bits of the element.
+   */
+  public void add(final long msb, final long lsb) {
+    modCount++;
+    ensureCapacity(size + 1);
+    elements[size * STRIDE] = msb;
+    elements[size * STRIDE + 1] = lsb;
+    size++;
+  }
+
+  /**
+   * @see java.util.AbstractList#add(java.lang.Object)
+   */
+  @Override
+  public boolean add(final UUID element) {
+    add(element.getMostSignificantBits(), element.getLeastSignificantBits());
+    return true;
+  }
+
+  /**
+   * @see java.util.AbstractList#add(int, java.lang.Object)
+   */
+  @Override
+  public void add(final int index, final UUID element) {
+    Objects.checkIndex(index, size + 1);
+    final long msb = element.getMostSignificantBits();
+    final long lsb = element.getLeastSignificantBits();
+    modCount++;
+    ensureCapacity(size + 1);
+    System.arraycopy(
+        elements, index * STRIDE, elements, (index + 1) * STRIDE, (size - index) * STRIDE);
+    elements[index * STRIDE] = msb;
+    elements[index * STRIDE + 1] = lsb;
+    size++;
+  }
+
+  /**
+   * @see java.util.AbstractCollection#addAll(java.util.Collection)
+   */
+  @Override
+  public boolean addAll(final Collection<? extends UUID> c) {
+    final Object[] array = c.toArray();
+    for (final Object element : array) {
+      Objects.requireNonNull(element);
+    }
+    modCount++;
+    ensureCapacity(size + array.length);
+    for (final Object element : array) {
+      final UUID uuid = (UUID) element;
+      elements[size * STRIDE] = uuid.getMostSignificantBits();
+      elements[size * STRIDE + 1] = uuid.getLeastSignificantBits();
+      size++;
+    }
+    return array.length != 0;
+  }
+
+  /**
+   * Appends the UUIDs of an array packed like {@link
+   * org.leplus.ristretto.util.UUIDConvertor#toPackedLongs(UUID[])} to the end of the list.
+   *
+   * @param packed the packed array.
+   * @return true if the list changed.
+   * @throws IllegalArgumentException if the length of the packed array is not a multiple of
+   *     {@value org.leplus.ristretto.util.UUIDConvertor#MAX_LONGS}.
+   */
+  public boolean addAll(final long[] packed) throws IllegalArgumentException {
+    if (packed.length % STRIDE != 0) {
+      throw new IllegalArgumentException(
+          "Packed array length " + packed.length + " is not a multiple of " + STRIDE);
+    }
+    modCount++;
+    ensureCapacity(size + packed.length / STRIDE);
+    System.arraycopy(packed, 0, elements, size * STRIDE, packed.length);
+    size += packed.length / STRIDE;
+    return packed.length != 0;
+  }
+
+  /**
+   * Appends the UUIDs of an array packed like {@link
+   * org.leplus.ristretto.util.UUIDConvertor#toPackedBytes(UUID[], UUIDLayout)} to the end of the
+   * list.
+   *
+   * @param packed the packed array.
+   * @param layout the binary layout of the packed array.
+   * @return true if the list changed.
+   * @throws IllegalArgumentException if the length of the packed array is not a multiple of
+   *     {@value org.leplus.ristretto.util.UUIDConvertor#MAX_BYTES}.
+   */
+  public boolean addAll(final byte[] packed, final UUIDLayout layout)
+      throws IllegalArgumentException {
+    if (packed.length % UUIDConvertor.MAX_BYTES != 0) {
+      throw new IllegalArgumentException(
+          "Packed array length "
+              + packed.length
+              + " is not a multiple of "
+              + UUIDConvertor.MAX_BYTES);
+    }
+    final int count = packed.length / UUIDConvertor.MAX_BYTES;
+    modCount++;
+    ensureCapacity(size + count);
+    for (int off = 0; off < packed.length; off += UUIDConvertor.MAX_BYTES) {
+      elements[size * STRIDE] = layout.readMsb(packed, off);
+      elements[size * STRIDE + 1] = layout.readLsb(packed, off);
+      size++;
+    }
+    return count != 0;
+  }
+
+  /**
+   * @see java.util.AbstractList#remove(int)
+   */
+  @Override
+  public UUID remove(final int index) {
+    final UUID previous = get(index);
+    removeRange(index, index + 1);
+    return previous;
+  }
+
+  /**
+   * @see java.util.AbstractList#removeRange(int, int)
+   */
+  @Override
+  protected void removeRange(final int fromIndex, final int toIndex) {
+    Objects.checkFromToIndex(fromIndex, toIndex, size);
+    modCount++;
+    System.arraycopy(
+        elements, toIndex * STRIDE, elements, fromIndex * STRIDE, (size - toIndex) * STRIDE);
+    size -= toIndex - fromIndex;
+  }
+
+  /**
+   * @see java.util.AbstractList#clear()
+   */
+  @Override
+  public void clear() {
+    modCount++;
+    size = 0;
+  }
+
+  /**
+   * Returns the index of the first occurrence of a UUID in the list.
+   *
+   * @param msb the most significant bits of the UUID.
+   * @param lsb the least significant bits of the UUID.
+   * @return the index, or -1 if the list does not contain the UUID.
+   */
+  public int indexOf(final long msb, final long lsb) {
+    for (int i = 0; i < size * STRIDE; i += STRIDE) {
+      if (elements[i] == msb && elements[i + 1] == lsb) {
+        return i / STRIDE;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * @see java.util.AbstractList#indexOf(java.lang.Object)
+   */
+  @Override
+  public int indexOf(final Object o) {
+    if (!(o instanceof UUID)) {
+      return -1;
+    }
+    final UUID uuid = (UUID) o;
+    return indexOf(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+  }
+
+  /**
+   * @see java.util.AbstractList#lastIndexOf(java.lang.Object)
+   */
+  @Override
+  public int lastIndexOf(final Object o) {
+    if (!(o instanceof UUID)) {
+      return -1;
+    }
+    final long msb = ((UUID) o).getMostSignificantBits();
+    final long lsb = ((UUID) o).getLeastSignificantBits();
+    for (int i = (size - 1) * STRIDE; i >= 0; i -= STRIDE) {
+      if (elements[i] == msb && elements[i + 1] == lsb) {
+        return i / STRIDE;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Tells whether the list contains a UUID.
+   *
+   * @param msb the most significant bits of the UUID.
+   * @param lsb the least significant bits of the UUID.
+   * @return true if the list contains the UUID.
+   */
+  public boolean contains(final long msb, final long lsb) {
+    return indexOf(msb, lsb) >= 0;
+  }
+
+  /**
+   * @see java.util.AbstractCollection#contains(java.lang.Object)
+   */
+  @Override
+  public boolean contains(final Object o) {
+    return indexOf(o) >= 0;
+  }
+
+  /**
+   * Returns the elements of the list packed like {@link
+   * org.leplus.ristretto.util.UUIDConvertor#toPackedLongs(UUID[])}.
+   *
+   * @return a new packed array.
+   */
+  public long[] toPackedLongs() {
+    return Arrays.copyOf(elements, size * STRIDE);
+  }
+
+  /**
+   * Returns the elements of the list packed like {@link
+   * org.leplus.ristretto.util.UUIDConvertor#toPackedBytes(UUID[])}.
+   *
+   * @return a new packed array.
+   */
+  public byte[] toPackedBytes() {
+    return toPackedBytes(UUIDLayout.BIG_ENDIAN);
+  }
+
+  /**
+   * Returns the elements of the list packed like {@link
+   * org.leplus.ristretto.util.UUIDConvertor#toPackedBytes(UUID[], UUIDLayout)}.
+   *
+   * @param layout the binary layout to use.
+   * @return a new packed array.
+   */
+  public byte[] toPackedBytes(final UUIDLayout layout) {
+    final byte[] result = new byte[size * UUIDConvertor.MAX_BYTES];
+    for (int i = 0; i < size; i++) {
+      layout.write(
+          elements[i * STRIDE], elements[i * STRIDE + 1], result, i * UUIDConvertor.MAX_BYTES);
+    }
+    return result;
+  }
+
+  /**
+   * @see java.util.AbstractList#hashCode()
+   */
+  @Override
+  @SuppressWarnings("checkstyle:magicnumber")
+  public int hashCode() {
+    int hashCode = 1;
+    for (int i = 0; i < size * STRIDE; i += STRIDE) {
+      final long hilo = elements[i] ^ elements[i + 1];
+      hashCode = 31 * hashCode + ((int) (hilo >> 32) ^ (int) hilo);
+    }
+    return hashCode;
+  }
+
+  /**
+   * @see java.util.AbstractList#equals(java.lang.Object)
+   */
+  @Override
+  public boolean equals(final Object obj) {
+    if (obj instanceof UUIDArrayList) {
+      final UUIDArrayList other = (UUIDArrayList) obj;
+      return size == other.size
+          && Arrays.equals(elements, 0, size * STRIDE, other.elements, 0, size * STRIDE);
+    }
+    return super.equals(obj);
+  }
+
+  /**
+   * @see java.lang.Object#clone()
+   */
+  @Override
+  public UUIDArrayList clone() {
+    try {
+      final UUIDArrayList clone = (UUIDArrayList) super.clone();
+      clone.elements = toPackedLongs();
+      clone.modCount = 0;
+      return clone;
+    } catch (final CloneNotSupportedException e) {
+      throw new InternalError(e);
+    }
+  }
+
+  /**
+   * Serializes the list, writing only the elements and not the spare capacity.
+   *
+   * @param out the output stream.
+   * @throws IOException if an I/O error occurs.
+   */
+  private void writeObject(final ObjectOutputStream out) throws IOException {
+    out.defaultWriteObject();
+    for (int i = 0; i < size * STRIDE; i++) {
+      out.writeLong(elements[i]);
+    }
+  }
+
+  /**
+   * Deserializes the list.
+   *
+   * @param in the input stream.
+   * @throws IOException if an I/O error occurs.
+   * @throws ClassNotFoundException if a class cannot be found.
+   */
+  private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException {
+    in.defaultReadObject();
+    if (size < 0) {
+      throw new InvalidObjectException("Negative size: " + size);
+    }
+    if (size > MAX_CAPACITY) {
+      throw new InvalidObjectException("Size too large: " + size);
+    }
+    elements = new long[size * STRIDE];
+    for (int i = 0; i < elements.length; i++) {
+      elements[i] = in.readLong();
+    }
+  }
+}
@@ -0,0 +1,469 @@
+/*
+ * Copyright 2016-present Thomas Leplus
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.leplus.ristretto.util;
+
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * This class provides utility methods to compare and sort UUIDs in unsigned order, i.e. the order
+ * of their {@link org.leplus.ristretto.util.UUIDLayout#BIG_ENDIAN} bytes compared as unsigned
+ * values, which is how databases and the files of this library sort them. Note that {@link
+ * java.util.UUID#compareTo(java.util.UUID)} compares signed longs and therefore uses a different
+ * order.
+ *
+ * <p>The sort methods work on arrays of longs packed like {@link
+ * org.leplus.ristretto.util.UUIDConvertor#toPackedLongs(UUID[])}, with an LSD radix sort which
+ * skips the byte positions where all the UUIDs are equal (e.g. the version and variant bits).
+ *
+ * @author Thomas Leplus
+ * @since 2.1.0
+ */
+public final class UUIDArrays {
+
+  /** Compares UUIDs in unsigned order. */
+  public static final Comparator<UUID> UNSIGNED_ORDER = UUIDArrays::compareUnsigned;
+
+  /** Number of longs per UUID. */
+  private static final int STRIDE = UUIDConvertor.MAX_LONGS;
+
+  /** Number of bits in a radix digit. */
+  private static final int DIGIT_BITS = Byte.SIZE;
+
+  /** Number of distinct radix digits. */
+  private static final int RADIX = 1 << DIGIT_BITS;
+
+  /** Mask of a radix digit. */
+  private static final int DIGIT_MASK = RADIX - 1;
+
+  /** Number of radix digits in a UUID. */
+  private static final int DIGITS = UUIDConvertor.UUID_BYTES;
+
+  /** Number of radix digits in a long. */
+  private static final int LONG_DIGITS = Long.BYTES;
+
+  /** Below this number of UUIDs, an insertion sort is faster than a radix sort. */
+  private static final int INSERTION_SORT_THRESHOLD = 32;
+
+  /** Below this number of UUIDs, a range is sorted or merged sequentially. */
+  private static final int MIN_PARALLEL_SORT = 1 << 16;
+
+  /** Private constructor to prevent instantiation. */
+  private UUIDArrays() {
+    super();
+  }
+
+  /**
+   * Compares two UUIDs in unsigned order.
+   *
+   * @param msb1 the most significant bits of the first UUID.
+   * @param lsb1 the least significant bits of the first UUID.
+   * @param msb2 the most significant bits of the second UUID.
+   * @param lsb2 the least significant bits of the second UUID.
+   * @return a negative integer, zero, or a positive integer as the first UUID is less than, equal
+   *     to, or greater than the second.
+   */
+  public static int compareUnsigned(
+      final long msb1, final long lsb1, final long msb2, final long lsb2) {
+    final int result = Long.compareUnsigned(msb1, msb2);
+    return result != 0 ? result : Long.compareUnsigned(lsb1, lsb2);
+  }
+
+  /**
+   * Compares two UUIDs in unsigned order.
+   *
+   * @param uuid1 the first UUID.
+   * @param uuid2 the second UUID.
+   * @return a negative integer, zero, or a positive integer as the first UUID is less than, equal
+   *     to, or greater than the second.
+   */
+  public static int compareUnsigned(final UUID uuid1, final UUID uuid2) {
+    return compareUnsigned(
+        uuid1.getMostSignificantBits(),
+        uuid1.getLeastSignificantBits(),
+        uuid2.getMostSignificantBits(),
+        uuid2.getLeastSignificantBits());
+  }
+
+  /**
+   * Checks that a packed array holds whole UUIDs.
+   *
+   * @param packed the packed array.
+   * @return the number of UUIDs.
+   * @throws IllegalArgumentException if the length of the array is not a multiple of {@value
+   *     org.leplus.ristretto.util.UUIDConvertor#MAX_LONGS}.
+   */
+  private static int packedSize(final long[] packed) throws IllegalArgumentException {
+    if (packed.length % STRIDE != 0) {
+      throw new IllegalArgumentException(
+          "Packed array length " + packed.length + " is not a multiple of " + STRIDE);
+    }
+    return packed.length / STRIDE;
+  }
+
+  /**
+   * Sorts a packed array of UUIDs in unsigned order.
+   *
+   * @param packed the packed array.
+   * @throws IllegalArgumentException if the length of the array is not a multiple of {@value
+   *     org.leplus.ristretto.util.UUIDConvertor#MAX_LONGS}.
+   */
+  public static void sort(final long[] packed) throws IllegalArgumentException {
+    sort(packed, 0, packedSize(packed));
+  }
+
+  /**
+   * Sorts a range of a packed array of UUIDs in unsigned order.
+   *
+   * @param packed the packed array.
+   * @param fromIndex the index of the first UUID to sort (inclusive).
+   * @param toIndex the index of the last UUID to sort (exclusive).
+   * @throws IndexOutOfBoundsException if the range is out of bounds.
+   */
+  public static void sort(final long[] packed, final int fromIndex, final int toIndex)
+      throws IndexOutOfBoundsException {
+    Objects.checkFromToIndex(fromIndex, toIndex, packed.length / STRIDE);
+    if (toIndex - fromIndex < INSERTION_SORT_THRESHOLD) {
+      insertionSort(packed, fromIndex, toIndex);
+    } else {
+      radixSort(packed, new long[(toIndex - fromIndex) * STRIDE], 0, fromIndex, toIndex);
+    }
+  }
+
+  /**
+   * Sorts a packed array of UUIDs in unsigned order like {@link #sort(long[])}, but splits the
+   * work across the common {@link java.util.concurrent.ForkJoinPool} when the array is large enough
+   * to benefit from it: ranges are radix sorted in parallel then merged in parallel.
+   *
+   * @param packed the packed array.
+   * @throws IllegalArgumentException if the length of the array is not a multiple of {@value
+   *     org.leplus.ristretto.util.UUIDConvertor#MAX_LONGS}.
+   */
+  public static void parallelSort(final long[] packed) throws IllegalArgumentException {
+    final int size = packedSize(packed);
+    if (size < MIN_PARALLEL_SORT || ForkJoinPool.getCommonPoolParallelism() == 1) {
+      sort(packed, 0, size);
+    } else {
+      ForkJoinPool.commonPool()
+          .invoke(new Sorter(packed, new long[packed.length], 0, size, false));
+    }
+  }
+
+  /**
+   * Sorts a range of a packed array with an insertion sort.
+   *
+   * @param a the packed array.
+   * @param from the index of the first UUID to sort (inclusive).
+   * @param to the index of the last UUID to sort (exclusive).
+   */
+  private static void insertionSort(final long[] a, final int from, final int to) {
+    for (int i = from + 1; i < to; i++) {
+      final long msb = a[i * STRIDE];
+      final long lsb = a[i * STRIDE + 1];
+      int j = i - 1;
+      while (j >= from && compareUnsigned(a[j * STRIDE], a[j * STRIDE + 1], msb, lsb) > 0) {
+        a[(j + 1) * STRIDE] = a[j * STRIDE];
+        a[(j + 1) * STRIDE + 1] = a[j * STRIDE + 1];
+        j--;
+      }
+      a[(j + 1) * STRIDE] = msb;
+      a[(j + 1) * STRIDE + 1] = lsb;
+    }
+  }
+
+  /**
+   * Returns a radix digit of a UUID.
+   *
+   * @param a the packed array.
+   * @param i the index of the UUID.
+   * @param digit the index of the digit, 0 being the least significant.
+   * @return the digit.
+   */
+  private static int digit(final long[] a, final int i, final int digit) {
+    final long half = digit < LONG_DIGITS ? a[i * STRIDE + 1] : a[i * STRIDE];
+    return (int) (half >>> ((digit % LONG_DIGITS) * DIGIT_BITS)) & DIGIT_MASK;
+  }
+
+  /**
+   * Sorts a range of a packed array with an LSD radix sort. The histograms of all the digits are
+   * computed in a single pass and the digits which are the same for all the UUIDs are skipped.
+   *
+   * @param a the packed array.
+   * @param w a work array with room for the range from the given work index.
+   * @param wFrom the index in the work array where the range is copied during the sort.
+   * @param from the index of the first UUID to sort (inclusive).
+   * @param to the index of the last UUID to sort (exclusive).
+   */
+  private static void radixSort(
+      final long[] a, final long[] w, final int wFrom, final int from, final int to) {
+    final int n = to - from;
+    final int[][] counts = new int[DIGITS][RADIX];
+    for (int i = from; i < to; i++) {
+      for (int d = 0; d < DIGITS; d++) {
+        counts[d][digit(a, i, d)]++;
+      }
+    }
+    long[] src = a;
+    int srcFrom = from;
+    long[] dst = w;
+    int dstFrom = wFrom;
+    for (int d = 0; d < DIGITS; d++) {
+      final int[] count = counts[d];
+      if (count[digit(src, srcFrom, d)] == n) {
+        continue;
+      }
+      int offset = dstFrom;
+      for (int b = 0; b < RADIX; b++) {
+        final int c = count[b];
+        count[b] = offset;
+        offset += c;
+      }
+      for (int i = srcFrom; i < srcFrom + n; i++) {
+        final int j = count[digit(src, i, d)]++;
+        dst[j * STRIDE] = src[i * STRIDE];
+        dst[j * STRIDE + 1] = src[i * STRIDE + 1];
+      }
+      final long[] tmp = src;
+      src = dst;
+      dst = tmp;
+      final int tmpFrom = srcFrom;
+      srcFrom = dstFrom;
+      dstFrom = tmpFrom;
+    }
+    if (src != a) {
+      System.arraycopy(src, srcFrom * STRIDE, a, from * STRIDE, n * STRIDE);
+    }
+  }
+
+  /**
+   * Finds the first UUID of a sorted range which is greater than (or equal to, if {@code
+   * inclusive}) a given UUID.
+   *
+   * @param a the packed array.
+   * @param from the index of the first UUID of the range (inclusive).
+   * @param to the index of the last UUID of the range (exclusive).
+   * @param msb the most significant bits of the UUID to look for.
+   * @param lsb the least significant bits of the UUID to look for.
+   * @param inclusive whether to stop at UUIDs equal to the one looked for.
+   * @return the index of the first matching UUID, or {@code to}.
+   */
+  private static int bound(
+      final long[] a,
+      final int from,
+      final int to,
+      final long msb,
+      final long lsb,
+      final boolean inclusive) {
+    int low = from;
+    int high = to;
+    while (low < high) {
+      final int mid = (low + high) >>> 1;
+      final int cmp = compareUnsigned(a[mid * STRIDE], a[mid * STRIDE + 1], msb, lsb);
+      if (cmp < 0 || cmp == 0 && !inclusive) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  /**
+   * Sorts a range of a packed array by splitting it in two halves sorted in parallel and then
+   * merged in parallel. The halves are sorted into the other array than the result so that the
+   * merge never has to copy data back.
+   *
+   * @author Thomas Leplus
+   * @since 2.1.0
+   */
+  private static final class Sorter extends RecursiveAction {
+
+    /** Serial version UID. */
+    private static final long serialVersionUID = 1L;
+
+    /** The packed array. */
+    private final long[] a;
+
+    /** The work array. */
+    private final long[] w;
+
+    /** The index of the first UUID to sort (inclusive). */
+    private final int from;
+
+    /** The index of the last UUID to sort (exclusive). */
+    private final int to;
+
+    /** Whether the sorted range must end up in the work array instead of the packed array. */
+    private final boolean toWork;
+
+    /**
+     * Constructor.
+     *
+     * @param a the packed array.
+     * @param w the work array.
+     * @param from the index of the first UUID to sort (inclusive).
+     * @param to the index of the last UUID to sort (exclusive).
+     * @param toWork whether the sorted range must end up in the work array.
+     */
+    Sorter(final long[] a, final long[] w, final int from, final int to, final boolean toWork) {
+      super();
+      this.a = a;
+      this.w = w;
+      this.from = from;
+      this.to = to;
+      this.toWork = toWork;
+    }
+
+    /**
+     * @see java.util.concurrent.RecursiveAction#compute()
+     */
+    @Override
+    protected void compute() {
+      if (to - from <= MIN_PARALLEL_SORT) {
+        radixSort(a, w, from, from, to);
+        if (toWork) {
+          System.arraycopy(a, from * STRIDE, w, from * STRIDE, (to - from) * STRIDE);
+        }
+        return;
+      }
+      final int mid = (from + to) >>> 1;
+      invokeAll(new Sorter(a, w, from, mid, !toWork), new Sorter(a, w, mid, to, !toWork));
+      if (toWork) {
+        new Merger(a, w, from, mid, mid, to, from).compute();
+      } else {
+        new Merger(w, a, from, mid, mid, to, from).compute();
+      }
+    }
+  }
+
+  /**
+   * Merges two sorted ranges of a packed array into another array, by splitting the ranges around
+   * the median of the largest one and merging both sides in parallel.
+   *
+   * @author Thomas Leplus
+   * @since 2.1.0
+   */
+  private static final class Merger extends RecursiveAction {
+
+    /** Serial version UID. */
+    private static final long serialVersionUID = 1L;
+
+    /** The source array. */
+    private final long[] a;
+
+    /** The destination array. */
+    private final long[] w;
+
+    /** The index of the first UUID of the first range (inclusive). */
+    private final int from1;
+
+    /** The index of the last UUID of the first range (exclusive). */
+    private final int to1;
+
+    /** The index of the first UUID of the second range (inclusive). */
+    private final int from2;
+
+    /** The index of the last UUID of the second range (exclusive). */
+    private final int to2;
+
+    /** The index where to write the first merged UUID. */
+    private final int out;
+
+    /**
+     * Constructor.
+     *
+     * @param a the source array.
+     * @param w the destination array.
+     * @param from1 the index of the first UUID of the first range (inclusive).
+     * @param to1 the index of the last UUID of the first range (exclusive).
+     * @param from2 the index of the first UUID of the second range (inclusive).
+     * @param to2 the index of the last UUID of the second range (exclusive).
+     * @param out the index where to write the first merged UUID.
+     */
+    Merger(
+        final long[] a,
+        final long[] w,
+        final int from1,
+        final int to1,
+        final int from2,
+        final int to2,
+        final int out) {
+      super();
+      this.a = a;
+      this.w = w;
+      this.from1 = from1;
+      this.to1 = to1;
+      this.from2 = from2;
+      this.to2 = to2;
+      this.out = out;
+    }
+
+    /**
+     * @see java.util.concurrent.RecursiveAction#compute()
+     */
+    @Override
+    protected void compute() {
+      final int size1 = to1 - from1;
+      final int size2 = to2 - from2;
+      if (size1 + size2 <= MIN_PARALLEL_SORT) {
+        merge();
+        return;
+      }
+      final int split1;
+      final int split2;
+      // UUIDs equal to the median go to the left side if they come from the first range and to
+      // the right side if they come from the second range, like in a sequential merge.
+      if (size1 >= size2) {
+        split1 = (from1 + to1) >>> 1;
+        split2 = bound(a, from2, to2, a[split1 * STRIDE], a[split1 * STRIDE + 1], true);
+      } else {
+        split2 = (from2 + to2) >>> 1;
+        split1 = bound(a, from1, to1, a[split2 * STRIDE], a[split2 * STRIDE + 1], false);
+      }
+      final int splitOut = out + (split1 - from1) + (split2 - from2);
+      invokeAll(
+          new Merger(a, w, from1, split1, from2, split2, out),
+          new Merger(a, w, split1, to1, split2, to2, splitOut));
+    }
+
+    /** Merges the two ranges sequentially. */
+    private void merge() {
+      int i = from1;
+      int j = from2;
+      int k = out;
+      while (i < to1 && j < to2) {
+        if (compareUnsigned(a[j * STRIDE], a[j * STRIDE + 1], a[i * STRIDE], a[i * STRIDE + 1])
+            < 0) {
+          w[k * STRIDE] = a[j * STRIDE];
+          w[k * STRIDE + 1] = a[j * STRIDE + 1];
+          j++;
+        } else {
+          w[k * STRIDE] = a[i * STRIDE];
+          w[k * STRIDE + 1] = a[i * STRIDE + 1];
+          i++;
+        }
+        k++;
+      }
+      System.arraycopy(a, i * STRIDE, w, k * STRIDE, (to1 - i) * STRIDE);
+      k += to1 - i;
+      System.arraycopy(a, j * STRIDE, w, k * STRIDE, (to2 - j) * STRIDE);
+    }
+  }
+}
@@ -16,8 +16,14 @@
 
 package org.leplus.ristretto.util;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.UUID;
+import java.util.stream.IntStream;
 
 /**
  * This class provides utility method to convert different primitives from/to UUID. All the methods
@@ -79,30 +85,61 @@ public final class UUIDConvertor {
   /** Maximum number of longs that can be converted into a UUID. */
   public static final int MAX_LONGS = UUID_BYTES / Long.BYTES;
 
-  /** Private constructor to prevent instantiation. */
-  private UUIDConvertor() {
-    super();
-  }
+  /**
+   * Minimum number of UUIDs in a batch for the parallel methods to actually split the work. Below
+   * that, the overhead of parallelism outweighs the benefits and the work is done sequentially.
+   */
+  private static final int MIN_PARALLEL_BATCH = 1 << 13;
+
+  /** View of a byte array as big-endian longs, to encode and decode UUIDs in one store/load. */
+  private static final VarHandle BIG_ENDIAN_LONGS =
+      MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
 
   /**
-   * Allocates a buffer.
-   *
-   * @return the buffer.
+   * View of a byte buffer (heap or direct) as big-endian longs, regardless of the buffer's own
+   * byte order.
    */
-  private static ByteBuffer allocateByteBuffer() {
-    return ByteBuffer.allocate(UUID_BYTES);
-  }
+  private static final VarHandle BIG_ENDIAN_BUFFER_LONGS =
+      MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+
+  /** Number of characters of a UUID in canonical format. */
+  private static final int CANONICAL_LENGTH = 36;
 
   /**
-   * Converts a UUID to a byte buffer.
-   *
-   * @param uuid the uuid to convert.
-   * @return the resulting byte buffer.
+   * Positions of the hexadecimal digits in the canonical format: the first half are the most
+   * significant bits, the second half the least significant bits.
    */
-  private static ByteBuffer toByteBuffer(final UUID uuid) {
-    final ByteBuffer buffer = ByteBuffer.allocate(UUID_BYTES);
-    buffer.asLongBuffer().put(uuid.getMostSignificantBits()).put(uuid.getLeastSignificantBits());
-    return buffer;
+  @SuppressWarnings("checkstyle:magicnumber")
+  private static final int[] CANONICAL_DIGITS = {
+    0, 1, 2, 3, 4, 5, 6, 7, 9, 10, 11, 12, 14, 15, 16, 17, 19, 20, 21, 22, 24, 25, 26, 27, 28, 29,
+    30, 31, 32, 33, 34, 35
+  };
+
+  /** Positions of the hyphens in the canonical format. */
+  @SuppressWarnings("checkstyle:magicnumber")
+  private static final int[] CANONICAL_HYPHENS = {8, 13, 18, 23};
+
+  /** Radix of hexadecimal digits. */
+  private static final int HEX_RADIX = 16;
+
+  /** Mask of the ASCII range. */
+  private static final int ASCII_MASK = 0x7f;
+
+  /** Value of the hexadecimal digits, indexed by ASCII character. Invalid ones are -1. */
+  private static final byte[] HEX_DIGITS = new byte[ASCII_MASK + 1];
+
+  static {
+    Arrays.fill(HEX_DIGITS, (byte) -1);
+    for (int i = 0; i < HEX_RADIX; i++) {
+      final char c = Character.forDigit(i, HEX_RADIX);
+      HEX_DIGITS[c] = (byte) i;
+      HEX_DIGITS[Character.toUpperCase(c)] = (byte) i;
+    }
+  }
+
+  /** Private constructor to prevent instantiation. */
+  private UUIDConvertor() {
+    super();
   }
 
   /**
@@ -112,7 +149,9 @@ public final class UUIDConvertor {
    * @return the resulting array.
    */
   public static byte[] toBytes(final UUID uuid) {
-    return toByteBuffer(uuid).array();
+    final byte[] result = new byte[MAX_BYTES];
+    toBytes(uuid, result, 0);
+    return result;
   }
 
   /**
@@ -122,11 +161,8 @@ public final class UUIDConvertor {
    * @return the resulting array.
    */
   public static char[] toChars(final UUID uuid) {
-    final ByteBuffer byteBuffer = toByteBuffer(uuid);
     final char[] result = new char[MAX_CHARS];
-    for (int i = 0; i < result.length; i++) {
-      result[i] = byteBuffer.getChar();
-    }
+    toChars(uuid, result, 0);
     return result;
   }
 
@@ -137,11 +173,8 @@ public final class UUIDConvertor {
    * @return the resulting array.
    */
   public static double[] toDoubles(final UUID uuid) {
-    final ByteBuffer byteBuffer = toByteBuffer(uuid);
     final double[] result = new double[MAX_DOUBLES];
-    for (int i = 0; i < result.length; i++) {
-      result[i] = byteBuffer.getDouble();
-    }
+    toDoubles(uuid, result, 0);
     return result;
   }
 
@@ -152,11 +185,8 @@ public final class UUIDConvertor {
    * @return the resulting array.
    */
   public static float[] toFloats(final UUID uuid) {
-    final ByteBuffer byteBuffer = toByteBuffer(uuid);
     final float[] result = new float[MAX_FLOATS];
-    for (int i = 0; i < result.length; i++) {
-      result[i] = byteBuffer.getFloat();
-    }
+    toFloats(uuid, result, 0);
     return result;
   }
 
@@ -167,11 +197,8 @@ public final class UUIDConvertor {
    * @return the resulting array.
    */
   public static int[] toInts(final UUID uuid) {
-    final ByteBuffer byteBuffer = toByteBuffer(uuid);
     final int[] result = new int[MAX_INTS];
-    for (int i = 0; i < result.length; i++) {
-      result[i] = byteBuffer.getInt();
-    }
+    toInts(uuid, result, 0);
     return result;
   }
 
@@ -182,11 +209,8 @@ public final class UUIDConvertor {
    * @return the resulting array.
    */
   public static long[] toLongs(final UUID uuid) {
-    final ByteBuffer byteBuffer = toByteBuffer(uuid);
     final long[] result = new long[MAX_LONGS];
-    for (int i = 0; i < result.length; i++) {
-      result[i] = byteBuffer.getLong();
-    }
+    toLongs(uuid, result, 0);
     return result;
   }
 
@@ -197,11 +221,8 @@ public final class UUIDConvertor {
    * @return the resulting array.
    */
   public static short[] toShorts(final UUID uuid) {
-    final ByteBuffer byteBuffer = toByteBuffer(uuid);
     final short[] result = new short[MAX_SHORTS];
-    for (int i = 0; i < result.length; i++) {
-      result[i] = byteBuffer.getShort();
-    }
+    toShorts(uuid, result, 0);
     return result;
   }
 
@@ -216,6 +237,525 @@ public final class UUIDConvertor {
     return String.valueOf(toChars(uuid));
   }
 
+  /**
+   * Checks that a sub-range of an array is large enough to hold a whole UUID.
+   *
+   * @param length the length of the array.
+   * @param off the offset of the sub-range in the array.
+   * @param count the number of elements needed to hold a UUID.
+   * @throws ArrayIndexOutOfBoundsException if the sub-range is out of the array bounds.
+   */
+  static void checkRange(final int length, final int off, final int count)
+      throws ArrayIndexOutOfBoundsException {
+    if (off < 0 || off > length - count) {
+      throw new ArrayIndexOutOfBoundsException(off);
+    }
+  }
+
+  /**
+   * Writes a UUID as {@value #MAX_BYTES} bytes into the provided array, starting at the given
+   * offset. This method does not allocate any memory.
+   *
+   * @since 2.1.0
+   * @param uuid the UUID to convert.
+   * @param dst the destination array.
+   * @param off the offset in the destination array.
+   * @throws ArrayIndexOutOfBoundsException if the destination array does not have {@value
+   *     #MAX_BYTES} elements available from the given offset.
+   */
+  public static void toBytes(final UUID uuid, final byte[] dst, final int off)
+      throws ArrayIndexOutOfBoundsException {
+    checkRange(dst.length, off, MAX_BYTES);
+    BIG_ENDIAN_LONGS.set(dst, off, uuid.getMostSignificantBits());
+    BIG_ENDIAN_LONGS.set(dst, off + Long.BYTES, uuid.getLeastSignificantBits());
+  }
+
+  /**
+   * Converts a UUID into an array of {@value #MAX_BYTES} bytes using the given layout.
+   *
+   * @since 2.1.0
+   * @param uuid the UUID to convert.
+   * @param layout the binary layout to use.
+   * @return the resulting array.
+   */
+  public static byte[] toBytes(final UUID uuid, final UUIDLayout layout) {
+    final byte[] result = new byte[MAX_BYTES];
+    toBytes(uuid, result, 0, layout);
+    return result;
+  }
+
+  /**
+   * Writes a UUID as {@value #MAX_BYTES} bytes into the provided array using the given layout,
+   * starting at the given offset. This method does not allocate any memory.
+   *
+   * @since 2.1.0
+   * @param uuid the UUID to convert.
+   * @param dst the destination array.
+   * @param off the offset in the destination array.
+   * @param layout the binary layout to use.
+   * @throws ArrayIndexOutOfBoundsException if the destination array does not have {@value
+   *     #MAX_BYTES} elements available from the given offset.
+   */
+  public static void toBytes(
+      final UUID uuid, final byte[] dst, final int off, final UUIDLayout layout)
+      throws ArrayIndexOutOfBoundsException {
+    checkRange(dst.length, off, MAX_BYTES);
+    layout.write(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits(), dst, off);
+  }
+
+  /**
+   * Writes a UUID as {@value #MAX_CHARS} characters into the provided array, starting at the given
+   * offset. This method does not allocate any memory.
+   *
+   * @since 2.1.0
+   * @param uuid the UUID to convert.
+   * @param dst the destination array.
+   * @param off the offset in the destination array.
+   * @throws ArrayIndexOutOfBoundsException if the destination array does not have {@value
+   *     #MAX_CHARS} elements available from the given offset.
+   */
+  @SuppressWarnings("checkstyle:magicnumber")
+  public static void toChars(final UUID uuid, final char[] dst, final int off)
+      throws ArrayIndexOutOfBoundsException {
+    checkRange(dst.length, off, MAX_CHARS);
+    final long msb = uuid.getMostSignificantBits();
+    final long lsb = uuid.getLeastSignificantBits();
+    for (int i = 0; i < MAX_CHARS / 2; i++) {
+      dst[off + i] = (char) (msb >>> (48 - 16 * i));
+      dst[off + MAX_CHARS / 2 + i] = (char) (lsb >>> (48 - 16 * i));
+    }
+  }
+
+  /**
+   * Writes a UUID as {@value #MAX_DOUBLES} doubles into the provided array, starting at the given
+   * offset. This method does not allocate any memory.
+   *
+   * @since 2.1.0
+   * @param uuid the UUID to convert.
+   * @param dst the destination array.
+   * @param off the offset in the destination array.
+   * @throws ArrayIndexOutOfBoundsException if the destination array does not have {@value
+   *     #MAX_DOUBLES} elements available from the given offset.
+   */
+  public static void toDoubles(final UUID uuid, final double[] dst, final int off)
+      throws ArrayIndexOutOfBoundsException {
+    checkRange(dst.length, off, MAX_DOUBLES);
+    dst[off] = Double.longBitsToDouble(uuid.getMostSignificantBits());
+    dst[off + 1] = Double.longBitsToDouble(uuid.getLeastSignificantBits());
+  }
+
+  /**
+   * Writes a UUID as {@value #MAX_FLOATS} floats into the provided array, starting at the given
+   * offset. This method does not allocate any memory.
+   *
+   * @since 2.1.0
+   * @param uuid the UUID to convert.
+   * @param dst the destination array.
+   * @param off the offset in the destination array.
+   * @throws ArrayIndexOutOfBoundsException if the destination array does not have {@value
+   *     #MAX_FLOATS} elements available from the given offset.
+   */
+  @SuppressWarnings("checkstyle:magicnumber")
+  public static void toFloats(final UUID uuid, final float[] dst, final int off)
+      throws ArrayIndexOutOfBoundsException {
+    checkRange(dst.length, off, MAX_FLOATS);
+    final long msb = uuid.getMostSignificantBits();
+    final long lsb = uuid.getLeastSignificantBits();
+    dst[off] = Float.intBitsToFloat((int) (msb >>> 32));
+    dst[off + 1] = Float.intBitsToFloat((int) msb);
+    dst[off + 2] = Float.intBitsToFloat((int) (lsb >>> 32));
+    dst[off + 3] = Float.intBitsToFloat((int) lsb);
+  }
+
+  /**
+   * Writes a UUID as {@value #MAX_INTS} integers into the provided array, starting at the given
+   * offset. This method does not allocate any memory.
+   *
+   * @since 2.1.0
+   * @param uuid the UUID to convert.
+   * @param dst the destination array.
+   * @param off the offset in the destination array.
+   * @throws ArrayIndexOutOfBoundsException if the destination array does not have {@value
+   *     #MAX_INTS} elements available from the given offset.
+   */
+  @SuppressWarnings("checkstyle:magicnumber")
+  public static void toInts(final UUID uuid, final int[] dst, final int off)
+      throws ArrayIndexOutOfBoundsException {
+    checkRange(dst.length, off, MAX_INTS);
+    final long msb = uuid.getMostSignificantBits();
+    final long lsb = uuid.getLeastSignificantBits();
+    dst[off] = (int) (msb >>> 32);
+    dst[off + 1] = (int) msb;
+    dst[off + 2] = (int) (lsb >>> 32);
+    dst[off + 3] = (int) lsb;
+  }
+
+  /**
+   * Writes a UUID as {@value #MAX_LONGS} longs into the provided array, starting at the given
+   * offset. This method does not allocate any memory.
+   *
+   * @since 2.1.0
+   * @param uuid the UUID to convert.
+   * @param dst the destination array.
+   * @param off the offset in the destination array.
+   * @throws ArrayIndexOutOfBoundsException if the destination array does not have {@value
+   *     #MAX_LONGS} elements available from the given offset.
+   */
+  public static void toLongs(final UUID uuid, final long[] dst, final int off)
+      throws ArrayIndexOutOfBoundsException {
+    checkRange(dst.length, off, MAX_LONGS);
+    dst[off] = uuid.getMostSignificantBits();
+    dst[off + 1] = uuid.getLeastSignificantBits();
+  }
+
+  /**
+   * Writes a UUID as {@value #MAX_SHORTS} shorts into the provided array, starting at the given
+   * offset. This method does not allocate any memory.
+   *
+   * @since 2.1.0
+   * @param uuid the UUID to convert.
+   * @param dst the destination array.
+   * @param off the offset in the destination array.
+   * @throws ArrayIndexOutOfBoundsException if the destination array does not have {@value
+   *     #MAX_SHORTS} elements available from the given offset.
+   */
+  @SuppressWarnings("checkstyle:magicnumber")
+  public static void toShorts(final UUID uuid, final short[] dst, final int off)
+      throws ArrayIndexOutOfBoundsException {
+    checkRange(dst.length, off, MAX_SHORTS);
+    final long msb = uuid.getMostSignificantBits();
+    final long lsb = uuid.getLeastSignificantBits();
+    for (int i = 0; i < MAX_SHORTS / 2; i++) {
+      dst[off + i] = (short) (msb >>> (48 - 16 * i));
+      dst[off + MAX_SHORTS / 2 + i] = (short) (lsb >>> (48 - 16 * i));
+    }
+  }
+
+  /**
+   * Reads a UUID from {@value #MAX_BYTES} bytes of the provided array, starting at the given
+   * offset. The only memory allocated by this method is the resulting UUID.
+   *
+   * @since 2.1.0
+   * @param src the source array.
+   * @param off the offset in the source array.
+   * @return the resulting UUID.
+   * @throws ArrayIndexOutOfBoundsException if the source array does not have {@value #MAX_BYTES}
+   *     elements available from the given offset.
+   */
+  public static UUID toUUID(final byte[] src, final int off) throws ArrayIndexOutOfBoundsException {
+    if (src == null) {
+      return null;
+    }
+    checkRange(src.length, off, MAX_BYTES);
+    return new UUID(
+        (long) BIG_ENDIAN_LONGS.get(src, off), (long) BIG_ENDIAN_LONGS.get(src, off + Long.BYTES));
+  }
+
+  /**
+   * Writes a UUID as {@value #MAX_BYTES} bytes into the provided buffer, starting at the given
+   * absolute index. The bytes are in the same order as {@link #toBytes(UUID)}, whatever the byte
+   * order of the buffer. The buffer can be a heap or a direct buffer and its position, limit and
+   * mark are left untouched. This method does not allocate any memory.
+   *
+   * @since 2.1.0
+   * @param uuid the UUID to convert.
+   * @param dst the destination buffer.
+   * @param index the absolute index in the destination buffer.
+   * @throws IndexOutOfBoundsException if the destination buffer does not have {@value #MAX_BYTES}
+   *     bytes available from the given index, up to its limit.
+   * @throws java.nio.ReadOnlyBufferException if the destination buffer is read-only.
+   */
+  public static void toBytes(final UUID uuid, final ByteBuffer dst, final int index)
+      throws IndexOutOfBoundsException {
+    BIG_ENDIAN_BUFFER_LONGS.set(dst, index, uuid.getMostSignificantBits());
+    BIG_ENDIAN_BUFFER_LONGS.set(dst, index + Long.BYTES, uuid.getLeastSignificantBits());
+  }
+
+  /**
+   * Reads a UUID from {@value #MAX_BYTES} bytes of the provided buffer, starting at the given
+   * absolute index. The bytes are expected in the same order as {@link #toBytes(UUID)}, whatever
+   * the byte order of the buffer. The buffer can be a heap or a direct buffer and its position,
+   * limit and mark are left untouched. The only memory allocated by this method is the resulting
+   * UUID.
+   *
+   * @since 2.1.0
+   * @param src the source buffer.
+   * @param index the absolute index in the source buffer.
+   * @return the resulting UUID.
+   * @throws IndexOutOfBoundsException if the source buffer does not have {@value #MAX_BYTES} bytes
+   *     available from the given index, up to its limit.
+   */
+  public static UUID toUUID(final ByteBuffer src, final int index)
+      throws IndexOutOfBoundsException {
+    if (src == null) {
+      return null;
+    }
+    return new UUID(
+        (long) BIG_ENDIAN_BUFFER_LONGS.get(src, index),
+        (long) BIG_ENDIAN_BUFFER_LONGS.get(src, index + Long.BYTES));
+  }
+
+  /**
+   * Reads a UUID from {@value #MAX_BYTES} bytes of the provided array using the given layout,
+   * starting at the given offset. The only memory allocated by this method is the resulting UUID.
+   *
+   * @since 2.1.0
+   * @param src the source array.
+   * @param off the offset in the source array.
+   * @param layout the binary layout of the source bytes.
+   * @return the resulting UUID.
+   * @throws ArrayIndexOutOfBoundsException if the source array does not have {@value #MAX_BYTES}
+   *     elements available from the given offset.
+   */
+  public static UUID toUUID(final byte[] src, final int off, final UUIDLayout layout)
+      throws ArrayIndexOutOfBoundsException {
+    if (src == null) {
+      return null;
+    }
+    checkRange(src.length, off, MAX_BYTES);
+    return new UUID(layout.readMsb(src, off), layout.readLsb(src, off));
+  }
+
+  /**
+   * Reads a UUID from {@value #MAX_BYTES} bytes of the provided array like {@link
+   * #toUUID(byte[], int)}, but returns the canonical instance from the given interner. No memory
+   * is allocated when the UUID is already cached.
+   *
+   * @since 2.1.0
+   * @param src the source array.
+   * @param off the offset in the source array.
+   * @param interner the interner providing the canonical instances.
+   * @return the resulting UUID.
+   * @throws ArrayIndexOutOfBoundsException if the source array does not have {@value #MAX_BYTES}
+   *     elements available from the given offset.
+   */
+  public static UUID toUUID(final byte[] src, final int off, final UUIDInterner interner)
+      throws ArrayIndexOutOfBoundsException {
+    return toUUID(src, off, UUIDLayout.BIG_ENDIAN, interner);
+  }
+
+  /**
+   * Reads a UUID from {@value #MAX_BYTES} bytes of the provided array using the given layout like
+   * {@link #toUUID(byte[], int, UUIDLayout)}, but returns the canonical instance from the given
+   * interner. No memory is allocated when the UUID is already cached.
+   *
+   * @since 2.1.0
+   * @param src the source array.
+   * @param off the offset in the source array.
+   * @param layout the binary layout of the source bytes.
+   * @param interner the interner providing the canonical instances.
+   * @return the resulting UUID.
+   * @throws ArrayIndexOutOfBoundsException if the source array does not have {@value #MAX_BYTES}
+   *     elements available from the given offset.
+   */
+  public static UUID toUUID(
+      final byte[] src, final int off, final UUIDLayout layout, final UUIDInterner interner)
+      throws ArrayIndexOutOfBoundsException {
+    if (src == null) {
+      return null;
+    }
+    checkRange(src.length, off, MAX_BYTES);
+    return interner.intern(layout.readMsb(src, off), layout.readLsb(src, off));
+  }
+
+  /**
+   * Reads a UUID from {@value #MAX_BYTES} bytes of the provided buffer like {@link
+   * #toUUID(ByteBuffer, int)}, but returns the canonical instance from the given interner. No
+   * memory is allocated when the UUID is already cached.
+   *
+   * @since 2.1.0
+   * @param src the source buffer.
+   * @param index the absolute index in the source buffer.
+   * @param interner the interner providing the canonical instances.
+   * @return the resulting UUID.
+   * @throws IndexOutOfBoundsException if the source buffer does not have {@value #MAX_BYTES} bytes
+   *     available from the given index, up to its limit.
+   */
+  public static UUID toUUID(final ByteBuffer src, final int index, final UUIDInterner interner)
+      throws IndexOutOfBoundsException {
+    if (src == null) {
+      return null;
+    }
+    return interner.intern(
+        (long) BIG_ENDIAN_BUFFER_LONGS.get(src, index),
+        (long) BIG_ENDIAN_BUFFER_LONGS.get(src, index + Long.BYTES));
+  }
+
+  /**
+   * Reads a UUID from {@value #MAX_LONGS} longs of the provided array like {@link
+   * #toUUID(long[], int)}, but returns the canonical instance from the given interner. No memory
+   * is allocated when the UUID is already cached.
+   *
+   * @since 2.1.0
+   * @param src the source array.
+   * @param off the offset in the source array.
+   * @param interner the interner providing the canonical instances.
+   * @return the resulting UUID.
+   * @throws ArrayIndexOutOfBoundsException if the source array does not have {@value #MAX_LONGS}
+   *     elements available from the given offset.
+   */
+  public static UUID toUUID(final long[] src, final int off, final UUIDInterner interner)
+      throws ArrayIndexOutOfBoundsException {
+    if (src == null) {
+      return null;
+    }
+    checkRange(src.length, off, MAX_LONGS);
+    return interner.intern(src[off], src[off + 1]);
+  }
+
+  /**
+   * Reads a UUID from {@value #MAX_CHARS} characters of the provided array, starting at the given
+   * offset. The only memory allocated by this method is the resulting UUID.
+   *
+   * @since 2.1.0
+   * @param src the source array.
+   * @param off the offset in the source array.
+   * @return the resulting UUID.
+   * @throws ArrayIndexOutOfBoundsException if the source array does not have {@value #MAX_CHARS}
+   *     elements available from the given offset.
+   */
+  @SuppressWarnings("checkstyle:magicnumber")
+  public static UUID toUUID(final char[] src, final int off) throws ArrayIndexOutOfBoundsException {
+    if (src == null) {
+      return null;
+    }
+    checkRange(src.length, off, MAX_CHARS);
+    long msb = 0;
+    long lsb = 0;
+    for (int i = 0; i < MAX_CHARS / 2; i++) {
+      msb = (msb << 16) | src[off + i];
+      lsb = (lsb << 16) | src[off + MAX_CHARS / 2 + i];
+    }
+    return new UUID(msb, lsb);
+  }
+
+  /**
+   * Reads a UUID from {@value #MAX_DOUBLES} doubles of the provided array, starting at the given
+   * offset. The only memory allocated by this method is the resulting UUID.
+   *
+   * @since 2.1.0
+   * @param src the source array.
+   * @param off the offset in the source array.
+   * @return the resulting UUID.
+   * @throws ArrayIndexOutOfBoundsException if the source array does not have {@value
+   *     #MAX_DOUBLES} elements available from the given offset.
+   */
+  public static UUID toUUID(final double[] src, final int off)
+      throws ArrayIndexOutOfBoundsException {
+    if (src == null) {
+      return null;
+    }
+    checkRange(src.length, off, MAX_DOUBLES);
+    return new UUID(
+        Double.doubleToRawLongBits(src[off]), Double.doubleToRawLongBits(src[off + 1]));
+  }
+
+  /**
+   * Reads a UUID from {@value #MAX_FLOATS} floats of the provided array, starting at the given
+   * offset. The only memory allocated by this method is the resulting UUID.
+   *
+   * @since 2.1.0
+   * @param src the source array.
+   * @param off the offset in the source array.
+   * @return the resulting UUID.
+   * @throws ArrayIndexOutOfBoundsException if the source array does not have {@value #MAX_FLOATS}
+   *     elements available from the given offset.
+   */
+  @SuppressWarnings("checkstyle:magicnumber")
+  public static UUID toUUID(final float[] src, final int off)
+      throws ArrayIndexOutOfBoundsException {
+    if (src == null) {
+      return null;
+    }
+    checkRange(src.length, off, MAX_FLOATS);
+    return new UUID(
+        ((long) Float.floatToRawIntBits(src[off]) << 32)
+            | (Float.floatToRawIntBits(src[off + 1]) & 0xffffffffL),
+        ((long) Float.floatToRawIntBits(src[off + 2]) << 32)
+            | (Float.floatToRawIntBits(src[off + 3]) & 0xffffffffL));
+  }
+
+  /**
+   * Reads a UUID from {@value #MAX_INTS} integers of the provided array, starting at the given
+   * offset. The only memory allocated by this method is the resulting UUID.
+   *
+   * @since 2.1.0
+   * @param src the source array.
+   * @param off the offset in the source array.
+   * @return the resulting UUID.
+   * @throws ArrayIndexOutOfBoundsException if the source array does not have {@value #MAX_INTS}
+   *     elements available from the given offset.
+   */
+  @SuppressWarnings("checkstyle:magicnumber")
+  public static UUID toUUID(final int[] src, final int off) throws ArrayIndexOutOfBoundsException {
+    if (src == null) {
+      return null;
+    }
+    checkRange(src.length, off, MAX_INTS);
+    return new UUID(
+        ((long) src[off] << 32) | (src[off + 1] & 0xffffffffL),
+        ((long) src[off + 2] << 32) | (src[off + 3] & 0xffffffffL));
+  }
+
+  /**
+   * Reads a UUID from {@value #MAX_LONGS} longs of the provided array, starting at the given
+   * offset. The only memory allocated by this method is the resulting UUID.
+   *
+   * @since 2.1.0
+   * @param src the source array.
+   * @param off the offset in the source array.
+   * @return the resulting UUID.
+   * @throws ArrayIndexOutOfBoundsException if the source array does not have {@value #MAX_LONGS}
+   *     elements available from the given offset.
+   */
+  public static UUID toUUID(final long[] src, final int off) throws ArrayIndexOutOfBoundsException {
+    if (src == null) {
+      return null;
+    }
+    checkRange(src.length, off, MAX_LONGS);
+    return new UUID(src[off], src[off + 1]);
+  }
+
+  /**
+   * Reads a UUID from {@value #MAX_SHORTS} shorts of the provided array, starting at the given
+   * offset. The only memory allocated by this method is the resulting UUID.
+   *
+   * @since 2.1.0
+   * @param src the source array.
+   * @param off the offset in the source array.
+   * @return the resulting UUID.
+   * @throws ArrayIndexOutOfBoundsException if the source array does not have {@value #MAX_SHORTS}
+   *     elements available from the given offset.
+   */
+  @SuppressWarnings("checkstyle:magicnumber")
+  public static UUID toUUID(final short[] src, final int off)
+      throws ArrayIndexOutOfBoundsException {
+    if (src == null) {
+      return null;
+    }
+    checkRange(src.length, off, MAX_SHORTS);
+    long msb = 0;
+    long lsb = 0;
+    for (int i = 0; i < MAX_SHORTS / 2; i++) {
+      msb = (msb << 16) | (src[off + i] & 0xffffL);
+      lsb = (lsb << 16) | (src[off + MAX_SHORTS / 2 + i] & 0xffffL);
+    }
+    return new UUID(msb, lsb);
+  }
+
+  /**
+   * Converts a UUID into a String using the given text format. Unlike {@link #toString(UUID)},
+   * the result only contains printable ASCII characters.
+   *
+   * @since 2.1.0
+   * @param uuid the UUID to convert.
+   * @param format the text format to use.
+   * @return the resulting String.
+   */
+  public static String toString(final UUID uuid, final UUIDFormat format) {
+    return format.format(uuid);
+  }
+
   /**
    * Converts an array of up to {@value #MAX_BYTES} bytes into an UUID. If the array is shorter than
    * the maximum length, it will be padded with 0s. If the array is longer than the maximum length,
@@ -226,6 +766,7 @@ public final class UUIDConvertor {
    * @throws ArrayIndexOutOfBoundsException if the provided array is longer than {@value
    *     #MAX_BYTES}.
    */
+  @SuppressWarnings("checkstyle:magicnumber")
   public static UUID toUUID(final byte... bytes) throws ArrayIndexOutOfBoundsException {
     if (bytes == null) {
       return null;
@@ -233,20 +774,33 @@ public final class UUIDConvertor {
     if (bytes.length > MAX_BYTES) {
       throw new ArrayIndexOutOfBoundsException(bytes.length);
     }
-    final ByteBuffer byteBuffer = allocateByteBuffer();
-    byteBuffer.put(bytes);
-    return toUUID(byteBuffer);
+    if (bytes.length == MAX_BYTES) {
+      return toUUID(bytes, 0);
+    }
+    long msb = 0;
+    long lsb = 0;
+    for (int i = 0; i < bytes.length; i++) {
+      final long bits = (bytes[i] & 0xffL) << shift(i, MAX_BYTES);
+      if (i < MAX_BYTES / 2) {
+        msb |= bits;
+      } else {
+        lsb |= bits;
+      }
+    }
+    return new UUID(msb, lsb);
   }
 
   /**
-   * Converts a byte buffer to a UUID.
+   * Computes how far to shift the element at the given index of a zero-padded input so that it
+   * lands at its position within its half (most or least significant bits) of a UUID.
    *
-   * @param bytes the byte buffer to convert.
-   * @return the resulting UUID.
+   * @param index the index of the element in the input.
+   * @param count the maximum number of elements of that type in a UUID.
+   * @return the number of bits to shift the element left by.
    */
-  private static UUID toUUID(final ByteBuffer bytes) {
-    bytes.position(0);
-    return new UUID(bytes.getLong(), bytes.getLong());
+  private static int shift(final int index, final int count) {
+    final int perHalf = count / 2;
+    return Long.SIZE - Long.SIZE / perHalf * (index % perHalf + 1);
   }
 
   /**
@@ -266,9 +820,17 @@ public final class UUIDConvertor {
     if (chars.length > MAX_CHARS) {
       throw new ArrayIndexOutOfBoundsException(chars.length);
     }
-    final ByteBuffer byteBuffer = allocateByteBuffer();
-    byteBuffer.asCharBuffer().put(chars);
-    return toUUID(byteBuffer);
+    long msb = 0;
+    long lsb = 0;
+    for (int i = 0; i < chars.length; i++) {
+      final long bits = (long) chars[i] << shift(i, MAX_CHARS);
+      if (i < MAX_CHARS / 2) {
+        msb |= bits;
+      } else {
+        lsb |= bits;
+      }
+    }
+    return new UUID(msb, lsb);
   }
 
   /**
@@ -288,9 +850,15 @@ public final class UUIDConvertor {
     if (doubles.length > MAX_DOUBLES) {
       throw new ArrayIndexOutOfBoundsException(doubles.length);
     }
-    final ByteBuffer byteBuffer = allocateByteBuffer();
-    byteBuffer.asDoubleBuffer().put(doubles);
-    return toUUID(byteBuffer);
+    long msb = 0;
+    long lsb = 0;
+    if (doubles.length > 0) {
+      msb = Double.doubleToRawLongBits(doubles[0]);
+    }
+    if (doubles.length > 1) {
+      lsb = Double.doubleToRawLongBits(doubles[1]);
+    }
+    return new UUID(msb, lsb);
   }
 
   /**
@@ -303,6 +871,7 @@ public final class UUIDConvertor {
    * @throws ArrayIndexOutOfBoundsException if the provided array is longer than {@value
    *     #MAX_FLOATS}.
    */
+  @SuppressWarnings("checkstyle:magicnumber")
   public static UUID toUUID(final float... floats) throws ArrayIndexOutOfBoundsException {
     if (floats == null) {
       return null;
@@ -310,9 +879,17 @@ public final class UUIDConvertor {
     if (floats.length > MAX_FLOATS) {
       throw new ArrayIndexOutOfBoundsException(floats.length);
     }
-    final ByteBuffer byteBuffer = allocateByteBuffer();
-    byteBuffer.asFloatBuffer().put(floats);
-    return toUUID(byteBuffer);
+    long msb = 0;
+    long lsb = 0;
+    for (int i = 0; i < floats.length; i++) {
+      final long bits = (Float.floatToRawIntBits(floats[i]) & 0xffffffffL) << shift(i, MAX_FLOATS);
+      if (i < MAX_FLOATS / 2) {
+        msb |= bits;
+      } else {
+        lsb |= bits;
+      }
+    }
+    return new UUID(msb, lsb);
   }
 
   /**
@@ -324,6 +901,7 @@ public final class UUIDConvertor {
    * @return the resulting UUID.
    * @throws ArrayIndexOutOfBoundsException if the provided array is longer than {@value #MAX_INTS}.
    */
+  @SuppressWarnings("checkstyle:magicnumber")
   public static UUID toUUID(final int... ints) throws ArrayIndexOutOfBoundsException {
     if (ints == null) {
       return null;
@@ -331,9 +909,17 @@ public final class UUIDConvertor {
     if (ints.length > MAX_INTS) {
       throw new ArrayIndexOutOfBoundsException(ints.length);
     }
-    final ByteBuffer byteBuffer = allocateByteBuffer();
-    byteBuffer.asIntBuffer().put(ints);
-    return toUUID(byteBuffer);
+    long msb = 0;
+    long lsb = 0;
+    for (int i = 0; i < ints.length; i++) {
+      final long bits = (ints[i] & 0xffffffffL) << shift(i, MAX_INTS);
+      if (i < MAX_INTS / 2) {
+        msb |= bits;
+      } else {
+        lsb |= bits;
+      }
+    }
+    return new UUID(msb, lsb);
   }
 
   /**
@@ -353,9 +939,15 @@ public final class UUIDConvertor {
     if (longs.length > MAX_LONGS) {
       throw new ArrayIndexOutOfBoundsException(longs.length);
     }
-    final ByteBuffer byteBuffer = allocateByteBuffer();
-    byteBuffer.asLongBuffer().put(longs);
-    return toUUID(byteBuffer);
+    long msb = 0;
+    long lsb = 0;
+    if (longs.length > 0) {
+      msb = longs[0];
+    }
+    if (longs.length > 1) {
+      lsb = longs[1];
+    }
+    return new UUID(msb, lsb);
   }
 
   /**
@@ -368,6 +960,7 @@ public final class UUIDConvertor {
    * @throws ArrayIndexOutOfBoundsException if the provided array is longer than {@value
    *     #MAX_SHORTS}.
    */
+  @SuppressWarnings("checkstyle:magicnumber")
   public static UUID toUUID(final short... shorts) throws ArrayIndexOutOfBoundsException {
     if (shorts == null) {
       return null;
@@ -375,9 +968,17 @@ public final class UUIDConvertor {
     if (shorts.length > MAX_SHORTS) {
       throw new ArrayIndexOutOfBoundsException(shorts.length);
     }
-    final ByteBuffer byteBuffer = allocateByteBuffer();
-    byteBuffer.asShortBuffer().put(shorts);
-    return toUUID(byteBuffer);
+    long msb = 0;
+    long lsb = 0;
+    for (int i = 0; i < shorts.length; i++) {
+      final long bits = (shorts[i] & 0xffffL) << shift(i, MAX_SHORTS);
+      if (i < MAX_SHORTS / 2) {
+        msb |= bits;
+      } else {
+        lsb |= bits;
+      }
+    }
+    return new UUID(msb, lsb);
   }
 
   /**
@@ -395,6 +996,566 @@ public final class UUIDConvertor {
     if (string == null) {
       return null;
     }
-    return toUUID(string.toCharArray());
+    if (string.length() > MAX_CHARS) {
+      throw new ArrayIndexOutOfBoundsException(string.length());
+    }
+    long msb = 0;
+    long lsb = 0;
+    for (int i = 0; i < string.length(); i++) {
+      final long bits = (long) string.charAt(i) << shift(i, MAX_CHARS);
+      if (i < MAX_CHARS / 2) {
+        msb |= bits;
+      } else {
+        lsb |= bits;
+      }
+    }
+    return new UUID(msb, lsb);
+  }
+
+  /**
+   * Checks that a packed array holds a whole number of UUIDs.
+   *
+   * @param length the length of the packed array.
+   * @param count the number of elements needed to hold a UUID.
+   * @return the number of UUIDs in the packed array.
+   * @throws IllegalArgumentException if the length is not a multiple of count.
+   */
+  private static int packedSize(final int length, final int count)
+      throws IllegalArgumentException {
+    if (length % count != 0) {
+      throw new IllegalArgumentException(
+          "Packed array length " + length + " is not a multiple of " + count);
+    }
+    return length / count;
+  }
+
+  /**
+   * Packs an array of UUIDs into a single array of longs. Each UUID takes {@value #MAX_LONGS}
+   * consecutive longs: its most significant bits followed by its least significant bits.
+   *
+   * @since 2.1.0
+   * @param uuids the UUIDs to convert.
+   * @return the resulting packed array.
+   * @throws ArithmeticException if the packed array would have more than {@link
+   *     Integer#MAX_VALUE} elements.
+   */
+  public static long[] toPackedLongs(final UUID[] uuids) {
+    if (uuids == null) {
+      return null;
+    }
+    final long[] result = new long[Math.multiplyExact(uuids.length, MAX_LONGS)];
+    toPackedLongs(uuids, result, 0);
+    return result;
+  }
+
+  /**
+   * Packs a collection of UUIDs into a single array of longs, in iteration order. Each UUID takes
+   * {@value #MAX_LONGS} consecutive longs: its most significant bits followed by its least
+   * significant bits.
+   *
+   * @since 2.1.0
+   * @param uuids the UUIDs to convert.
+   * @return the resulting packed array.
+   * @throws ArithmeticException if the packed array would have more than {@link
+   *     Integer#MAX_VALUE} elements.
+   */
+  public static long[] toPackedLongs(final Collection<UUID> uuids) {
+    if (uuids == null) {
+      return null;
+    }
+    final long[] result = new long[Math.multiplyExact(uuids.size(), MAX_LONGS)];
+    int off = 0;
+    for (final UUID uuid : uuids) {
+      toLongs(uuid, result, off);
+      off += MAX_LONGS;
+    }
+    return result;
+  }
+
+  /**
+   * Packs an array of UUIDs into the provided array of longs, starting at the given offset. Each
+   * UUID takes {@value #MAX_LONGS} consecutive longs: its most significant bits followed by its
+   * least significant bits.
+   *
+   * @since 2.1.0
+   * @param uuids the UUIDs to convert.
+   * @param dst the destination array.
+   * @param off the offset in the destination array.
+   * @throws ArrayIndexOutOfBoundsException if the destination array is too short.
+   * @throws ArithmeticException if the packed array would have more than {@link
+   *     Integer#MAX_VALUE} elements.
+   */
+  public static void toPackedLongs(final UUID[] uuids, final long[] dst, final int off)
+      throws ArrayIndexOutOfBoundsException {
+    checkRange(dst.length, off, Math.multiplyExact(uuids.length, MAX_LONGS));
+    for (int i = 0; i < uuids.length; i++) {
+      toLongs(uuids[i], dst, off + i * MAX_LONGS);
+    }
+  }
+
+  /**
+   * Packs an array of UUIDs into a single array of longs like {@link #toPackedLongs(UUID[])}, but
+   * splits the work across the common {@link java.util.concurrent.ForkJoinPool} when the batch is
+   * large enough to benefit from it.
+   *
+   * @since 2.1.0
+   * @param uuids the UUIDs to convert.
+   * @return the resulting packed array.
+   * @throws ArithmeticException if the packed array would have more than {@link
+   *     Integer#MAX_VALUE} elements.
+   */
+  public static long[] parallelToPackedLongs(final UUID[] uuids) {
+    if (uuids == null || uuids.length < MIN_PARALLEL_BATCH) {
+      return toPackedLongs(uuids);
+    }
+    final long[] result = new long[Math.multiplyExact(uuids.length, MAX_LONGS)];
+    IntStream.range(0, uuids.length)
+        .parallel()
+        .forEach(i -> toLongs(uuids[i], result, i * MAX_LONGS));
+    return result;
+  }
+
+  /**
+   * Packs an array of UUIDs into a single array of bytes. Each UUID takes {@value #MAX_BYTES}
+   * consecutive bytes, in the same order as {@link #toBytes(UUID)}.
+   *
+   * @since 2.1.0
+   * @param uuids the UUIDs to convert.
+   * @return the resulting packed array.
+   * @throws ArithmeticException if the packed array would have more than {@link
+   *     Integer#MAX_VALUE} elements.
+   */
+  public static byte[] toPackedBytes(final UUID[] uuids) {
+    return toPackedBytes(uuids, UUIDLayout.BIG_ENDIAN);
+  }
+
+  /**
+   * Packs an array of UUIDs into a single array of bytes using the given layout. Each UUID takes
+   * {@value #MAX_BYTES} consecutive bytes.
+   *
+   * @since 2.1.0
+   * @param uuids the UUIDs to convert.
+   * @param layout the binary layout to use.
+   * @return the resulting packed array.
+   * @throws ArithmeticException if the packed array would have more than {@link
+   *     Integer#MAX_VALUE} elements.
+   */
+  public static byte[] toPackedBytes(final UUID[] uuids, final UUIDLayout layout) {
+    if (uuids == null) {
+      return null;
+    }
+    final byte[] result = new byte[Math.multiplyExact(uuids.length, MAX_BYTES)];
+    toPackedBytes(uuids, result, 0, layout);
+    return result;
+  }
+
+  /**
+   * Packs a collection of UUIDs into a single array of bytes, in iteration order. Each UUID takes
+   * {@value #MAX_BYTES} consecutive bytes, in the same order as {@link #toBytes(UUID)}.
+   *
+   * @since 2.1.0
+   * @param uuids the UUIDs to convert.
+   * @return the resulting packed array.
+   * @throws ArithmeticException if the packed array would have more than {@link
+   *     Integer#MAX_VALUE} elements.
+   */
+  public static byte[] toPackedBytes(final Collection<UUID> uuids) {
+    return toPackedBytes(uuids, UUIDLayout.BIG_ENDIAN);
+  }
+
+  /**
+   * Packs a collection of UUIDs into a single array of bytes using the given layout, in iteration
+   * order. Each UUID takes {@value #MAX_BYTES} consecutive bytes.
+   *
+   * @since 2.1.0
+   * @param uuids the UUIDs to convert.
+   * @param layout the binary layout to use.
+   * @return the resulting packed array.
+   * @throws ArithmeticException if the packed array would have more than {@link
+   *     Integer#MAX_VALUE} elements.
+   */
+  public static byte[] toPackedBytes(final Collection<UUID> uuids, final UUIDLayout layout) {
+    if (uuids == null) {
+      return null;
+    }
+    final byte[] result = new byte[Math.multiplyExact(uuids.size(), MAX_BYTES)];
+    int off = 0;
+    for (final UUID uuid : uuids) {
+      toBytes(uuid, result, off, layout);
+      off += MAX_BYTES;
+    }
+    return result;
+  }
+
+  /**
+   * Packs an array of UUIDs into the provided array of bytes, starting at the given offset. Each
+   * UUID takes {@value #MAX_BYTES} consecutive bytes, in the same order as {@link
+   * #toBytes(UUID)}.
+   *
+   * @since 2.1.0
+   * @param uuids the UUIDs to convert.
+   * @param dst the destination array.
+   * @param off the offset in the destination array.
+   * @throws ArrayIndexOutOfBoundsException if the destination array is too short.
+   * @throws ArithmeticException if the packed array would have more than {@link
+   *     Integer#MAX_VALUE} elements.
+   */
+  public static void toPackedBytes(final UUID[] uuids, final byte[] dst, final int off)
+      throws ArrayIndexOutOfBoundsException {
+    toPackedBytes(uuids, dst, off, UUIDLayout.BIG_ENDIAN);
+  }
+
+  /**
+   * Packs an array of UUIDs into the provided array of bytes using the given layout, starting at
+   * the given offset. Each UUID takes {@value #MAX_BYTES} consecutive bytes.
+   *
+   * @since 2.1.0
+   * @param uuids the UUIDs to convert.
+   * @param dst the destination array.
+   * @param off the offset in the destination array.
+   * @param layout the binary layout to use.
+   * @throws ArrayIndexOutOfBoundsException if the destination array is too short.
+   * @throws ArithmeticException if the packed array would have more than {@link
+   *     Integer#MAX_VALUE} elements.
+   */
+  public static void toPackedBytes(
+      final UUID[] uuids, final byte[] dst, final int off, final UUIDLayout layout)
+      throws ArrayIndexOutOfBoundsException {
+    checkRange(dst.length, off, Math.multiplyExact(uuids.length, MAX_BYTES));
+    for (int i = 0; i < uuids.length; i++) {
+      final UUID uuid = uuids[i];
+      layout.write(
+          uuid.getMostSignificantBits(),
+          uuid.getLeastSignificantBits(),
+          dst,
+          off + i * MAX_BYTES);
+    }
+  }
+
+  /**
+   * Packs an array of UUIDs into a single array of bytes like {@link #toPackedBytes(UUID[])}, but
+   * splits the work across the common {@link java.util.concurrent.ForkJoinPool} when the batch is
+   * large enough to benefit from it.
+   *
+   * @since 2.1.0
+   * @param uuids the UUIDs to convert.
+   * @return the resulting packed array.
+   * @throws ArithmeticException if the packed array would have more than {@link
+   *     Integer#MAX_VALUE} elements.
+   */
+  public static byte[] parallelToPackedBytes(final UUID[] uuids) {
+    if (uuids == null || uuids.length < MIN_PARALLEL_BATCH) {
+      return toPackedBytes(uuids);
+    }
+    final byte[] result = new byte[Math.multiplyExact(uuids.length, MAX_BYTES)];
+    IntStream.range(0, uuids.length)
+        .parallel()
+        .forEach(i -> toBytes(uuids[i], result, i * MAX_BYTES));
+    return result;
+  }
+
+  /**
+   * Unpacks an array of longs produced by {@link #toPackedLongs(UUID[])} back into UUIDs.
+   *
+   * @since 2.1.0
+   * @param packed the packed array.
+   * @return the resulting UUIDs.
+   * @throws IllegalArgumentException if the length of the packed array is not a multiple of
+   *     {@value #MAX_LONGS}.
+   */
+  public static UUID[] toUUIDs(final long[] packed) throws IllegalArgumentException {
+    if (packed == null) {
+      return null;
+    }
+    final UUID[] result = new UUID[packedSize(packed.length, MAX_LONGS)];
+    for (int i = 0; i < result.length; i++) {
+      result[i] = toUUID(packed, i * MAX_LONGS);
+    }
+    return result;
+  }
+
+  /**
+   * Unpacks an array of bytes produced by {@link #toPackedBytes(UUID[])} back into UUIDs.
+   *
+   * @since 2.1.0
+   * @param packed the packed array.
+   * @return the resulting UUIDs.
+   * @throws IllegalArgumentException if the length of the packed array is not a multiple of
+   *     {@value #MAX_BYTES}.
+   */
+  public static UUID[] toUUIDs(final byte[] packed) throws IllegalArgumentException {
+    return toUUIDs(packed, UUIDLayout.BIG_ENDIAN);
+  }
+
+  /**
+   * Unpacks an array of bytes produced by {@link #toPackedBytes(UUID[], UUIDLayout)} back into
+   * UUIDs.
+   *
+   * @since 2.1.0
+   * @param packed the packed array.
+   * @param layout the binary layout of the packed array.
+   * @return the resulting UUIDs.
+   * @throws IllegalArgumentException if the length of the packed array is not a multiple of
+   *     {@value #MAX_BYTES}.
+   */
+  public static UUID[] toUUIDs(final byte[] packed, final UUIDLayout layout)
+      throws IllegalArgumentException {
+    if (packed == null) {
+      return null;
+    }
+    final UUID[] result = new UUID[packedSize(packed.length, MAX_BYTES)];
+    for (int i = 0; i < result.length; i++) {
+      final int off = i * MAX_BYTES;
+      result[i] = new UUID(layout.readMsb(packed, off), layout.readLsb(packed, off));
+    }
+    return result;
+  }
+
+  /**
+   * Unpacks an array of longs like {@link #toUUIDs(long[])}, but splits the work across the common
+   * {@link java.util.concurrent.ForkJoinPool} when the batch is large enough to benefit from it.
+   *
+   * @since 2.1.0
+   * @param packed the packed array.
+   * @return the resulting UUIDs.
+   * @throws IllegalArgumentException if the length of the packed array is not a multiple of
+   *     {@value #MAX_LONGS}.
+   */
+  public static UUID[] parallelToUUIDs(final long[] packed) throws IllegalArgumentException {
+    if (packed == null || packed.length < MIN_PARALLEL_BATCH * MAX_LONGS) {
+      return toUUIDs(packed);
+    }
+    final UUID[] result = new UUID[packedSize(packed.length, MAX_LONGS)];
+    Arrays.parallelSetAll(result, i -> toUUID(packed, i * MAX_LONGS));
+    return result;
+  }
+
+  /**
+   * Unpacks an array of bytes like {@link #toUUIDs(byte[])}, but splits the work across the common
+   * {@link java.util.concurrent.ForkJoinPool} when the batch is large enough to benefit from it.
+   *
+   * @since 2.1.0
+   * @param packed the packed array.
+   * @return the resulting UUIDs.
+   * @throws IllegalArgumentException if the length of the packed array is not a multiple of
+   *     {@value #MAX_BYTES}.
+   */
+  public static UUID[] parallelToUUIDs(final byte[] packed) throws IllegalArgumentException {
+    if (packed == null || packed.length < MIN_PARALLEL_BATCH * MAX_BYTES) {
+      return toUUIDs(packed);
+    }
+    final UUID[] result = new UUID[packedSize(packed.length, MAX_BYTES)];
+    Arrays.parallelSetAll(result, i -> toUUID(packed, i * MAX_BYTES));
+    return result;
+  }
+
+  /**
+   * Converts a String in the given text format into a UUID. The String must have exactly the length
+   * of the format.
+   *
+   * @since 2.1.0
+   * @param string the String to convert.
+   * @param format the text format of the String.
+   * @return the resulting UUID.
+   * @throws IllegalArgumentException if the String is not a valid UUID in the given format.
+   */
+  public static UUID toUUID(final CharSequence string, final UUIDFormat format)
+      throws IllegalArgumentException {
+    return format.parse(string);
+  }
+
+  /**
+   * Decodes an hexadecimal digit without branching.
+   *
+   * @param c the character (or the sign-extended ASCII byte) to decode.
+   * @return the value of the digit, or a negative value if it is not an hexadecimal digit.
+   */
+  private static int hexDigit(final int c) {
+    // ((ASCII_MASK - c) | c) >> 31 is -1 for anything outside of the ASCII range (including the
+    // negative sign-extended bytes), 0 otherwise.
+    return HEX_DIGITS[c & ASCII_MASK] | (((ASCII_MASK - c) | c) >> (Integer.SIZE - 1));
+  }
+
+  /**
+   * Tells how far from a hyphen a character is, without branching.
+   *
+   * @param c the character (or the sign-extended ASCII byte) to check.
+   * @return zero if the character is a hyphen, a negative value otherwise.
+   */
+  private static int hyphen(final int c) {
+    return -(c ^ '-') | -(c >>> (Integer.SIZE - 1));
+  }
+
+  /**
+   * Decodes a quarter of a UUID in the canonical format, i.e. 8 of its 32 hexadecimal digits, from
+   * either a character sequence or an array of ASCII bytes. The first quarter also checks the
+   * hyphens, so the UUID is valid if and only if none of its quarters is negative. The range must
+   * have been checked by the caller.
+   *
+   * @param s the characters to parse, or null to parse the bytes.
+   * @param src the ASCII bytes to parse, if the characters are null.
+   * @param off the offset of the UUID.
+   * @param quarter the index of the quarter, from 0 (most significant) to 3.
+   * @return the 32 bits of the quarter, or -1 if it is not valid.
+   */
+  @SuppressWarnings("checkstyle:magicnumber")
+  private static long canonicalQuarter(
+      final CharSequence s, final byte[] src, final int off, final int quarter) {
+    int invalid = 0;
+    if (quarter == 0) {
+      for (final int hyphen : CANONICAL_HYPHENS) {
+        final int index = off + hyphen;
+        invalid |= hyphen(s != null ? s.charAt(index) : src[index]);
+      }
+    }
+    long bits = 0;
+    for (int i = quarter * 8; i < (quarter + 1) * 8; i++) {
+      final int index = off + CANONICAL_DIGITS[i];
+      final int digit = hexDigit(s != null ? s.charAt(index) : src[index]);
+      invalid |= digit;
+      bits = (bits << 4) | digit;
+    }
+    return invalid < 0 ? -1 : bits;
+  }
+
+  /**
+   * Parses a UUID in the 36-character canonical format (as produced by {@link UUID#toString()})
+   * straight out of a larger character sequence, starting at the given offset. Upper and lower case
+   * digits are accepted. The only memory allocated by this method is the resulting UUID.
+   *
+   * <p>The decoder is table-driven and only has one validation branch for the whole UUID, taken
+   * after all the characters have been decoded.
+   *
+   * @since 2.1.0
+   * @param s the characters to parse.
+   * @param off the offset of the UUID in the character sequence.
+   * @return the resulting UUID.
+   * @throws IllegalArgumentException if the characters are not a valid canonical UUID.
+   * @throws IndexOutOfBoundsException if the sequence has less than 36 characters available from
+   *     the given offset.
+   */
+  public static UUID parseCanonical(final CharSequence s, final int off)
+      throws IllegalArgumentException, IndexOutOfBoundsException {
+    if (s == null) {
+      return null;
+    }
+    checkRange(s.length(), off, CANONICAL_LENGTH);
+    final long q0 = canonicalQuarter(s, null, off, 0);
+    final long q1 = canonicalQuarter(s, null, off, 1);
+    final long q2 = canonicalQuarter(s, null, off, 2);
+    final long q3 = canonicalQuarter(s, null, off, 3);
+    final long msb = q0 << Integer.SIZE | q1;
+    final long lsb = q2 << Integer.SIZE | q3;
+    if ((q0 | q1 | q2 | q3) < 0) {
+      throw new IllegalArgumentException(
+          "Invalid canonical UUID: " + s.subSequence(off, off + CANONICAL_LENGTH));
+    }
+    return new UUID(msb, lsb);
+  }
+
+  /**
+   * Parses a UUID in the 36-character canonical format (as produced by {@link UUID#toString()})
+   * straight out of an array of ASCII bytes (e.g. raw network input), starting at the given offset.
+   * Upper and lower case digits are accepted. The only memory allocated by this method is the
+   * resulting UUID.
+   *
+   * @since 2.1.0
+   * @param src the ASCII bytes to parse.
+   * @param off the offset of the UUID in the array.
+   * @return the resulting UUID.
+   * @throws IllegalArgumentException if the bytes are not a valid canonical UUID.
+   * @throws ArrayIndexOutOfBoundsException if the array has less than 36 elements available from
+   *     the given offset.
+   */
+  public static UUID parseCanonical(final byte[] src, final int off)
+      throws IllegalArgumentException, ArrayIndexOutOfBoundsException {
+    if (src == null) {
+      return null;
+    }
+    checkRange(src.length, off, CANONICAL_LENGTH);
+    final long q0 = canonicalQuarter(null, src, off, 0);
+    final long q1 = canonicalQuarter(null, src, off, 1);
+    final long q2 = canonicalQuarter(null, src, off, 2);
+    final long q3 = canonicalQuarter(null, src, off, 3);
+    final long msb = q0 << Integer.SIZE | q1;
+    final long lsb = q2 << Integer.SIZE | q3;
+    if ((q0 | q1 | q2 | q3) < 0) {
+      throw new IllegalArgumentException("Invalid canonical UUID at offset " + off);
+    }
+    return new UUID(msb, lsb);
+  }
+
+  /**
+   * Parses a UUID in the 36-character canonical format like {@link #parseCanonical(CharSequence,
+   * int)} but reports malformed input with a return code instead of an exception and writes the
+   * result as {@value #MAX_LONGS} longs (most significant bits first) into the provided array. This
+   * method does not allocate any memory.
+   *
+   * @since 2.1.0
+   * @param s the characters to parse.
+   * @param off the offset of the UUID in the character sequence.
+   * @param dst the destination array.
+   * @param dstOff the offset in the destination array.
+   * @return true if a valid UUID was parsed, false if the input is malformed or too short (in which
+   *     case the destination array is left untouched).
+   * @throws ArrayIndexOutOfBoundsException if the destination array does not have {@value
+   *     #MAX_LONGS} elements available from the given offset.
+   */
+  public static boolean tryParseCanonical(
+      final CharSequence s, final int off, final long[] dst, final int dstOff)
+      throws ArrayIndexOutOfBoundsException {
+    checkRange(dst.length, dstOff, MAX_LONGS);
+    if (s == null || off < 0 || off > s.length() - CANONICAL_LENGTH) {
+      return false;
+    }
+    final long q0 = canonicalQuarter(s, null, off, 0);
+    final long q1 = canonicalQuarter(s, null, off, 1);
+    final long q2 = canonicalQuarter(s, null, off, 2);
+    final long q3 = canonicalQuarter(s, null, off, 3);
+    final long msb = q0 << Integer.SIZE | q1;
+    final long lsb = q2 << Integer.SIZE | q3;
+    if ((q0 | q1 | q2 | q3) < 0) {
+      return false;
+    }
+    dst[dstOff] = msb;
+    dst[dstOff + 1] = lsb;
+    return true;
+  }
+
+  /**
+   * Parses a UUID in the 36-character canonical format like {@link #parseCanonical(byte[], int)}
+   * but reports malformed input with a return code instead of an exception and writes the result
+   * as {@value #MAX_LONGS} longs (most significant bits first) into the provided array. This method
+   * does not allocate any memory.
+   *
+   * @since 2.1.0
+   * @param src the ASCII bytes to parse.
+   * @param off the offset of the UUID in the source array.
+   * @param dst the destination array.
+   * @param dstOff the offset in the destination array.
+   * @return true if a valid UUID was parsed, false if the input is malformed or too short (in which
+   *     case the destination array is left untouched).
+   * @throws ArrayIndexOutOfBoundsException if the destination array does not have {@value
+   *     #MAX_LONGS} elements available from the given offset.
+   */
+  public static boolean tryParseCanonical(
+      final byte[] src, final int off, final long[] dst, final int dstOff)
+      throws ArrayIndexOutOfBoundsException {
+    checkRange(dst.length, dstOff, MAX_LONGS);
+    if (src == null || off < 0 || off > src.length - CANONICAL_LENGTH) {
+      return false;
+    }
+    final long q0 = canonicalQuarter(null, src, off, 0);
+    final long q1 = canonicalQuarter(null, src, off, 1);
+    final long q2 = canonicalQuarter(null, src, off, 2);
+    final long q3 = canonicalQuarter(null, src, off, 3);
+    final long msb = q0 << Integer.SIZE | q1;
+    final long lsb = q2 << Integer.SIZE | q3;
+    if ((q0 | q1 | q2 | q3) < 0) {
+      return false;
+    }
+    dst[dstOff] = msb;
+    dst[dstOff + 1] = lsb;
+    return true;
   }
 }
@@ -0,0 +1,470 @@
+/*
+ * Copyright 2016-present Thomas Leplus
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.leplus.ristretto.util;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * This enum provides text encodings for UUIDs. Unlike {@link
+ * org.leplus.ristretto.util.UUIDConvertor#toString(java.util.UUID)}, all the formats only use
+ * printable ASCII characters so the resulting text can safely be used in logs, URLs, JSON, etc.
+ *
+ * <p>The encoders use lookup tables and a fixed layout per format. They can write directly into a
+ * {@code char[]}, a {@code byte[]} (as ASCII) or a {@link java.lang.StringBuilder} without creating
+ * any intermediate object. The decoders are strict: the input must have exactly {@link #length()}
+ * characters from the format's alphabet, otherwise an {@link java.lang.IllegalArgumentException}
+ * is thrown. No regular expression is involved.
+ *
+ * @author Thomas Leplus
+ * @since 2.1.0
+ */
+public enum UUIDFormat {
+
+  /**
+   * The 36-character canonical format used by {@link java.util.UUID#toString()}, e.g. {@code
+   * 123e4567-e89b-12d3-a456-426614174000}. Parsing accepts both lower and upper case digits.
+   */
+  CANONICAL("0123456789abcdef", 4, 0, true, true, ""),
+
+  /**
+   * The 32-character hexadecimal format, i.e. the canonical format without the hyphens. Parsing
+   * accepts both lower and upper case digits.
+   */
+  HEX("0123456789abcdef", 4, 0, false, true, ""),
+
+  /**
+   * The 22-character unpadded Base64URL format (RFC 4648 section 5) of the {@value
+   * org.leplus.ristretto.util.UUIDConvertor#UUID_BYTES} bytes of the UUID. Parsing rejects
+   * encodings where the unused trailing bits are not zero.
+   */
+  BASE64_URL(
+      "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_", 6, 0, false, false, ""),
+
+  /**
+   * The 26-character Crockford Base32 format of the UUID seen as an unsigned 128-bit number (the
+   * same layout as ULIDs). The encoding preserves the unsigned order of UUIDs. Parsing is case
+   * insensitive and accepts the Crockford aliases ({@code I} and {@code L} for {@code 1}, {@code O}
+   * for {@code 0}) but rejects values that do not fit in 128 bits.
+   */
+  BASE32_CROCKFORD("0123456789ABCDEFGHJKMNPQRSTVWXYZ", 5, 2, false, true, "I1L1O0");
+
+  /** Number of bits in a UUID. */
+  private static final int UUID_BITS = Long.SIZE * 2;
+
+  /** The hyphen used as separator by the canonical format. */
+  private static final char HYPHEN = '-';
+
+  /** Number of hyphens in the canonical format. */
+  private static final int HYPHEN_COUNT = 4;
+
+  /** Size of the decoding tables (only ASCII characters can be decoded). */
+  private static final int ASCII = 128;
+
+  /** The alphabet, indexed by digit value. */
+  private final char[] alphabet;
+
+  /** The decoding table, indexed by ASCII character. Invalid characters are mapped to -1. */
+  private final byte[] table;
+
+  /** The number of bits encoded by each digit. */
+  private final int bitsPerDigit;
+
+  /** The number of zero bits virtually added in front of the UUID to fill the first digit. */
+  private final int leadingBits;
+
+  /** The number of zero bits virtually added after the UUID to fill the last digit. */
+  private final int trailingBits;
+
+  /** The number of digits. */
+  private final int digits;
+
+  /** The total number of characters, including separators. */
+  private final int length;
+
+  /** Whether this format uses the canonical hyphens. */
+  private final boolean hyphens;
+
+  /**
+   * Constructor.
+   *
+   * @param alphabet the alphabet, indexed by digit value.
+   * @param bitsPerDigit the number of bits encoded by each digit.
+   * @param leadingBits the number of zero bits to pad in front of the UUID.
+   * @param hyphens whether this format uses the canonical hyphens.
+   * @param caseInsensitive whether decoding ignores the case of letters.
+   * @param aliases pairs of characters, the first of each pair being decoded like the second.
+   */
+  UUIDFormat(
+      final String alphabet,
+      final int bitsPerDigit,
+      final int leadingBits,
+      final boolean hyphens,
+      final boolean caseInsensitive,
+      final String aliases) {
+    this.alphabet = alphabet.toCharArray();
+    this.bitsPerDigit = bitsPerDigit;
+    this.leadingBits = leadingBits;
+    this.digits = (UUID_BITS + leadingBits + bitsPerDigit - 1) / bitsPerDigit;
+    this.trailingBits = digits * bitsPerDigit - UUID_BITS - leadingBits;
+    this.hyphens = hyphens;
+    this.length = hyphens ? digits + HYPHEN_COUNT : digits;
+    this.table = new byte[ASCII];
+    Arrays.fill(table, (byte) -1);
+    for (int i = 0; i < this.alphabet.length; i++) {
+      table[this.alphabet[i]] = (byte) i;
+    }
+    for (int i = 0; i < aliases.length(); i += 2) {
+      table[aliases.charAt(i)] = table[aliases.charAt(i + 1)];
+    }
+    if (caseInsensitive) {
+      for (char c = 'a'; c <= 'z'; c++) {
+        final char upper = Character.toUpperCase(c);
+        final byte value = table[c] >= 0 ? table[c] : table[upper];
+        table[c] = value;
+        table[upper] = value;
+      }
+    }
+  }
+
+  /**
+   * Returns the number of characters of a UUID encoded in this format.
+   *
+   * @return the length of an encoded UUID.
+   */
+  public int length() {
+    return length;
+  }
+
+  /**
+   * Writes a character of an encoded UUID to the destination which is not null.
+   *
+   * @param chars the destination array of chars, or null.
+   * @param bytes the destination array of ASCII bytes, or null.
+   * @param builder the destination builder, already long enough, if both arrays are null.
+   * @param pos the position of the character in the destination.
+   * @param c the character.
+   */
+  private static void put(
+      final char[] chars,
+      final byte[] bytes,
+      final StringBuilder builder,
+      final int pos,
+      final char c) {
+    if (chars != null) {
+      chars[pos] = c;
+    } else if (bytes != null) {
+      bytes[pos] = (byte) c;
+    } else {
+      builder.setCharAt(pos, c);
+    }
+  }
+
+  /**
+   * Writes the digits of a run of bits of a UUID, most significant first.
+   *
+   * @param bits the most or least significant bits of the UUID.
+   * @param shift the shift that brings the first digit to the bottom.
+   * @param count the number of digits to write.
+   * @param chars the destination array of chars, or null.
+   * @param bytes the destination array of ASCII bytes, or null.
+   * @param builder the destination builder, already long enough, if both arrays are null.
+   * @param pos the position of the first digit in the destination.
+   */
+  private void digits(
+      final long bits,
+      final int shift,
+      final int count,
+      final char[] chars,
+      final byte[] bytes,
+      final StringBuilder builder,
+      final int pos) {
+    final int mask = (1 << bitsPerDigit) - 1;
+    for (int i = 0; i < count; i++) {
+      put(
+          chars,
+          bytes,
+          builder,
+          pos + i,
+          alphabet[(int) (bits >>> (shift - i * bitsPerDigit)) & mask]);
+    }
+  }
+
+  /**
+   * Encodes a UUID in this format into the destination which is not null. Each format has a fixed
+   * layout: the hexadecimal formats take one nibble per digit with the hyphens at fixed positions,
+   * Base64 and Base32 take fixed groups of bits from each half of the UUID, with a single digit
+   * straddling both halves.
+   *
+   * @param msb the most significant bits of the UUID.
+   * @param lsb the least significant bits of the UUID.
+   * @param chars the destination array of chars, or null.
+   * @param bytes the destination array of ASCII bytes, or null.
+   * @param builder the destination builder, already long enough, if both arrays are null.
+   * @param off the offset in the destination.
+   */
+  @SuppressWarnings("checkstyle:magicnumber")
+  private void encode(
+      final long msb,
+      final long lsb,
+      final char[] chars,
+      final byte[] bytes,
+      final StringBuilder builder,
+      final int off) {
+    switch (this) {
+      case CANONICAL:
+        digits(msb, 60, 8, chars, bytes, builder, off);
+        put(chars, bytes, builder, off + 8, HYPHEN);
+        digits(msb, 28, 4, chars, bytes, builder, off + 9);
+        put(chars, bytes, builder, off + 13, HYPHEN);
+        digits(msb, 12, 4, chars, bytes, builder, off + 14);
+        put(chars, bytes, builder, off + 18, HYPHEN);
+        digits(lsb, 60, 4, chars, bytes, builder, off + 19);
+        put(chars, bytes, builder, off + 23, HYPHEN);
+        digits(lsb, 44, 12, chars, bytes, builder, off + 24);
+        break;
+      case HEX:
+        digits(msb, 60, 16, chars, bytes, builder, off);
+        digits(lsb, 60, 16, chars, bytes, builder, off + 16);
+        break;
+      case BASE64_URL:
+        digits(msb, 58, 10, chars, bytes, builder, off);
+        put(chars, bytes, builder, off + 10, alphabet[(int) (msb << 2 | lsb >>> 62) & 0x3f]);
+        digits(lsb, 56, 10, chars, bytes, builder, off + 11);
+        put(chars, bytes, builder, off + 21, alphabet[(int) (lsb << 4) & 0x3f]);
+        break;
+      default:
+        put(chars, bytes, builder, off, alphabet[(int) (msb >>> 61)]);
+        digits(msb, 56, 12, chars, bytes, builder, off + 1);
+        put(chars, bytes, builder, off + 13, alphabet[(int) (msb << 4 | lsb >>> 60) & 0x1f]);
+        digits(lsb, 55, 12, chars, bytes, builder, off + 14);
+        break;
+    }
+  }
+
+  /**
+   * Encodes a UUID in this format.
+   *
+   * @param uuid the UUID to encode.
+   * @return the resulting String.
+   */
+  public String format(final UUID uuid) {
+    final char[] chars = new char[length];
+    encode(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits(), chars, null, null, 0);
+    return String.valueOf(chars);
+  }
+
+  /**
+   * Encodes a UUID in this format into the provided array, starting at the given offset. This
+   * method does not allocate any memory.
+   *
+   * @param uuid the UUID to encode.
+   * @param dst the destination array.
+   * @param off the offset in the destination array.
+   * @throws ArrayIndexOutOfBoundsException if the destination array does not have {@link
+   *     #length()} elements available from the given offset.
+   */
+  public void format(final UUID uuid, final char[] dst, final int off)
+      throws ArrayIndexOutOfBoundsException {
+    checkRange(dst.length, off);
+    encode(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits(), dst, null, null, off);
+  }
+
+  /**
+   * Encodes a UUID in this format into the provided array as ASCII bytes, starting at the given
+   * offset. This method does not allocate any memory.
+   *
+   * @param uuid the UUID to encode.
+   * @param dst the destination array.
+   * @param off the offset in the destination array.
+   * @throws ArrayIndexOutOfBoundsException if the destination array does not have {@link
+   *     #length()} elements available from the given offset.
+   */
+  public void format(final UUID uuid, final byte[] dst, final int off)
+      throws ArrayIndexOutOfBoundsException {
+    checkRange(dst.length, off);
+    encode(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits(), null, dst, null, off);
+  }
+
+  /**
+   * Appends a UUID encoded in this format to the provided builder. The builder is grown by {@link
+   * #length()} characters which are then filled in place, so this method does not allocate any
+   * memory besides what the builder may need to grow.
+   *
+   * @param uuid the UUID to encode.
+   * @param builder the builder to append to.
+   * @return the builder.
+   */
+  public StringBuilder format(final UUID uuid, final StringBuilder builder) {
+    final int start = builder.length();
+    builder.setLength(start + length);
+    encode(
+        uuid.getMostSignificantBits(), uuid.getLeastSignificantBits(), null, null, builder, start);
+    return builder;
+  }
+
+  /**
+   * Decodes a UUID encoded in this format.
+   *
+   * @param s the encoded UUID.
+   * @return the resulting UUID.
+   * @throws IllegalArgumentException if the input is not a valid UUID in this format.
+   */
+  public UUID parse(final CharSequence s) throws IllegalArgumentException {
+    if (s == null) {
+      return null;
+    }
+    if (s.length() != length) {
+      throw invalid(s);
+    }
+    return parse(s, 0);
+  }
+
+  /**
+   * Decodes a UUID encoded in this format from {@link #length()} characters of the provided
+   * sequence, starting at the given offset. The only memory allocated by this method is the
+   * resulting UUID.
+   *
+   * @param s the characters to decode.
+   * @param off the offset in the character sequence.
+   * @return the resulting UUID.
+   * @throws IllegalArgumentException if the characters are not a valid UUID in this format.
+   * @throws IndexOutOfBoundsException if the sequence does not have {@link #length()} characters
+   *     available from the given offset.
+   */
+  public UUID parse(final CharSequence s, final int off)
+      throws IllegalArgumentException, IndexOutOfBoundsException {
+    if (this == CANONICAL) {
+      return UUIDConvertor.parseCanonical(s, off);
+    }
+    checkRange(s.length(), off);
+    final UUID uuid = decode(s, null, off);
+    if (uuid == null) {
+      throw invalid(s.subSequence(off, off + length));
+    }
+    return uuid;
+  }
+
+  /**
+   * Decodes a UUID encoded in this format from {@link #length()} ASCII bytes of the provided array,
+   * starting at the given offset. The only memory allocated by this method is the resulting UUID.
+   *
+   * @param src the bytes to decode.
+   * @param off the offset in the array.
+   * @return the resulting UUID.
+   * @throws IllegalArgumentException if the bytes are not a valid UUID in this format.
+   * @throws ArrayIndexOutOfBoundsException if the array does not have {@link #length()} elements
+   *     available from the given offset.
+   */
+  public UUID parse(final byte[] src, final int off)
+      throws IllegalArgumentException, ArrayIndexOutOfBoundsException {
+    if (src == null) {
+      return null;
+    }
+    if (this == CANONICAL) {
+      return UUIDConvertor.parseCanonical(src, off);
+    }
+    checkRange(src.length, off);
+    final UUID uuid = decode(null, src, off);
+    if (uuid == null) {
+      throw new IllegalArgumentException("Invalid " + this + " UUID at offset " + off);
+    }
+    return uuid;
+  }
+
+  /**
+   * Returns the value of the digit at the given index of either a character sequence or an array of
+   * ASCII bytes.
+   *
+   * @param s the characters to decode, or null to decode the bytes.
+   * @param src the bytes to decode, if the characters are null.
+   * @param index the index of the digit.
+   * @return the value of the digit, or -1 if the character is not in the alphabet.
+   */
+  @SuppressWarnings("checkstyle:magicnumber")
+  private int value(final CharSequence s, final byte[] src, final int index) {
+    final int c = s != null ? s.charAt(index) : src[index] & 0xff;
+    return c < ASCII ? table[c] : -1;
+  }
+
+  /**
+   * Decodes the {@link #length()} digits of either a character sequence or an array of ASCII bytes,
+   * starting at the given offset. The range must have been checked by the caller.
+   *
+   * @param s the characters to decode, or null to decode the bytes.
+   * @param src the bytes to decode, if the characters are null.
+   * @param off the offset of the first digit.
+   * @return the resulting UUID, or null if the digits are not a valid UUID in this format.
+   */
+  private UUID decode(final CharSequence s, final byte[] src, final int off) {
+    final int mask = (1 << bitsPerDigit) - 1;
+    final int end = off + length - 1;
+    long hi = 0;
+    long lo = 0;
+    int invalid = 0;
+    for (int i = off; i < end; i++) {
+      final int v = value(s, src, i);
+      invalid |= v;
+      hi = (hi << bitsPerDigit) | (lo >>> (Long.SIZE - bitsPerDigit));
+      lo = (lo << bitsPerDigit) | (v & mask);
+    }
+    // The trailing padding bits of the last digit are not part of the UUID.
+    final int last = value(s, src, end);
+    final int width = bitsPerDigit - trailingBits;
+    hi = (hi << width) | (lo >>> (Long.SIZE - width));
+    lo = (lo << width) | ((last & mask) >>> trailingBits);
+    if ((invalid | last) < 0 || !isCanonical(value(s, src, off), last)) {
+      return null;
+    }
+    return new UUID(hi, lo);
+  }
+
+  /**
+   * Checks that the first and last digits do not carry bits outside of the 128 bits of a UUID.
+   *
+   * @param first the value of the first digit.
+   * @param last the value of the last digit.
+   * @return true if the padding bits are all zeros.
+   */
+  private boolean isCanonical(final int first, final int last) {
+    return (first >>> (bitsPerDigit - leadingBits)) == 0 && (last & ((1 << trailingBits) - 1)) == 0;
+  }
+
+  /**
+   * Checks that a sub-range is large enough to hold a UUID in this format.
+   *
+   * @param available the length of the array or sequence.
+   * @param off the offset of the sub-range.
+   * @throws ArrayIndexOutOfBoundsException if the sub-range is out of bounds.
+   */
+  private void checkRange(final int available, final int off)
+      throws ArrayIndexOutOfBoundsException {
+    if (off < 0 || off > available - length) {
+      throw new ArrayIndexOutOfBoundsException(off);
+    }
+  }
+
+  /**
+   * Creates the exception thrown for invalid input.
+   *
+   * @param s the invalid input.
+   * @return the exception.
+   */
+  private IllegalArgumentException invalid(final CharSequence s) {
+    return new IllegalArgumentException("Invalid " + this + " UUID: " + s);
+  }
+}
@@ -0,0 +1,244 @@
+/*
+ * Copyright 2016-present Thomas Leplus
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.leplus.ristretto.util;
+
+import java.io.Serializable;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.UUID;
+
+/**
+ * This {@link java.util.Set} of UUIDs stores its elements directly as pairs of longs in an
+ * open-addressing hash table with linear probing, instead of allocating a node and a {@link
+ * java.util.UUID} per element like {@link java.util.HashSet}. The primitive methods such as {@link
+ * #add(long, long)} and {@link #contains(long, long)} never allocate.
+ *
+ * <p>By default the UUIDs are mixed before being hashed so that UUIDs sharing most of their bits
+ * (e.g. time-based UUIDs) are well spread. If the UUIDs are known to be uniformly distributed, like
+ * random UUIDs or the name-based UUIDs of {@link org.leplus.ristretto.util.ReproducibleUUIDs}, this
+ * step can be skipped by creating the set with {@link #UUIDHashSet(int, boolean)}.
+ *
+ * <p>This set does not accept null elements and its iterators are not fail-fast. Instances of this
+ * class are not thread-safe.
+ *
+ * @author Thomas Leplus
+ * @since 2.1.0
+ */
+public class UUIDHashSet extends AbstractSet<UUID> implements Cloneable, Serializable {
+
+  /** Serial version UID. */
+  private static final long serialVersionUID = 5530187622734412066L;
+
+  /** The underlying hash table. */
+  private UUIDHashTable table;
+
+  /** Creates an empty set with a default expected size. */
+  public UUIDHashSet() {
+    this(UUIDHashTable.DEFAULT_EXPECTED_SIZE);
+  }
+
+  /**
+   * Creates an empty set which can hold the given number of UUIDs without growing.
+   *
+   * @param expectedSize the expected number of UUIDs.
+   * @throws IllegalArgumentException if the expected size is negative.
+   */
+  public UUIDHashSet(final int expectedSize) {
+    this(expectedSize, false);
+  }
+
+  /**
+   * Creates an empty set which can hold the given number of UUIDs without growing.
+   *
+   * @param expectedSize the expected number of UUIDs.
+   * @param uniform true if the UUIDs are known to be uniformly distributed (e.g. random or
+   *     name-based UUIDs) and do not need to be mixed before being hashed.
+   * @throws IllegalArgumentException if the expected size is negative.
+   */
+  public UUIDHashSet(final int expectedSize, final boolean uniform) {
+    super();
+    table = new UUIDHashTable(expectedSize, uniform, false);
+  }
+
+  /**
+   * Creates a set containing the UUIDs of the given collection.
+   *
+   * @param c the collection.
+   * @throws NullPointerException if the collection contains null.
+   */
+  public UUIDHashSet(final Collection<? extends UUID> c) {
+    this(c.size());
+    addAll(c);
+  }
+
+  /**
+   * Adds a UUID to the set.
+   *
+   * @param msb the most significant bits of the UUID.
+   * @param lsb the least significant bits of the UUID.
+   * @return true if the set did not already contain the UUID.
+   */
+  public boolean add(final long msb, final long lsb) {
+    final int slot = table.indexOf(msb, lsb);
+    if (slot >= 0) {
+      return false;
+    }
+    table.insert(slot, msb, lsb, 0);
+    return true;
+  }
+
+  /**
+   * @see java.util.AbstractCollection#add(java.lang.Object)
+   */
+  @Override
+  public boolean add(final UUID e) {
+    return add(e.getMostSignificantBits(), e.getLeastSignificantBits());
+  }
+
+  /**
+   * Tells whether the set contains a UUID.
+   *
+   * @param msb the most significant bits of the UUID.
+   * @param lsb the least significant bits of the UUID.
+   * @return true if the set contains the UUID.
+   */
+  public boolean contains(final long msb, final long lsb) {
+    return table.indexOf(msb, lsb) >= 0;
+  }
+
+  /**
+   * @see java.util.AbstractCollection#contains(java.lang.Object)
+   */
+  @Override
+  public boolean contains(final Object o) {
+    if (!(o instanceof UUID)) {
+      return false;
+    }
+    final UUID uuid = (UUID) o;
+    return contains(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+  }
+
+  /**
+   * Removes a UUID from the set.
+   *
+   * @param msb the most significant bits of the UUID.
+   * @param lsb the least significant bits of the UUID.
+   * @return true if the set contained the UUID.
+   */
+  public boolean remove(final long msb, final long lsb) {
+    final int slot = table.indexOf(msb, lsb);
+    if (slot < 0) {
+      return false;
+    }
+    table.removeAt(slot);
+    return true;
+  }
+
+  /**
+   * @see java.util.AbstractCollection#remove(java.lang.Object)
+   */
+  @Override
+  public boolean remove(final Object o) {
+    if (!(o instanceof UUID)) {
+      return false;
+    }
+    final UUID uuid = (UUID) o;
+    return remove(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+  }
+
+  /**
+   * @see java.util.AbstractCollection#size()
+   */
+  @Override
+  public int size() {
+    return table.size();
+  }
+
+  /**
+   * @see java.util.AbstractCollection#clear()
+   */
+  @Override
+  public void clear() {
+    table.clear();
+  }
+
+  /**
+   * @see java.util.AbstractCollection#iterator()
+   */
+  @Override
+  public Iterator<UUID> iterator() {
+    final UUIDHashTable.Cursor cursor = table.new Cursor();
+    return new Iterator<>() {
+
+      /**
+       * @see java.util.Iterator#hasNext()
+       */
+      @Override
+      public boolean hasNext() {
+        return cursor.hasNext();
+      }
+
+      /**
+       * @see java.util.Iterator#next()
+       */
+      @Override
+      public UUID next() {
+        final int slot = cursor.next();
+        return new UUID(table.msb(slot), table.lsb(slot));
+      }
+
+      /**
+       * @see java.util.Iterator#remove()
+       */
+      @Override
+      public void remove() {
+        cursor.remove();
+      }
+    };
+  }
+
+  /**
+   * @see java.util.AbstractSet#hashCode()
+   */
+  @Override
+  @SuppressWarnings("checkstyle:magicnumber")
+  public int hashCode() {
+    int hashCode = 0;
+    final UUIDHashTable.Cursor cursor = table.new Cursor();
+    while (cursor.hasNext()) {
+      final int slot = cursor.next();
+      final long hilo = table.msb(slot) ^ table.lsb(slot);
+      hashCode += (int) (hilo >> 32) ^ (int) hilo;
+    }
+    return hashCode;
+  }
+
+  /**
+   * @see java.lang.Object#clone()
+   */
+  @Override
+  public UUIDHashSet clone() {
+    try {
+      final UUIDHashSet clone = (UUIDHashSet) super.clone();
+      clone.table = table.clone();
+      return clone;
+    } catch (final CloneNotSupportedException e) {
+      throw new InternalError(e);
+    }
+  }
+}
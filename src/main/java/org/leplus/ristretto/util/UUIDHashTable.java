@@ -0,0 +1,438 @@
+/*
+ * Copyright 2016-present Thomas Leplus
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.leplus.ristretto.util;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Open-addressing hash table of UUIDs (with optional long values) backing {@link
+ * org.leplus.ristretto.util.UUIDHashSet} and {@link org.leplus.ristretto.util.UUIDToLongHashMap}.
+ * The keys are stored as pairs of longs in a single array and collisions are resolved by linear
+ * probing. Removals shift the following entries back instead of leaving tombstones. The nil UUID
+ * (all zeros) marks empty slots so it is stored separately, in a virtual slot at index {@link
+ * #capacity()}.
+ *
+ * @author Thomas Leplus
+ * @since 2.1.0
+ */
+final class UUIDHashTable implements Cloneable, Serializable {
+
+  /** Default expected number of entries. */
+  static final int DEFAULT_EXPECTED_SIZE = 16;
+
+  /** Serial version UID. */
+  private static final long serialVersionUID = -3108402962458651021L;
+
+  /** Minimum number of slots. */
+  private static final int MIN_CAPACITY = 4;
+
+  /** Maximum number of slots. */
+  private static final int MAX_CAPACITY = 1 << 29;
+
+  /** Multiplier mixing the most significant bits into the least significant bits. */
+  private static final long GOLDEN_RATIO = 0x9e3779b97f4a7c15L;
+
+  /** Number of longs per key. */
+  private static final int STRIDE = UUIDConvertor.MAX_LONGS;
+
+  /** Whether the keys are known to be uniformly distributed and need no mixing. */
+  private final boolean uniform;
+
+  /** Whether the table stores a value for each key. */
+  private final boolean withValues;
+
+  /** The keys, most significant bits followed by least significant bits. */
+  private long[] keys;
+
+  /** The values, or null if the table does not store values. */
+  private long[] values;
+
+  /** The number of slots minus one. */
+  private int mask;
+
+  /** The maximum number of entries before the table grows. */
+  private int maxFill;
+
+  /** The number of entries, including the nil UUID if present. */
+  private int size;
+
+  /** Whether the table contains the nil UUID. */
+  private boolean hasZero;
+
+  /** The value of the nil UUID. */
+  private long zeroValue;
+
+  /**
+   * Constructor.
+   *
+   * @param expectedSize the expected number of entries.
+   * @param uniform whether the keys are known to be uniformly distributed.
+   * @param withValues whether the table stores a value for each key.
+   * @throws IllegalArgumentException if the expected size is negative.
+   */
+  UUIDHashTable(final int expectedSize, final boolean uniform, final boolean withValues) {
+    super();
+    if (expectedSize < 0) {
+      throw new IllegalArgumentException("Negative expected size: " + expectedSize);
+    }
+    this.uniform = uniform;
+    this.withValues = withValues;
+    allocate(capacityFor(expectedSize));
+  }
+
+  /**
+   * Computes the number of slots needed for a number of entries.
+   *
+   * @param expectedSize the expected number of entries.
+   * @return a power of two.
+   */
+  private static int capacityFor(final int expectedSize) {
+    final long needed = expectedSize + (long) expectedSize / 3 + 1;
+    if (needed > MAX_CAPACITY) {
+      throw new OutOfMemoryError("Required capacity too large: " + expectedSize);
+    }
+    return Math.max(MIN_CAPACITY, Integer.highestOneBit((int) needed - 1) << 1);
+  }
+
+  /**
+   * Allocates empty arrays.
+   *
+   * @param capacity the number of slots, a power of two.
+   */
+  private void allocate(final int capacity) {
+    keys = new long[capacity * STRIDE];
+    values = withValues ? new long[capacity] : null;
+    mask = capacity - 1;
+    maxFill = capacity - (capacity >>> 2);
+  }
+
+  /**
+   * Returns the number of slots, which is also the index of the virtual slot of the nil UUID.
+   *
+   * @return the number of slots.
+   */
+  int capacity() {
+    return mask + 1;
+  }
+
+  /**
+   * Returns the number of entries.
+   *
+   * @return the number of entries.
+   */
+  int size() {
+    return size;
+  }
+
+  /**
+   * Computes the home slot of a key.
+   *
+   * @param msb the most significant bits of the key.
+   * @param lsb the least significant bits of the key.
+   * @return the home slot.
+   */
+  @SuppressWarnings("checkstyle:magicnumber")
+  private int hash(final long msb, final long lsb) {
+    long h;
+    if (uniform) {
+      h = msb ^ lsb;
+    } else {
+      // MurmurHash3 finalizer.
+      h = msb * GOLDEN_RATIO ^ lsb;
+      h = (h ^ (h >>> 33)) * 0xff51afd7ed558ccdL;
+      h = (h ^ (h >>> 33)) * 0xc4ceb9fe1a85ec53L;
+    }
+    return (int) (h ^ (h >>> 32)) & mask;
+  }
+
+  /**
+   * Looks up a key.
+   *
+   * @param msb the most significant bits of the key.
+   * @param lsb the least significant bits of the key.
+   * @return the slot of the key if present, otherwise (-(insertion slot) - 1).
+   */
+  int indexOf(final long msb, final long lsb) {
+    if ((msb | lsb) == 0) {
+      return hasZero ? capacity() : -capacity() - 1;
+    }
+    int pos = hash(msb, lsb);
+    while (true) {
+      final long m = keys[pos * STRIDE];
+      final long l = keys[pos * STRIDE + 1];
+      if (m == msb && l == lsb) {
+        return pos;
+      }
+      if ((m | l) == 0) {
+        return -pos - 1;
+      }
+      pos = (pos + 1) & mask;
+    }
+  }
+
+  /**
+   * Returns the most significant bits of the key in a slot.
+   *
+   * @param slot the slot.
+   * @return the most significant bits.
+   */
+  long msb(final int slot) {
+    return slot == capacity() ? 0 : keys[slot * STRIDE];
+  }
+
+  /**
+   * Returns the least significant bits of the key in a slot.
+   *
+   * @param slot the slot.
+   * @return the least significant bits.
+   */
+  long lsb(final int slot) {
+    return slot == capacity() ? 0 : keys[slot * STRIDE + 1];
+  }
+
+  /**
+   * Returns the value in a slot.
+   *
+   * @param slot the slot.
+   * @return the value.
+   */
+  long value(final int slot) {
+    return slot == capacity() ? zeroValue : values[slot];
+  }
+
+  /**
+   * Replaces the value in a slot.
+   *
+   * @param slot the slot.
+   * @param value the new value.
+   */
+  void setValue(final int slot, final long value) {
+    if (slot == capacity()) {
+      zeroValue = value;
+    } else {
+      values[slot] = value;
+    }
+  }
+
+  /**
+   * Inserts a new entry, growing the table if needed.
+   *
+   * @param insertion the (-(insertion slot) - 1) returned by {@link #indexOf(long, long)}.
+   * @param msb the most significant bits of the key.
+   * @param lsb the least significant bits of the key.
+   * @param value the value, ignored if the table does not store values.
+   */
+  void insert(final int insertion, final long msb, final long lsb, final long value) {
+    final int slot = -insertion - 1;
+    if (slot == capacity()) {
+      hasZero = true;
+      zeroValue = value;
+    } else {
+      keys[slot * STRIDE] = msb;
+      keys[slot * STRIDE + 1] = lsb;
+      if (withValues) {
+        values[slot] = value;
+      }
+    }
+    if (++size > maxFill) {
+      rehash();
+    }
+  }
+
+  /**
+   * Removes the entry in a slot.
+   *
+   * @param slot the slot.
+   */
+  void removeAt(final int slot) {
+    if (slot == capacity()) {
+      hasZero = false;
+    } else {
+      shift(slot, null);
+    }
+    size--;
+  }
+
+  /** Removes all the entries. */
+  void clear() {
+    Arrays.fill(keys, 0);
+    hasZero = false;
+    size = 0;
+  }
+
+  /**
+   * Fills the hole left by a removed entry by moving back the following entries of its cluster
+   * which are not in their home slot.
+   *
+   * @param hole the slot of the removed entry.
+   * @param cursor the cursor which removed the entry, or null.
+   */
+  private void shift(final int hole, final Cursor cursor) {
+    int last = hole;
+    int pos = hole;
+    while (true) {
+      pos = (pos + 1) & mask;
+      final long m = keys[pos * STRIDE];
+      final long l = keys[pos * STRIDE + 1];
+      if ((m | l) == 0) {
+        keys[last * STRIDE] = 0;
+        keys[last * STRIDE + 1] = 0;
+        return;
+      }
+      final int home = hash(m, l);
+      if (last <= pos ? last >= home || home > pos : last >= home && home > pos) {
+        if (cursor != null && pos < last) {
+          // The entry wraps around the end of the table behind the cursor.
+          cursor.wrapped.add(m, l);
+        }
+        keys[last * STRIDE] = m;
+        keys[last * STRIDE + 1] = l;
+        if (withValues) {
+          values[last] = values[pos];
+        }
+        last = pos;
+      }
+    }
+  }
+
+  /** Doubles the number of slots and reinserts all the entries. */
+  private void rehash() {
+    final long[] oldKeys = keys;
+    final long[] oldValues = values;
+    allocate(capacity() * 2);
+    for (int i = 0; i < oldKeys.length; i += STRIDE) {
+      final long m = oldKeys[i];
+      final long l = oldKeys[i + 1];
+      if ((m | l) != 0) {
+        int pos = hash(m, l);
+        while ((keys[pos * STRIDE] | keys[pos * STRIDE + 1]) != 0) {
+          pos = (pos + 1) & mask;
+        }
+        keys[pos * STRIDE] = m;
+        keys[pos * STRIDE + 1] = l;
+        if (withValues) {
+          values[pos] = oldValues[i / STRIDE];
+        }
+      }
+    }
+  }
+
+  /**
+   * @see java.lang.Object#clone()
+   */
+  @Override
+  public UUIDHashTable clone() {
+    try {
+      final UUIDHashTable clone = (UUIDHashTable) super.clone();
+      clone.keys = keys.clone();
+      clone.values = withValues ? values.clone() : null;
+      return clone;
+    } catch (final CloneNotSupportedException e) {
+      throw new InternalError(e);
+    }
+  }
+
+  /**
+   * Iterates over the slots of the table, the nil UUID first then the others in reverse slot
+   * order, and supports removing entries while iterating. Entries which are moved back behind the
+   * cursor by a removal are remembered and returned at the end.
+   *
+   * @author Thomas Leplus
+   * @since 2.1.0
+   */
+  final class Cursor {
+
+    /** The current position, negative once the entries moved behind the cursor are returned. */
+    private int pos = capacity();
+
+    /** The last slot returned, or -1 if none or if it was removed. */
+    private int last = -1;
+
+    /** The number of entries not returned yet. */
+    private int remaining = size;
+
+    /** Whether the nil UUID has yet to be returned. */
+    private boolean mustReturnZero = hasZero;
+
+    /** The entries moved behind the cursor. */
+    private final UUIDArrayList wrapped = new UUIDArrayList(0);
+
+    /** Constructor. */
+    Cursor() {
+      super();
+    }
+
+    /**
+     * Tells whether there are more entries.
+     *
+     * @return true if there are more entries.
+     */
+    boolean hasNext() {
+      return remaining > 0;
+    }
+
+    /**
+     * Returns the slot of the next entry.
+     *
+     * @return the slot.
+     * @throws NoSuchElementException if there are no more entries.
+     */
+    int next() throws NoSuchElementException {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      remaining--;
+      if (mustReturnZero) {
+        mustReturnZero = false;
+        last = capacity();
+        return last;
+      }
+      while (true) {
+        if (--pos < 0) {
+          final int i = -pos - 1;
+          last = indexOf(wrapped.getMsb(i), wrapped.getLsb(i));
+          return last;
+        }
+        if ((keys[pos * STRIDE] | keys[pos * STRIDE + 1]) != 0) {
+          last = pos;
+          return last;
+        }
+      }
+    }
+
+    /**
+     * Removes the entry last returned by {@link #next()}.
+     *
+     * @throws IllegalStateException if there is no such entry.
+     */
+    void remove() throws IllegalStateException {
+      if (last == -1) {
+        throw new IllegalStateException();
+      }
+      if (last == capacity() || pos < 0) {
+        // The nil UUID or an entry which can no longer move behind the cursor.
+        removeAt(last);
+      } else {
+        shift(last, this);
+        size--;
+      }
+      last = -1;
+    }
+  }
+}
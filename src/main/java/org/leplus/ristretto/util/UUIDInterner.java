@@ -0,0 +1,196 @@
+/*
+ * Copyright 2016-present Thomas Leplus
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.leplus.ristretto.util;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class deduplicates equal UUID instances, like {@link java.lang.String#intern()} does for
+ * strings, so that UUIDs which are decoded over and over again (e.g. tenant or entity IDs) share a
+ * single canonical instance instead of filling the heap with copies. It can be passed to the {@link
+ * org.leplus.ristretto.util.UUIDConvertor} methods which accept one.
+ *
+ * <p>The cache is bounded: it is a lock-free table of a fixed number of slots, split into small
+ * buckets. When the bucket of a new UUID is full, a random entry of that bucket is evicted. An
+ * evicted UUID, or two threads racing to intern the same UUID, can therefore lead to distinct but
+ * equal instances being returned, so callers must still compare UUIDs with {@link
+ * java.util.UUID#equals(Object)}.
+ *
+ * <p>The number of lookups which returned a cached instance (hits) and of those which did not
+ * (misses) are counted to help size the cache. Each hit saves a {@link java.util.UUID} object
+ * (32 bytes on most JVMs).
+ *
+ * <p>Instances of this class are thread-safe.
+ *
+ * @author Thomas Leplus
+ * @since 2.1.0
+ */
+public final class UUIDInterner {
+
+  /** Default number of slots. */
+  public static final int DEFAULT_CAPACITY = 1 << 16;
+
+  /** Maximum number of slots. */
+  private static final int MAX_CAPACITY = 1 << 30;
+
+  /** Number of slots in a bucket. */
+  private static final int BUCKET_SIZE = 4;
+
+  /** Multiplier used to hash the UUIDs. */
+  private static final long GOLDEN_RATIO = 0x9e3779b97f4a7c15L;
+
+  /** The slots. */
+  private final AtomicReferenceArray<UUID> table;
+
+  /** The number of slots minus one. */
+  private final int mask;
+
+  /** The number of hits. */
+  private final LongAdder hits = new LongAdder();
+
+  /** The number of misses. */
+  private final LongAdder misses = new LongAdder();
+
+  /** Creates an interner with a default capacity. */
+  public UUIDInterner() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  /**
+   * Creates an interner.
+   *
+   * @param capacity the maximum number of cached UUIDs, rounded up to a power of two.
+   * @throws IllegalArgumentException if the capacity is not positive or too large.
+   */
+  public UUIDInterner(final int capacity) {
+    super();
+    if (capacity <= 0 || capacity > MAX_CAPACITY) {
+      throw new IllegalArgumentException("Illegal capacity: " + capacity);
+    }
+    final int slots = Math.max(BUCKET_SIZE, Integer.highestOneBit(capacity - 1) << 1);
+    table = new AtomicReferenceArray<>(slots);
+    mask = slots - 1;
+  }
+
+  /**
+   * Returns the number of slots of the cache.
+   *
+   * @return the maximum number of cached UUIDs.
+   */
+  public int capacity() {
+    return mask + 1;
+  }
+
+  /**
+   * Computes the first slot of the bucket of a UUID.
+   *
+   * @param msb the most significant bits of the UUID.
+   * @param lsb the least significant bits of the UUID.
+   * @return the first slot of the bucket.
+   */
+  @SuppressWarnings("checkstyle:magicnumber")
+  private int bucket(final long msb, final long lsb) {
+    final long h = (msb * GOLDEN_RATIO ^ lsb) * GOLDEN_RATIO;
+    return (int) (h >>> 32) & mask & -BUCKET_SIZE;
+  }
+
+  /**
+   * Returns the canonical instance of a UUID.
+   *
+   * @param msb the most significant bits of the UUID.
+   * @param lsb the least significant bits of the UUID.
+   * @return a UUID equal to {@code new UUID(msb, lsb)}, the cached instance if any.
+   */
+  public UUID intern(final long msb, final long lsb) {
+    return intern(msb, lsb, null);
+  }
+
+  /**
+   * Returns the canonical instance of a UUID. If the UUID is not cached yet, the given instance
+   * becomes the canonical one.
+   *
+   * @param uuid the UUID.
+   * @return a UUID equal to the given one, the cached instance if any.
+   */
+  public UUID intern(final UUID uuid) {
+    if (uuid == null) {
+      return null;
+    }
+    return intern(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits(), uuid);
+  }
+
+  /**
+   * Returns the canonical instance of a UUID.
+   *
+   * @param msb the most significant bits of the UUID.
+   * @param lsb the least significant bits of the UUID.
+   * @param instance the instance to cache if the UUID is not cached yet, or null to create one.
+   * @return a UUID equal to {@code new UUID(msb, lsb)}, the cached instance if any.
+   */
+  private UUID intern(final long msb, final long lsb, final UUID instance) {
+    final int bucket = bucket(msb, lsb);
+    int free = -1;
+    for (int i = bucket; i < bucket + BUCKET_SIZE; i++) {
+      final UUID cached = table.getAcquire(i);
+      if (cached == null) {
+        free = i;
+        break;
+      }
+      if (cached.getLeastSignificantBits() == lsb && cached.getMostSignificantBits() == msb) {
+        hits.increment();
+        return cached;
+      }
+    }
+    misses.increment();
+    final UUID uuid = instance != null ? instance : new UUID(msb, lsb);
+    if (free < 0) {
+      free = bucket + ThreadLocalRandom.current().nextInt(BUCKET_SIZE);
+    }
+    table.setRelease(free, uuid);
+    return uuid;
+  }
+
+  /**
+   * Returns the number of lookups which returned a cached instance.
+   *
+   * @return the number of hits.
+   */
+  public long hitCount() {
+    return hits.sum();
+  }
+
+  /**
+   * Returns the number of lookups which did not return a cached instance.
+   *
+   * @return the number of misses.
+   */
+  public long missCount() {
+    return misses.sum();
+  }
+
+  /** Removes all the cached UUIDs and resets the counters. */
+  public void clear() {
+    for (int i = 0; i < table.length(); i++) {
+      table.setRelease(i, null);
+    }
+    hits.reset();
+    misses.reset();
+  }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2016-present Thomas Leplus
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.leplus.ristretto.util;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+
+/**
+ * This enum lists the binary layouts that {@link org.leplus.ristretto.util.UUIDConvertor} can use
+ * to convert UUIDs from/to {@value org.leplus.ristretto.util.UUIDConvertor#UUID_BYTES} bytes. Each
+ * layout is implemented directly with single loads and stores so converting from/to a layout other
+ * than {@link #BIG_ENDIAN} requires no extra byte swapping pass and no temporary array.
+ *
+ * @author Thomas Leplus
+ * @since 2.1.0
+ */
+public enum UUIDLayout {
+
+  /**
+   * The RFC 9562 network byte order, also used by {@link
+   * org.leplus.ristretto.util.UUIDConvertor#toBytes(java.util.UUID)}: the most significant bits
+   * followed by the least significant bits, both in big-endian order.
+   */
+  BIG_ENDIAN,
+
+  /**
+   * The most significant bits followed by the least significant bits, both in little-endian order.
+   * This is how a {@code long[] {msb, lsb}} pair is laid out in memory on little-endian hardware.
+   */
+  LITTLE_ENDIAN,
+
+  /**
+   * The Microsoft GUID mixed-endian layout: the first three fields (time_low, time_mid and
+   * time_hi_and_version) in little-endian order, followed by the last eight bytes in big-endian
+   * order.
+   */
+  GUID,
+
+  /**
+   * The RFC 9562 byte order but with the time_low and time_hi_and_version fields swapped, like
+   * MySQL's {@code UUID_TO_BIN(uuid, 1)}: time_hi_and_version, time_mid, time_low, then the last
+   * eight bytes. For version 1 UUIDs this puts the most significant bits of the timestamp first, so
+   * that the bytes sort in time order and inserts into a B-tree index on a {@code binary(16)} key
+   * are mostly appends. Version 6 and 7 UUIDs are already time-ordered in {@link #BIG_ENDIAN} and
+   * should be stored in that layout instead.
+   */
+  TIME_SWAPPED;
+
+  /** View of a byte array as big-endian longs. */
+  private static final VarHandle BIG_ENDIAN_LONGS =
+      MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+
+  /** View of a byte array as little-endian longs. */
+  private static final VarHandle LITTLE_ENDIAN_LONGS =
+      MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+  /** View of a byte array as little-endian integers. */
+  private static final VarHandle LITTLE_ENDIAN_INTS =
+      MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+
+  /** View of a byte array as little-endian shorts. */
+  private static final VarHandle LITTLE_ENDIAN_SHORTS =
+      MethodHandles.byteArrayViewVarHandle(short[].class, ByteOrder.LITTLE_ENDIAN);
+
+  /**
+   * Writes a UUID in this layout. The caller is responsible for the bounds check.
+   *
+   * @param msb the most significant bits of the UUID.
+   * @param lsb the least significant bits of the UUID.
+   * @param dst the destination array.
+   * @param off the offset in the destination array.
+   */
+  @SuppressWarnings("checkstyle:magicnumber")
+  void write(final long msb, final long lsb, final byte[] dst, final int off) {
+    switch (this) {
+      case LITTLE_ENDIAN:
+        LITTLE_ENDIAN_LONGS.set(dst, off, msb);
+        LITTLE_ENDIAN_LONGS.set(dst, off + Long.BYTES, lsb);
+        break;
+      case GUID:
+        LITTLE_ENDIAN_INTS.set(dst, off, (int) (msb >>> 32));
+        LITTLE_ENDIAN_SHORTS.set(dst, off + 4, (short) (msb >>> 16));
+        LITTLE_ENDIAN_SHORTS.set(dst, off + 6, (short) msb);
+        BIG_ENDIAN_LONGS.set(dst, off + Long.BYTES, lsb);
+        break;
+      case TIME_SWAPPED:
+        BIG_ENDIAN_LONGS.set(dst, off, swapTime(msb));
+        BIG_ENDIAN_LONGS.set(dst, off + Long.BYTES, lsb);
+        break;
+      default:
+        BIG_ENDIAN_LONGS.set(dst, off, msb);
+        BIG_ENDIAN_LONGS.set(dst, off + Long.BYTES, lsb);
+        break;
+    }
+  }
+
+  /**
+   * Reads the most significant bits of a UUID in this layout. The caller is responsible for the
+   * bounds check.
+   *
+   * @param src the source array.
+   * @param off the offset in the source array.
+   * @return the most significant bits.
+   */
+  @SuppressWarnings("checkstyle:magicnumber")
+  long readMsb(final byte[] src, final int off) {
+    switch (this) {
+      case LITTLE_ENDIAN:
+        return (long) LITTLE_ENDIAN_LONGS.get(src, off);
+      case GUID:
+        return ((long) (int) LITTLE_ENDIAN_INTS.get(src, off) << 32)
+            | (((short) LITTLE_ENDIAN_SHORTS.get(src, off + 4) & 0xffffL) << 16)
+            | ((short) LITTLE_ENDIAN_SHORTS.get(src, off + 6) & 0xffffL);
+      case TIME_SWAPPED:
+        return unswapTime((long) BIG_ENDIAN_LONGS.get(src, off));
+      default:
+        return (long) BIG_ENDIAN_LONGS.get(src, off);
+    }
+  }
+
+  /**
+   * Reads the least significant bits of a UUID in this layout. The caller is responsible for the
+   * bounds check.
+   *
+   * @param src the source array.
+   * @param off the offset in the source array.
+   * @return the least significant bits.
+   */
+  long readLsb(final byte[] src, final int off) {
+    if (this == LITTLE_ENDIAN) {
+      return (long) LITTLE_ENDIAN_LONGS.get(src, off + Long.BYTES);
+    }
+    return (long) BIG_ENDIAN_LONGS.get(src, off + Long.BYTES);
+  }
+
+  /**
+   * Moves the time_hi_and_version field of the most significant bits of a UUID in front of the
+   * time_mid and time_low fields.
+   *
+   * @param msb the most significant bits in RFC 9562 order.
+   * @return the most significant bits in time-swapped order.
+   */
+  @SuppressWarnings("checkstyle:magicnumber")
+  private static long swapTime(final long msb) {
+    return (msb << 48) | ((msb << 16) & 0xffff00000000L) | (msb >>> 32);
+  }
+
+  /**
+   * Reverts {@link #swapTime(long)}.
+   *
+   * @param swapped the most significant bits in time-swapped order.
+   * @return the most significant bits in RFC 9562 order.
+   */
+  @SuppressWarnings("checkstyle:magicnumber")
+  private static long unswapTime(final long swapped) {
+    return (swapped << 32) | ((swapped >>> 16) & 0xffff0000L) | (swapped >>> 48);
+  }
+}
@@ -0,0 +1,224 @@
+/*
+ * Copyright 2016-present Thomas Leplus
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.leplus.ristretto.util;
+
+import java.util.UUID;
+
+/**
+ * This class computes a reproducible UUID from a multiset of UUIDs, which does not depend on the
+ * order in which the UUIDs are added, unlike {@link ReproducibleUUIDs#fromUUIDs(UUID...)}. It can
+ * be used to fingerprint groups without sorting their members, incrementally since UUIDs can also
+ * be removed, and in parallel since digests of parts of a group can be combined.
+ *
+ * <p>Each UUID is scrambled by a bijective 128-bit mix and the results are summed modulo 2^128, so
+ * only the sum and the number of UUIDs are kept. The UUID of the multiset is generated from them,
+ * together with a format version, by the {@link ReproducibleUUIDBuilder} of the generator this
+ * digest was obtained from. The same UUID added twice counts twice. Like {@link
+ * ReproducibleUUIDs#murmur3(UUID)}, the mix is not cryptographic: collisions can be crafted by
+ * whoever chooses the UUIDs.
+ *
+ * <p>Instances of this class are not thread-safe.
+ *
+ * @author Thomas Leplus
+ * @since 2.1.0
+ */
+public final class UUIDMultisetDigest {
+
+  /** Magic number of the multiset digests ("RMS" followed by the format version 1). */
+  private static final int MAGIC = 0x524d5301;
+
+  /** Constant mixed into the most significant bits. */
+  private static final long SEED = 0x9e3779b97f4a7c15L;
+
+  /** The generator of the UUID of the multiset. */
+  private final ReproducibleUUIDGenerator generator;
+
+  /** The number of UUIDs. */
+  private long count;
+
+  /** The high 64 bits of the sum. */
+  private long high;
+
+  /** The low 64 bits of the sum. */
+  private long low;
+
+  /**
+   * Constructor.
+   *
+   * @param generator the generator of the UUID of the multiset.
+   */
+  UUIDMultisetDigest(final ReproducibleUUIDGenerator generator) {
+    super();
+    this.generator = generator;
+  }
+
+  /**
+   * Adds a 128-bit value to the sum.
+   *
+   * @param hi the high 64 bits of the value.
+   * @param lo the low 64 bits of the value.
+   */
+  private void sum(final long hi, final long lo) {
+    final long sum = low + lo;
+    high += hi + (Long.compareUnsigned(sum, lo) < 0 ? 1 : 0);
+    low = sum;
+  }
+
+  /**
+   * Adds or removes a UUID.
+   *
+   * @param msb the most significant bits of the UUID.
+   * @param lsb the least significant bits of the UUID.
+   * @param sign 1 to add the UUID, -1 to remove it.
+   */
+  private void update(final long msb, final long lsb, final int sign) {
+    // Each step is a bijection, so distinct UUIDs are mixed to distinct values.
+    long x = Murmur3Digest.fmix(msb ^ SEED);
+    final long y = Murmur3Digest.fmix(lsb ^ x);
+    x = Murmur3Digest.fmix(x ^ y);
+    if (sign > 0) {
+      sum(x, y);
+    } else {
+      // Two's complement negation of the 128-bit value.
+      sum(~x + (y == 0 ? 1 : 0), -y);
+    }
+    count += sign;
+  }
+
+  /**
+   * Adds a UUID.
+   *
+   * @param msb the most significant bits of the UUID.
+   * @param lsb the least significant bits of the UUID.
+   * @return this digest.
+   */
+  public UUIDMultisetDigest add(final long msb, final long lsb) {
+    update(msb, lsb, 1);
+    return this;
+  }
+
+  /**
+   * Adds a UUID.
+   *
+   * @param uuid the UUID.
+   * @return this digest.
+   */
+  public UUIDMultisetDigest add(final UUID uuid) {
+    return add(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+  }
+
+  /**
+   * Adds UUIDs.
+   *
+   * @param uuids the UUIDs.
+   * @return this digest.
+   */
+  public UUIDMultisetDigest addAll(final Iterable<? extends UUID> uuids) {
+    for (final UUID uuid : uuids) {
+      add(uuid);
+    }
+    return this;
+  }
+
+  /**
+   * Adds packed UUIDs.
+   *
+   * @param packed the UUIDs, packed as in {@link UUIDArrayList#UUIDArrayList(long[])}.
+   * @return this digest.
+   * @throws IllegalArgumentException if the length of the array is odd.
+   */
+  public UUIDMultisetDigest addAll(final long[] packed) {
+    if ((packed.length & 1) != 0) {
+      throw new IllegalArgumentException("Odd number of longs: " + packed.length);
+    }
+    for (int i = 0; i < packed.length; i += 2) {
+      add(packed[i], packed[i + 1]);
+    }
+    return this;
+  }
+
+  /**
+   * Removes a UUID which was previously added. Removing a UUID which was not added does not fail
+   * but leads to a UUID which does not correspond to any multiset.
+   *
+   * @param msb the most significant bits of the UUID.
+   * @param lsb the least significant bits of the UUID.
+   * @return this digest.
+   */
+  public UUIDMultisetDigest remove(final long msb, final long lsb) {
+    update(msb, lsb, -1);
+    return this;
+  }
+
+  /**
+   * Removes a UUID which was previously added. See {@link #remove(long, long)}.
+   *
+   * @param uuid the UUID.
+   * @return this digest.
+   */
+  public UUIDMultisetDigest remove(final UUID uuid) {
+    return remove(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+  }
+
+  /**
+   * Adds the UUIDs of another digest, e.g. one computed in parallel on another part of the
+   * multiset. The other digest is not modified.
+   *
+   * @param other the other digest.
+   * @return this digest.
+   */
+  public UUIDMultisetDigest combine(final UUIDMultisetDigest other) {
+    sum(other.high, other.low);
+    count += other.count;
+    return this;
+  }
+
+  /**
+   * Returns the number of UUIDs of the multiset.
+   *
+   * @return the number of UUIDs added minus the number of UUIDs removed.
+   */
+  public long size() {
+    return count;
+  }
+
+  /**
+   * Generates the UUID of the multiset. The digest is not modified, so more UUIDs can be added
+   * afterwards.
+   *
+   * @return the resulting UUID, or null if the multiset is empty.
+   */
+  public UUID toUUID() {
+    if (count == 0) {
+      return null;
+    }
+    return generator.builder().put(MAGIC).put(count).put(high).put(low).build();
+  }
+
+  /**
+   * Empties the multiset.
+   *
+   * @return this digest.
+   */
+  public UUIDMultisetDigest clear() {
+    count = 0;
+    high = 0;
+    low = 0;
+    return this;
+  }
+}
@@ -0,0 +1,269 @@
+/*
+ * Copyright 2016-present Thomas Leplus
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.leplus.ristretto.util;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * This class reads UUIDs stored as flat records of {@value
+ * org.leplus.ristretto.util.UUIDConvertor#UUID_BYTES} bytes (e.g. by {@link
+ * org.leplus.ristretto.util.UUIDWriter}) from an {@link java.io.InputStream} or a {@link
+ * java.nio.channels.ReadableByteChannel}.
+ *
+ * <p>The records are read into a large internal buffer and decoded from there. The bulk {@link
+ * #read(long[], int, int)} method does not allocate any memory.
+ *
+ * <p>Instances of this class are not thread-safe.
+ *
+ * @author Thomas Leplus
+ * @since 2.1.0
+ * @see org.leplus.ristretto.util.UUIDWriter
+ */
+public class UUIDReader implements Closeable {
+
+  /** The underlying stream, or null if reading from a channel. */
+  private final InputStream in;
+
+  /** The underlying channel, or null if reading from a stream. */
+  private final ReadableByteChannel channel;
+
+  /** The binary layout of the records. */
+  private final UUIDLayout layout;
+
+  /** The internal buffer. */
+  private final byte[] buffer;
+
+  /** The internal buffer wrapped for channel reads. */
+  private final ByteBuffer byteBuffer;
+
+  /** Position of the next byte to decode in the internal buffer. */
+  private int position;
+
+  /** Number of bytes available in the internal buffer. */
+  private int limit;
+
+  /** Whether the end of the underlying stream or channel has been reached. */
+  private boolean eof;
+
+  /**
+   * Creates a reader from the given stream with a default buffer size and the {@link
+   * org.leplus.ristretto.util.UUIDLayout#BIG_ENDIAN} layout.
+   *
+   * @param in the underlying stream.
+   */
+  public UUIDReader(final InputStream in) {
+    this(in, UUIDWriter.DEFAULT_BUFFER_SIZE, UUIDLayout.BIG_ENDIAN);
+  }
+
+  /**
+   * Creates a reader from the given stream.
+   *
+   * @param in the underlying stream.
+   * @param bufferSize the size of the internal buffer in bytes.
+   * @param layout the binary layout of the records.
+   * @throws IllegalArgumentException if the buffer size is less than {@value
+   *     org.leplus.ristretto.util.UUIDConvertor#UUID_BYTES}.
+   */
+  public UUIDReader(final InputStream in, final int bufferSize, final UUIDLayout layout) {
+    this(Objects.requireNonNull(in, "in"), null, bufferSize, layout);
+  }
+
+  /**
+   * Creates a reader from the given channel with a default buffer size and the {@link
+   * org.leplus.ristretto.util.UUIDLayout#BIG_ENDIAN} layout.
+   *
+   * @param channel the underlying channel.
+   */
+  public UUIDReader(final ReadableByteChannel channel) {
+    this(channel, UUIDWriter.DEFAULT_BUFFER_SIZE, UUIDLayout.BIG_ENDIAN);
+  }
+
+  /**
+   * Creates a reader from the given channel.
+   *
+   * @param channel the underlying channel.
+   * @param bufferSize the size of the internal buffer in bytes.
+   * @param layout the binary layout of the records.
+   * @throws IllegalArgumentException if the buffer size is less than {@value
+   *     org.leplus.ristretto.util.UUIDConvertor#UUID_BYTES}.
+   */
+  public UUIDReader(
+      final ReadableByteChannel channel, final int bufferSize, final UUIDLayout layout) {
+    this(null, Objects.requireNonNull(channel, "channel"), bufferSize, layout);
+  }
+
+  /**
+   * Common constructor.
+   *
+   * @param in the underlying stream or null.
+   * @param channel the underlying channel or null.
+   * @param bufferSize the size of the internal buffer in bytes.
+   * @param layout the binary layout of the records.
+   */
+  private UUIDReader(
+      final InputStream in,
+      final ReadableByteChannel channel,
+      final int bufferSize,
+      final UUIDLayout layout) {
+    super();
+    if (bufferSize < UUIDConvertor.UUID_BYTES) {
+      throw new IllegalArgumentException("Buffer size too small: " + bufferSize);
+    }
+    this.in = in;
+    this.channel = channel;
+    this.layout = Objects.requireNonNull(layout, "layout");
+    this.buffer = new byte[bufferSize];
+    this.byteBuffer = channel == null ? null : ByteBuffer.wrap(buffer);
+  }
+
+  /**
+   * Reads the next UUID.
+   *
+   * @return the UUID read, or null if the end of the stream or channel has been reached.
+   * @throws EOFException if the stream or channel ends in the middle of a record.
+   * @throws IOException if an I/O error occurs.
+   */
+  public UUID read() throws IOException {
+    if (!fill()) {
+      return null;
+    }
+    final UUID uuid = new UUID(layout.readMsb(buffer, position), layout.readLsb(buffer, position));
+    position += UUIDConvertor.UUID_BYTES;
+    return uuid;
+  }
+
+  /**
+   * Reads the next UUID into a mutable UUID, without creating a {@link java.util.UUID}.
+   *
+   * @param dst the mutable UUID to set.
+   * @return true if a UUID was read, false if the end of the stream or channel has been reached.
+   * @throws EOFException if the stream or channel ends in the middle of a record.
+   * @throws IOException if an I/O error occurs.
+   */
+  public boolean read(final MutableUUID dst) throws IOException {
+    if (!fill()) {
+      return false;
+    }
+    dst.set(layout.readMsb(buffer, position), layout.readLsb(buffer, position));
+    position += UUIDConvertor.UUID_BYTES;
+    return true;
+  }
+
+  /**
+   * Reads UUIDs into the provided array, packed like {@link
+   * org.leplus.ristretto.util.UUIDConvertor#toPackedLongs(UUID[])}.
+   *
+   * @param dst the destination array.
+   * @return the number of UUIDs read (at most {@code dst.length / 2}), or -1 if the end of the
+   *     stream or channel has been reached.
+   * @throws EOFException if the stream or channel ends in the middle of a record.
+   * @throws IOException if an I/O error occurs.
+   */
+  public int read(final long[] dst) throws IOException {
+    return read(dst, 0, dst.length / UUIDConvertor.MAX_LONGS);
+  }
+
+  /**
+   * Reads up to {@code count} UUIDs into the provided array, packed like {@link
+   * org.leplus.ristretto.util.UUIDConvertor#toPackedLongs(UUID[])}. This method blocks until at
+   * least one UUID is available but it only reads more from the underlying stream or channel if
+   * there are not enough UUIDs already buffered. This method does not allocate any memory.
+   *
+   * @param dst the destination array.
+   * @param off the offset in the destination array (in longs).
+   * @param count the maximum number of UUIDs to read.
+   * @return the number of UUIDs read, or -1 if the end of the stream or channel has been reached.
+   * @throws EOFException if the stream or channel ends in the middle of a record.
+   * @throws IOException if an I/O error occurs.
+   * @throws IndexOutOfBoundsException if the array cannot hold {@code count} UUIDs from the given
+   *     offset.
+   */
+  public int read(final long[] dst, final int off, final int count) throws IOException {
+    Objects.checkFromIndexSize(off, count * UUIDConvertor.MAX_LONGS, dst.length);
+    int read = 0;
+    while (read < count && (read == 0 || limit - position >= UUIDConvertor.UUID_BYTES)) {
+      if (!fill()) {
+        break;
+      }
+      final int i = off + read * UUIDConvertor.MAX_LONGS;
+      dst[i] = layout.readMsb(buffer, position);
+      dst[i + 1] = layout.readLsb(buffer, position);
+      position += UUIDConvertor.UUID_BYTES;
+      read++;
+    }
+    return read == 0 && count > 0 ? -1 : read;
+  }
+
+  /**
+   * Makes sure that at least one whole record is available in the internal buffer.
+   *
+   * @return true if a record is available, false if the end of the stream or channel has been
+   *     reached.
+   * @throws EOFException if the stream or channel ends in the middle of a record.
+   * @throws IOException if an I/O error occurs.
+   */
+  private boolean fill() throws IOException {
+    if (limit - position >= UUIDConvertor.UUID_BYTES) {
+      return true;
+    }
+    System.arraycopy(buffer, position, buffer, 0, limit - position);
+    limit -= position;
+    position = 0;
+    while (!eof && limit < UUIDConvertor.UUID_BYTES) {
+      final int n;
+      if (in != null) {
+        n = in.read(buffer, limit, buffer.length - limit);
+      } else {
+        byteBuffer.limit(buffer.length).position(limit);
+        n = channel.read(byteBuffer);
+      }
+      if (n < 0) {
+        eof = true;
+      } else {
+        limit += n;
+      }
+    }
+    if (limit >= UUIDConvertor.UUID_BYTES) {
+      return true;
+    }
+    if (limit > 0) {
+      throw new EOFException("Truncated UUID record: " + limit + " bytes");
+    }
+    return false;
+  }
+
+  /**
+   * Closes the underlying stream or channel.
+   *
+   * @throws IOException if an I/O error occurs.
+   */
+  @Override
+  public void close() throws IOException {
+    if (in != null) {
+      in.close();
+    } else {
+      channel.close();
+    }
+  }
+}
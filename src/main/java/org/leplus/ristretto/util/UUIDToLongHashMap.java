@@ -0,0 +1,410 @@
+/*
+ * Copyright 2016-present Thomas Leplus
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.leplus.ristretto.util;
+
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * This {@link java.util.Map} from UUIDs to longs stores its entries directly as primitives in an
+ * open-addressing hash table with linear probing, instead of allocating a node, a {@link
+ * java.util.UUID} and a {@link java.lang.Long} per entry like {@link java.util.HashMap}. The
+ * primitive methods such as {@link #put(long, long, long)} and {@link #getOrDefault(long, long,
+ * long)} never allocate.
+ *
+ * <p>By default the keys are mixed before being hashed so that UUIDs sharing most of their bits
+ * (e.g. time-based UUIDs) are well spread. If the keys are known to be uniformly distributed, like
+ * random UUIDs or the name-based UUIDs of {@link org.leplus.ristretto.util.ReproducibleUUIDs}, this
+ * step can be skipped by creating the map with {@link #UUIDToLongHashMap(int, boolean)}.
+ *
+ * <p>This map does not accept null keys or values and the iterators of its views are not
+ * fail-fast. Instances of this class are not thread-safe.
+ *
+ * @author Thomas Leplus
+ * @since 2.1.0
+ */
+public class UUIDToLongHashMap extends AbstractMap<UUID, Long> implements Cloneable, Serializable {
+
+  /** Serial version UID. */
+  private static final long serialVersionUID = -1406795727340412307L;
+
+  /** The underlying hash table. */
+  private UUIDHashTable table;
+
+  /** Creates an empty map with a default expected size. */
+  public UUIDToLongHashMap() {
+    this(UUIDHashTable.DEFAULT_EXPECTED_SIZE);
+  }
+
+  /**
+   * Creates an empty map which can hold the given number of entries without growing.
+   *
+   * @param expectedSize the expected number of entries.
+   * @throws IllegalArgumentException if the expected size is negative.
+   */
+  public UUIDToLongHashMap(final int expectedSize) {
+    this(expectedSize, false);
+  }
+
+  /**
+   * Creates an empty map which can hold the given number of entries without growing.
+   *
+   * @param expectedSize the expected number of entries.
+   * @param uniform true if the keys are known to be uniformly distributed (e.g. random or
+   *     name-based UUIDs) and do not need to be mixed before being hashed.
+   * @throws IllegalArgumentException if the expected size is negative.
+   */
+  public UUIDToLongHashMap(final int expectedSize, final boolean uniform) {
+    super();
+    table = new UUIDHashTable(expectedSize, uniform, true);
+  }
+
+  /**
+   * Creates a map containing the entries of the given map.
+   *
+   * @param m the map.
+   * @throws NullPointerException if the map contains null keys or values.
+   */
+  public UUIDToLongHashMap(final Map<? extends UUID, ? extends Long> m) {
+    this(m.size());
+    putAll(m);
+  }
+
+  /**
+   * Associates a value with a key.
+   *
+   * @param msb the most significant bits of the key.
+   * @param lsb the least significant bits of the key.
+   * @param value the value.
+   */
+  public void put(final long msb, final long lsb, final long value) {
+    final int slot = table.indexOf(msb, lsb);
+    if (slot >= 0) {
+      table.setValue(slot, value);
+    } else {
+      table.insert(slot, msb, lsb, value);
+    }
+  }
+
+  /**
+   * Adds an increment to the value associated with a key, or associates the increment with the
+   * key if it has no value yet.
+   *
+   * @param msb the most significant bits of the key.
+   * @param lsb the least significant bits of the key.
+   * @param increment the increment.
+   * @return the new value.
+   */
+  public long addTo(final long msb, final long lsb, final long increment) {
+    final int slot = table.indexOf(msb, lsb);
+    if (slot >= 0) {
+      final long value = table.value(slot) + increment;
+      table.setValue(slot, value);
+      return value;
+    }
+    table.insert(slot, msb, lsb, increment);
+    return increment;
+  }
+
+  /**
+   * Returns the value associated with a key.
+   *
+   * @param msb the most significant bits of the key.
+   * @param lsb the least significant bits of the key.
+   * @param defaultValue the value to return if the key has no value.
+   * @return the value, or the default value.
+   */
+  public long getOrDefault(final long msb, final long lsb, final long defaultValue) {
+    final int slot = table.indexOf(msb, lsb);
+    return slot >= 0 ? table.value(slot) : defaultValue;
+  }
+
+  /**
+   * Tells whether the map contains a key.
+   *
+   * @param msb the most significant bits of the key.
+   * @param lsb the least significant bits of the key.
+   * @return true if the map contains the key.
+   */
+  public boolean containsKey(final long msb, final long lsb) {
+    return table.indexOf(msb, lsb) >= 0;
+  }
+
+  /**
+   * Removes a key and its value.
+   *
+   * @param msb the most significant bits of the key.
+   * @param lsb the least significant bits of the key.
+   * @return true if the map contained the key.
+   */
+  public boolean remove(final long msb, final long lsb) {
+    final int slot = table.indexOf(msb, lsb);
+    if (slot < 0) {
+      return false;
+    }
+    table.removeAt(slot);
+    return true;
+  }
+
+  /**
+   * Looks up a key given as an object.
+   *
+   * @param key the key.
+   * @return the slot of the key, or a negative number if it is not in the map.
+   */
+  private int slotOf(final Object key) {
+    if (!(key instanceof UUID)) {
+      return -1;
+    }
+    final UUID uuid = (UUID) key;
+    return table.indexOf(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+  }
+
+  /**
+   * @see java.util.AbstractMap#get(java.lang.Object)
+   */
+  @Override
+  public Long get(final Object key) {
+    final int slot = slotOf(key);
+    return slot >= 0 ? table.value(slot) : null;
+  }
+
+  /**
+   * @see java.util.AbstractMap#containsKey(java.lang.Object)
+   */
+  @Override
+  public boolean containsKey(final Object key) {
+    return slotOf(key) >= 0;
+  }
+
+  /**
+   * Associates a value with a key, like {@link java.util.Map#put(Object, Object)}. Null values
+   * cannot be stored in this map.
+   *
+   * @param key the key.
+   * @param value the value.
+   * @return the previous value associated with the key, or null if there was none.
+   * @throws NullPointerException if the value is null.
+   */
+  @Override
+  public Long put(final UUID key, final Long value) {
+    final long v = Objects.requireNonNull(value, "value");
+    final long msb = key.getMostSignificantBits();
+    final long lsb = key.getLeastSignificantBits();
+    final int slot = table.indexOf(msb, lsb);
+    if (slot >= 0) {
+      final long previous = table.value(slot);
+      table.setValue(slot, v);
+      return previous;
+    }
+    table.insert(slot, msb, lsb, v);
+    return null;
+  }
+
+  /**
+   * @see java.util.AbstractMap#remove(java.lang.Object)
+   */
+  @Override
+  public Long remove(final Object key) {
+    final int slot = slotOf(key);
+    if (slot < 0) {
+      return null;
+    }
+    final long previous = table.value(slot);
+    table.removeAt(slot);
+    return previous;
+  }
+
+  /**
+   * @see java.util.AbstractMap#size()
+   */
+  @Override
+  public int size() {
+    return table.size();
+  }
+
+  /**
+   * @see java.util.AbstractMap#clear()
+   */
+  @Override
+  public void clear() {
+    table.clear();
+  }
+
+  /**
+   * @see java.util.AbstractMap#entrySet()
+   */
+  @Override
+  public Set<Map.Entry<UUID, Long>> entrySet() {
+    return new EntrySet();
+  }
+
+  /**
+   * @see java.lang.Object#clone()
+   */
+  @Override
+  public UUIDToLongHashMap clone() {
+    try {
+      final UUIDToLongHashMap clone = (UUIDToLongHashMap) super.clone();
+      clone.table = table.clone();
+      return clone;
+    } catch (final CloneNotSupportedException e) {
+      throw new InternalError(e);
+    }
+  }
+
+  /**
+   * An entry of the map. Setting its value writes through to the map.
+   *
+   * @author Thomas Leplus
+   * @since 2.1.0
+   */
+  private final class Entry extends AbstractMap.SimpleEntry<UUID, Long> {
+
+    /** Serial version UID. */
+    private static final long serialVersionUID = 4193208541626478313L;
+
+    /**
+     * Constructor.
+     *
+     * @param key the key.
+     * @param value the value.
+     */
+    Entry(final UUID key, final long value) {
+      super(key, value);
+    }
+
+    /**
+     * @see java.util.AbstractMap.SimpleEntry#setValue(java.lang.Object)
+     */
+    @Override
+    public Long setValue(final Long value) {
+      put(getKey(), value);
+      return super.setValue(value);
+    }
+  }
+
+  /**
+   * The view of the entries of the map.
+   *
+   * @author Thomas Leplus
+   * @since 2.1.0
+   */
+  private final class EntrySet extends AbstractSet<Map.Entry<UUID, Long>> {
+
+    /** Constructor. */
+    EntrySet() {
+      super();
+    }
+
+    /**
+     * @see java.util.AbstractCollection#iterator()
+     */
+    @Override
+    public Iterator<Map.Entry<UUID, Long>> iterator() {
+      final UUIDHashTable.Cursor cursor = table.new Cursor();
+      return new Iterator<>() {
+
+        /**
+         * @see java.util.Iterator#hasNext()
+         */
+        @Override
+        public boolean hasNext() {
+          return cursor.hasNext();
+        }
+
+        /**
+         * @see java.util.Iterator#next()
+         */
+        @Override
+        public Map.Entry<UUID, Long> next() {
+          final int slot = cursor.next();
+          return new Entry(new UUID(table.msb(slot), table.lsb(slot)), table.value(slot));
+        }
+
+        /**
+         * @see java.util.Iterator#remove()
+         */
+        @Override
+        public void remove() {
+          cursor.remove();
+        }
+      };
+    }
+
+    /**
+     * Looks up the slot of an entry.
+     *
+     * @param o the entry.
+     * @return the slot of the entry, or a negative number if it is not in the map.
+     */
+    private int slotOf(final Object o) {
+      if (!(o instanceof Map.Entry)) {
+        return -1;
+      }
+      final Map.Entry<?, ?> entry = (Map.Entry<?, ?>) o;
+      final int slot = UUIDToLongHashMap.this.slotOf(entry.getKey());
+      if (slot < 0 || !Objects.equals(table.value(slot), entry.getValue())) {
+        return -1;
+      }
+      return slot;
+    }
+
+    /**
+     * @see java.util.AbstractCollection#contains(java.lang.Object)
+     */
+    @Override
+    public boolean contains(final Object o) {
+      return slotOf(o) >= 0;
+    }
+
+    /**
+     * @see java.util.AbstractCollection#remove(java.lang.Object)
+     */
+    @Override
+    public boolean remove(final Object o) {
+      final int slot = slotOf(o);
+      if (slot < 0) {
+        return false;
+      }
+      table.removeAt(slot);
+      return true;
+    }
+
+    /**
+     * @see java.util.AbstractCollection#size()
+     */
+    @Override
+    public int size() {
+      return table.size();
+    }
+
+    /**
+     * @see java.util.AbstractCollection#clear()
+     */
+    @Override
+    public void clear() {
+      table.clear();
+    }
+  }
+}
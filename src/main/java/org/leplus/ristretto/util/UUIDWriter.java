@@ -0,0 +1,240 @@
+/*
+ * Copyright 2016-present Thomas Leplus
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.leplus.ristretto.util;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * This class writes UUIDs as flat records of {@value
+ * org.leplus.ristretto.util.UUIDConvertor#UUID_BYTES} bytes to an {@link java.io.OutputStream} or
+ * a {@link java.nio.channels.WritableByteChannel}. The records can be read back with {@link
+ * org.leplus.ristretto.util.UUIDReader}.
+ *
+ * <p>The UUIDs are encoded into a large internal buffer which is only written to the underlying
+ * stream or channel when it is full, flushed or closed. Writing a UUID does not allocate any
+ * memory.
+ *
+ * <p>Instances of this class are not thread-safe.
+ *
+ * @author Thomas Leplus
+ * @since 2.1.0
+ * @see org.leplus.ristretto.util.UUIDReader
+ */
+public class UUIDWriter implements Closeable, Flushable {
+
+  /** Default size of the internal buffer. */
+  static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+
+  /** The underlying stream, or null if writing to a channel. */
+  private final OutputStream out;
+
+  /** The underlying channel, or null if writing to a stream. */
+  private final WritableByteChannel channel;
+
+  /** The binary layout of the records. */
+  private final UUIDLayout layout;
+
+  /** The internal buffer. */
+  private final byte[] buffer;
+
+  /** The internal buffer wrapped for channel writes. */
+  private final ByteBuffer byteBuffer;
+
+  /** Number of bytes in the internal buffer. */
+  private int position;
+
+  /**
+   * Creates a writer to the given stream with a default buffer size and the {@link
+   * org.leplus.ristretto.util.UUIDLayout#BIG_ENDIAN} layout.
+   *
+   * @param out the underlying stream.
+   */
+  public UUIDWriter(final OutputStream out) {
+    this(out, DEFAULT_BUFFER_SIZE, UUIDLayout.BIG_ENDIAN);
+  }
+
+  /**
+   * Creates a writer to the given stream.
+   *
+   * @param out the underlying stream.
+   * @param bufferSize the size of the internal buffer in bytes.
+   * @param layout the binary layout of the records.
+   * @throws IllegalArgumentException if the buffer size is less than {@value
+   *     org.leplus.ristretto.util.UUIDConvertor#UUID_BYTES}.
+   */
+  public UUIDWriter(final OutputStream out, final int bufferSize, final UUIDLayout layout) {
+    this(Objects.requireNonNull(out, "out"), null, bufferSize, layout);
+  }
+
+  /**
+   * Creates a writer to the given channel with a default buffer size and the {@link
+   * org.leplus.ristretto.util.UUIDLayout#BIG_ENDIAN} layout.
+   *
+   * @param channel the underlying channel.
+   */
+  public UUIDWriter(final WritableByteChannel channel) {
+    this(channel, DEFAULT_BUFFER_SIZE, UUIDLayout.BIG_ENDIAN);
+  }
+
+  /**
+   * Creates a writer to the given channel.
+   *
+   * @param channel the underlying channel.
+   * @param bufferSize the size of the internal buffer in bytes.
+   * @param layout the binary layout of the records.
+   * @throws IllegalArgumentException if the buffer size is less than {@value
+   *     org.leplus.ristretto.util.UUIDConvertor#UUID_BYTES}.
+   */
+  public UUIDWriter(
+      final WritableByteChannel channel, final int bufferSize, final UUIDLayout layout) {
+    this(null, Objects.requireNonNull(channel, "channel"), bufferSize, layout);
+  }
+
+  /**
+   * Common constructor.
+   *
+   * @param out the underlying stream or null.
+   * @param channel the underlying channel or null.
+   * @param bufferSize the size of the internal buffer in bytes.
+   * @param layout the binary layout of the records.
+   */
+  private UUIDWriter(
+      final OutputStream out,
+      final WritableByteChannel channel,
+      final int bufferSize,
+      final UUIDLayout layout) {
+    super();
+    if (bufferSize < UUIDConvertor.UUID_BYTES) {
+      throw new IllegalArgumentException("Buffer size too small: " + bufferSize);
+    }
+    this.out = out;
+    this.channel = channel;
+    this.layout = Objects.requireNonNull(layout, "layout");
+    this.buffer = new byte[bufferSize];
+    this.byteBuffer = channel == null ? null : ByteBuffer.wrap(buffer);
+  }
+
+  /**
+   * Writes a UUID.
+   *
+   * @param uuid the UUID to write.
+   * @throws IOException if an I/O error occurs.
+   */
+  public void write(final UUID uuid) throws IOException {
+    write(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+  }
+
+  /**
+   * Writes a UUID given as its two halves.
+   *
+   * @param msb the most significant bits of the UUID.
+   * @param lsb the least significant bits of the UUID.
+   * @throws IOException if an I/O error occurs.
+   */
+  public void write(final long msb, final long lsb) throws IOException {
+    if (position > buffer.length - UUIDConvertor.UUID_BYTES) {
+      flushBuffer();
+    }
+    layout.write(msb, lsb, buffer, position);
+    position += UUIDConvertor.UUID_BYTES;
+  }
+
+  /**
+   * Writes UUIDs from an array.
+   *
+   * @param uuids the UUIDs to write.
+   * @throws IOException if an I/O error occurs.
+   */
+  public void write(final UUID... uuids) throws IOException {
+    for (final UUID uuid : uuids) {
+      write(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+    }
+  }
+
+  /**
+   * Writes UUIDs from a packed array of longs as produced by {@link
+   * org.leplus.ristretto.util.UUIDConvertor#toPackedLongs(UUID[])}.
+   *
+   * @param src the packed array.
+   * @param off the offset of the first UUID in the array (in longs).
+   * @param count the number of UUIDs to write.
+   * @throws IOException if an I/O error occurs.
+   * @throws IndexOutOfBoundsException if the array does not hold {@code count} UUIDs from the given
+   *     offset.
+   */
+  public void write(final long[] src, final int off, final int count) throws IOException {
+    Objects.checkFromIndexSize(off, count * UUIDConvertor.MAX_LONGS, src.length);
+    for (int i = off; i < off + count * UUIDConvertor.MAX_LONGS; i += UUIDConvertor.MAX_LONGS) {
+      write(src[i], src[i + 1]);
+    }
+  }
+
+  /**
+   * Writes the content of the internal buffer to the underlying stream or channel.
+   *
+   * @throws IOException if an I/O error occurs.
+   */
+  private void flushBuffer() throws IOException {
+    if (out != null) {
+      out.write(buffer, 0, position);
+    } else {
+      byteBuffer.clear().limit(position);
+      while (byteBuffer.hasRemaining()) {
+        channel.write(byteBuffer);
+      }
+    }
+    position = 0;
+  }
+
+  /**
+   * Writes any buffered UUIDs and flushes the underlying stream if any.
+   *
+   * @throws IOException if an I/O error occurs.
+   */
+  @Override
+  public void flush() throws IOException {
+    flushBuffer();
+    if (out != null) {
+      out.flush();
+    }
+  }
+
+  /**
+   * Writes any buffered UUIDs and closes the underlying stream or channel.
+   *
+   * @throws IOException if an I/O error occurs.
+   */
+  @Override
+  public void close() throws IOException {
+    try {
+      flushBuffer();
+    } finally {
+      if (out != null) {
+        out.close();
+      } else {
+        channel.close();
+      }
+    }
+  }
+}
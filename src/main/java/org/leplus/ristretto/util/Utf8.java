@@ -0,0 +1,220 @@
+/*
+ * Copyright 2016-present Thomas Leplus
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.leplus.ristretto.util;
+
+import java.nio.CharBuffer;
+import java.security.MessageDigest;
+
+/**
+ * Streaming UTF-8 encoder which feeds a {@link java.security.MessageDigest} in chunks through a
+ * caller-provided buffer, instead of allocating the whole encoded string. The chars are read in
+ * bulk into a char array, with {@code getChars} for Strings and string builders, or used straight
+ * from the backing array of a {@link java.nio.CharBuffer}, so that the encoding loop only works on
+ * arrays. The bytes are identical to those of {@link
+ * java.lang.String#getBytes(java.nio.charset.Charset)} with UTF-8, including the replacement of
+ * unpaired surrogates by {@code '?'}.
+ *
+ * @author Thomas Leplus
+ * @since 2.1.0
+ */
+final class Utf8 {
+
+  /** Maximum number of bytes of an encoded char or surrogate pair. */
+  static final int MAX_BYTES_PER_CODE_POINT = 4;
+
+  /** Size of the byte buffer of {@link Buffers}. */
+  static final int BUFFER_SIZE = 8192;
+
+  /** Number of chars read at once into the char buffer. */
+  static final int CHUNK_SIZE = 512;
+
+  /** Replacement of unpaired surrogates. */
+  private static final byte REPLACEMENT = '?';
+
+  /** Private constructor to prevent instantiation. */
+  private Utf8() {
+    super();
+  }
+
+  /**
+   * A byte buffer and a char buffer for the encoder, pooled by {@link DigestPool}.
+   *
+   * @author Thomas Leplus
+   * @since 2.1.0
+   */
+  static final class Buffers {
+
+    /** The buffer of encoded bytes. */
+    final byte[] bytes = new byte[BUFFER_SIZE];
+
+    /** The buffer of chars to encode. */
+    final char[] chars = new char[CHUNK_SIZE];
+
+    /** Constructor. */
+    Buffers() {
+      super();
+    }
+  }
+
+  /**
+   * Computes the number of bytes of the UTF-8 encoding of a string.
+   *
+   * @param s the string.
+   * @return the number of bytes.
+   */
+  @SuppressWarnings("checkstyle:magicnumber")
+  static long encodedLength(final CharSequence s) {
+    final int len = s.length();
+    long n = len;
+    for (int i = 0; i < len; i++) {
+      final char c = s.charAt(i);
+      if (c >= 0x80) {
+        if (c < 0x800) {
+          n++;
+        } else if (Character.isHighSurrogate(c)
+            && i + 1 < len
+            && Character.isLowSurrogate(s.charAt(i + 1))) {
+          // Four bytes for two chars.
+          n += 2;
+          i++;
+        } else if (!Character.isSurrogate(c)) {
+          n += 2;
+        }
+      }
+    }
+    return n;
+  }
+
+  /**
+   * Encodes a string to the buffer, flushing the buffer to the digest whenever it is full.
+   *
+   * @param s the string.
+   * @param chars the buffer into which the chars are read, of at least 2 chars.
+   * @param md the digest, which may be null if the encoded string is known to fit in the buffer.
+   * @param buffer the buffer, of at least {@link #MAX_BYTES_PER_CODE_POINT} bytes.
+   * @param position the number of bytes already in the buffer.
+   * @return the number of bytes left in the buffer, which the caller must eventually flush.
+   */
+  static int encode(
+      final CharSequence s,
+      final char[] chars,
+      final MessageDigest md,
+      final byte[] buffer,
+      final int position) {
+    if (s instanceof CharBuffer && ((CharBuffer) s).hasArray()) {
+      final CharBuffer cb = (CharBuffer) s;
+      final int from = cb.arrayOffset() + cb.position();
+      return encode(cb.array(), from, from + cb.remaining(), md, buffer, position);
+    }
+    final int len = s.length();
+    int pos = position;
+    int i = 0;
+    while (i < len) {
+      int end = Math.min(len, i + chars.length);
+      getChars(s, i, end, chars);
+      if (end < len && Character.isHighSurrogate(chars[end - i - 1])) {
+        // Left for the next chunk, with the low surrogate which may follow it.
+        end--;
+      }
+      pos = encode(chars, 0, end - i, md, buffer, pos);
+      i = end;
+    }
+    return pos;
+  }
+
+  /**
+   * Copies a range of chars of a string into an array, in bulk when the string supports it.
+   *
+   * @param s the string.
+   * @param from the index of the first char to copy (inclusive).
+   * @param to the index of the last char to copy (exclusive).
+   * @param dst the destination array.
+   */
+  private static void getChars(
+      final CharSequence s, final int from, final int to, final char[] dst) {
+    if (s instanceof String) {
+      ((String) s).getChars(from, to, dst, 0);
+    } else if (s instanceof StringBuilder) {
+      ((StringBuilder) s).getChars(from, to, dst, 0);
+    } else if (s instanceof StringBuffer) {
+      ((StringBuffer) s).getChars(from, to, dst, 0);
+    } else {
+      for (int i = from; i < to; i++) {
+        dst[i - from] = s.charAt(i);
+      }
+    }
+  }
+
+  /**
+   * Encodes a range of chars to the buffer, flushing the buffer to the digest whenever it is full.
+   * A high surrogate at the end of the range is encoded as an unpaired surrogate.
+   *
+   * @param chars the chars.
+   * @param from the index of the first char to encode (inclusive).
+   * @param to the index of the last char to encode (exclusive).
+   * @param md the digest, which may be null if the encoded chars are known to fit in the buffer.
+   * @param buffer the buffer, of at least {@link #MAX_BYTES_PER_CODE_POINT} bytes.
+   * @param position the number of bytes already in the buffer.
+   * @return the number of bytes left in the buffer.
+   */
+  @SuppressWarnings("checkstyle:magicnumber")
+  private static int encode(
+      final char[] chars,
+      final int from,
+      final int to,
+      final MessageDigest md,
+      final byte[] buffer,
+      final int position) {
+    final int limit = buffer.length - MAX_BYTES_PER_CODE_POINT;
+    int pos = position;
+    for (int i = from; i < to; i++) {
+      if (pos > limit) {
+        md.update(buffer, 0, pos);
+        pos = 0;
+      }
+      char c = chars[i];
+      if (c < 0x80) {
+        // Copy the run of ASCII chars which fits in the buffer.
+        final int end = Math.min(to, i + buffer.length - pos);
+        buffer[pos++] = (byte) c;
+        while (i + 1 < end && (c = chars[i + 1]) < 0x80) {
+          buffer[pos++] = (byte) c;
+          i++;
+        }
+      } else if (c < 0x800) {
+        buffer[pos++] = (byte) (0xc0 | c >> 6);
+        buffer[pos++] = (byte) (0x80 | c & 0x3f);
+      } else if (!Character.isSurrogate(c)) {
+        buffer[pos++] = (byte) (0xe0 | c >> 12);
+        buffer[pos++] = (byte) (0x80 | c >> 6 & 0x3f);
+        buffer[pos++] = (byte) (0x80 | c & 0x3f);
+      } else if (Character.isHighSurrogate(c)
+          && i + 1 < to
+          && Character.isLowSurrogate(chars[i + 1])) {
+        final int cp = Character.toCodePoint(c, chars[++i]);
+        buffer[pos++] = (byte) (0xf0 | cp >> 18);
+        buffer[pos++] = (byte) (0x80 | cp >> 12 & 0x3f);
+        buffer[pos++] = (byte) (0x80 | cp >> 6 & 0x3f);
+        buffer[pos++] = (byte) (0x80 | cp & 0x3f);
+      } else {
+        buffer[pos++] = REPLACEMENT;
+      }
+    }
+    return pos;
+  }
+}
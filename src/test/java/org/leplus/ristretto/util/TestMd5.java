@@ -0,0 +1,98 @@
+/*
+ * Copyright 2016-present Thomas Leplus
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.leplus.ristretto.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.UUID;
+import org.junit.Test;
+
+/**
+ * Tests for the {@link org.leplus.ristretto.util.Md5} class.
+ *
+ * @author Thomas Leplus
+ * @since 2.1.0
+ */
+@SuppressWarnings({"checkstyle:magicnumber"})
+public final class TestMd5 {
+
+  /** Random number generator. */
+  private static final Random PRNG = new Random();
+
+  /** Default constructor. */
+  public TestMd5() {
+    super();
+  }
+
+  /** Test. */
+  @Test
+  public void testBytes() {
+    for (int len = 0; len <= Md5.MAX_SINGLE_BLOCK; len++) {
+      for (int n = 0; n < 20; n++) {
+        final byte[] bytes = new byte[len + 10];
+        PRNG.nextBytes(bytes);
+        final byte[] name = new byte[len];
+        System.arraycopy(bytes, 5, name, 0, len);
+        assertEquals(UUID.nameUUIDFromBytes(name), Md5.nameUUIDFromBytes(bytes, 5, len));
+      }
+    }
+  }
+
+  /** Test. */
+  @Test
+  public void testAscii() {
+    final StringBuilder sb = new StringBuilder();
+    for (int len = 0; len <= Md5.MAX_SINGLE_BLOCK; len++) {
+      assertTrue(Md5.isShortAscii(sb));
+      final String s = sb.toString();
+      assertEquals(
+          UUID.nameUUIDFromBytes(s.getBytes(StandardCharsets.UTF_8)), Md5.nameUUIDFromAscii(s));
+      sb.append((char) PRNG.nextInt(0x80));
+    }
+    assertFalse(Md5.isShortAscii(sb));
+    assertFalse(Md5.isShortAscii("café"));
+  }
+
+  /** Tests the fast paths of the reproducible UUIDs around the block size. */
+  @Test
+  public void testReproducibleUUIDs() {
+    for (int len = 0; len <= 2 * Md5.MAX_SINGLE_BLOCK; len++) {
+      final byte[] bytes = new byte[len];
+      PRNG.nextBytes(bytes);
+      final UUID expected = UUID.nameUUIDFromBytes(bytes);
+      assertEquals(expected, ReproducibleUUIDs.fromBytes(bytes));
+      final ByteBuffer buffer = ByteBuffer.allocate(len + 3);
+      buffer.position(3);
+      buffer.slice().put(bytes);
+      assertEquals(expected, ReproducibleUUIDs.fromByteBuffer(buffer));
+      assertEquals(buffer.limit(), buffer.position());
+      final String s = "é" + "x".repeat(len);
+      assertEquals(
+          UUID.nameUUIDFromBytes(s.getBytes(StandardCharsets.UTF_8)),
+          ReproducibleUUIDs.fromString(s));
+      assertEquals(
+          UUID.nameUUIDFromBytes(s.substring(1).getBytes(StandardCharsets.UTF_8)),
+          ReproducibleUUIDs.fromString(s.substring(1)));
+    }
+  }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2016-present Thomas Leplus
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.leplus.ristretto.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import com.google.common.hash.Hashing;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Random;
+import java.util.UUID;
+import org.junit.Test;
+
+/**
+ * Tests for the {@link org.leplus.ristretto.util.Murmur3Digest} class.
+ *
+ * @author Thomas Leplus
+ * @since 2.1.0
+ */
+@SuppressWarnings({"checkstyle:magicnumber"})
+public final class TestMurmur3Digest {
+
+  /** Random number generator. */
+  private static final Random PRNG = new Random();
+
+  /** Default constructor. */
+  public TestMurmur3Digest() {
+    super();
+  }
+
+  /**
+   * Test against Guava's implementation.
+   *
+   * @throws CloneNotSupportedException if the test failed.
+   */
+  @Test
+  public void testReference() throws CloneNotSupportedException {
+    final Murmur3Digest md = new Murmur3Digest();
+    assertEquals(16, md.getDigestLength());
+    for (int len = 0; len < 100; len++) {
+      final byte[] bytes = new byte[len];
+      PRNG.nextBytes(bytes);
+      final byte[] expected = Hashing.murmur3_128().hashBytes(bytes).asBytes();
+      md.update(bytes);
+      assertArrayEquals(expected, md.digest());
+      // Same bytes fed one by one, then in uneven chunks.
+      for (final byte b : bytes) {
+        md.update(b);
+      }
+      assertArrayEquals(expected, md.digest());
+      int off = 0;
+      while (off < len) {
+        final int n = Math.min(len - off, 1 + PRNG.nextInt(20));
+        md.update(bytes, off, n);
+        off += n;
+      }
+      final MessageDigest clone = (MessageDigest) md.clone();
+      assertArrayEquals(expected, md.digest());
+      assertArrayEquals(expected, clone.digest());
+    }
+  }
+
+  /**
+   * Test the generator.
+   *
+   * @throws IOException if the test failed.
+   */
+  @Test
+  public void testGenerator() throws IOException {
+    final ReproducibleUUIDGenerator generator = ReproducibleUUIDs.murmur3(null);
+    final String s = "urn:test:" + PRNG.nextLong();
+    final byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+    final UUID uuid = generator.fromString(s);
+    assertEquals(8, uuid.version());
+    assertEquals(2, uuid.variant());
+    assertEquals(uuid, generator.fromBytes(bytes));
+    assertEquals(uuid, generator.fromByteBuffer(ByteBuffer.wrap(bytes)));
+    assertEquals(uuid, generator.fromInputStream(new ByteArrayInputStream(bytes)));
+    assertEquals(
+        generator.fromUUIDs(uuid, ReproducibleUUIDs.NAMESPACE_DNS),
+        generator.fromUUIDs(uuid, ReproducibleUUIDs.NAMESPACE_DNS));
+    assertNotEquals(uuid, ReproducibleUUIDs.murmur3(ReproducibleUUIDs.NAMESPACE_DNS).fromString(s));
+    final byte[] hash = Hashing.murmur3_128().hashBytes(bytes).asBytes();
+    hash[6] = (byte) (hash[6] & 0x0f | 0x80);
+    hash[8] = (byte) (hash[8] & 0x3f | 0x80);
+    assertEquals(UUIDConvertor.toUUID(hash, 0), uuid);
+  }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2016-present Thomas Leplus
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.leplus.ristretto.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.testing.EqualsTester;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.UUID;
+import org.junit.Test;
+
+/**
+ * Tests for the {@link org.leplus.ristretto.util.MutableUUID} class.
+ *
+ * @author Thomas Leplus
+ * @since 2.1.0
+ */
+@SuppressWarnings({"checkstyle:magicnumber"})
+public final class TestMutableUUID {
+
+  /** Default constructor. */
+  public TestMutableUUID() {
+    super();
+  }
+
+  /** Test. */
+  @Test
+  public void testSet() {
+    final MutableUUID mutable = new MutableUUID();
+    assertTrue(mutable.matches(new UUID(0, 0)));
+    for (final UUID uuid : TestUUIDWriter.randomUUIDs(100)) {
+      assertSame(mutable, mutable.set(uuid));
+      assertTrue(mutable.matches(uuid));
+      assertEquals(uuid, mutable.toUUID());
+      assertEquals(uuid.hashCode(), mutable.hashCode());
+      assertEquals(uuid.toString(), mutable.toString());
+      assertEquals(uuid.getMostSignificantBits(), mutable.getMostSignificantBits());
+      assertEquals(uuid.getLeastSignificantBits(), mutable.getLeastSignificantBits());
+      mutable.set(0, 0);
+      assertFalse(mutable.matches(uuid));
+      mutable.set(UUIDConvertor.toBytes(uuid), 0);
+      assertTrue(mutable.matches(uuid));
+      for (final UUIDLayout layout : UUIDLayout.values()) {
+        final byte[] bytes = new byte[20];
+        UUIDConvertor.toBytes(uuid, bytes, 3, layout);
+        assertTrue(new MutableUUID().set(bytes, 3, layout).matches(uuid));
+      }
+      assertTrue(new MutableUUID().set(UUIDConvertor.toLongs(uuid), 0).matches(uuid));
+    }
+    assertFalse(mutable.matches(null));
+    assertThrows(ArrayIndexOutOfBoundsException.class, () -> mutable.set(new byte[16], 1));
+    assertThrows(ArrayIndexOutOfBoundsException.class, () -> mutable.set(new long[2], -1));
+  }
+
+  /** Test. */
+  @Test
+  public void testCompare() {
+    final UUID[] uuids = TestUUIDWriter.randomUUIDs(50);
+    for (final UUID a : uuids) {
+      for (final UUID b : uuids) {
+        final MutableUUID ma = new MutableUUID(a);
+        assertEquals(a.compareTo(b), ma.compareTo(b));
+        assertEquals(a.compareTo(b), ma.compareTo(new MutableUUID(b)));
+        assertEquals(UUIDArrays.compareUnsigned(a, b), ma.compareUnsigned(b));
+      }
+    }
+  }
+
+  /** Test. */
+  @Test
+  public void testEquals() {
+    final UUID uuid = UUID.randomUUID();
+    new EqualsTester()
+        .addEqualityGroup(new MutableUUID(), new MutableUUID(0, 0))
+        .addEqualityGroup(new MutableUUID(uuid), new MutableUUID().set(uuid))
+        .testEquals();
+    assertNotEquals(new MutableUUID(uuid), uuid);
+  }
+
+  /**
+   * Test.
+   *
+   * @throws IOException if the test failed.
+   */
+  @Test
+  public void testViews() throws IOException {
+    final UUID[] uuids = TestUUIDWriter.randomUUIDs(100);
+    final MutableUUID mutable = new MutableUUID();
+    final UUIDArrayList list = new UUIDArrayList(Arrays.asList(uuids));
+    try (UUIDReader reader =
+        new UUIDReader(new ByteArrayInputStream(UUIDConvertor.toPackedBytes(uuids)))) {
+      for (int i = 0; i < uuids.length; i++) {
+        assertTrue(list.get(i, mutable).matches(uuids[i]));
+        assertTrue(reader.read(mutable));
+        assertTrue(mutable.matches(uuids[i]));
+      }
+      assertFalse(reader.read(mutable));
+    }
+    assertThrows(IndexOutOfBoundsException.class, () -> list.get(100, mutable));
+  }
+}
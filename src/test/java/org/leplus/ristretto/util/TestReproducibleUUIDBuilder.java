@@ -0,0 +1,125 @@
+/*
+ * Copyright 2016-present Thomas Leplus
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.leplus.ristretto.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.UUID;
+import org.junit.Test;
+
+/**
+ * Tests for the {@link org.leplus.ristretto.util.ReproducibleUUIDBuilder} class.
+ *
+ * @author Thomas Leplus
+ * @since 2.1.0
+ */
+@SuppressWarnings({"checkstyle:magicnumber"})
+public final class TestReproducibleUUIDBuilder {
+
+  /** Random number generator. */
+  private static final Random PRNG = new Random();
+
+  /** Default constructor. */
+  public TestReproducibleUUIDBuilder() {
+    super();
+  }
+
+  /**
+   * Tests the framing of the values against a manual encoding.
+   *
+   * @throws IOException if the test failed.
+   */
+  @Test
+  public void testFraming() throws IOException {
+    final UUID uuid = UUID.randomUUID();
+    final byte[] bytes = new byte[1000];
+    PRNG.nextBytes(bytes);
+    final String s = "héllo 😀 €\ud800";
+    final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    try (DataOutputStream out = new DataOutputStream(baos)) {
+      out.writeByte(1);
+      out.writeInt(42);
+      out.writeByte(2);
+      out.writeLong(-7L);
+      out.writeByte(3);
+      out.writeLong(uuid.getMostSignificantBits());
+      out.writeLong(uuid.getLeastSignificantBits());
+      final byte[] utf8 = s.getBytes(StandardCharsets.UTF_8);
+      out.writeByte(4);
+      out.writeLong(utf8.length);
+      out.write(utf8);
+      out.writeByte(5);
+      out.writeLong(bytes.length);
+      out.write(bytes);
+      out.writeByte(0);
+    }
+    final UUID expected = ReproducibleUUIDs.fromBytes(baos.toByteArray());
+    final ReproducibleUUIDBuilder builder = ReproducibleUUIDs.builder();
+    for (int i = 0; i < 2; i++) {
+      assertEquals(
+          expected,
+          builder.put(42).put(-7L).put(uuid).put(s).put(bytes).put((UUID) null).build());
+      assertEquals(
+          expected,
+          builder
+              .put(42)
+              .put(-7L)
+              .put(uuid)
+              .put(new StringBuilder(s))
+              .put(ByteBuffer.wrap(bytes))
+              .put((CharSequence) null)
+              .build());
+    }
+  }
+
+  /** Tests that values cannot be confused. */
+  @Test
+  public void testUnambiguous() {
+    final ReproducibleUUIDBuilder builder = ReproducibleUUIDs.builder();
+    assertNotEquals(builder.put("ab").put("c").build(), builder.put("a").put("bc").build());
+    assertNotEquals(builder.put("").build(), builder.put((String) null).build());
+    assertNotEquals(builder.put(1).build(), builder.put(1L).build());
+    assertNotEquals(builder.put("a").build(), builder.put(new byte[] {'a'}).build());
+    assertNotEquals(builder.build(), builder.put("").build());
+  }
+
+  /** Tests reset and the other generators. */
+  @Test
+  public void testReset() {
+    final String s = "x".repeat(2000);
+    for (final ReproducibleUUIDGenerator generator :
+        new ReproducibleUUIDGenerator[] {
+          ReproducibleUUIDs.v3(null),
+          ReproducibleUUIDs.v5(ReproducibleUUIDs.NAMESPACE_OID),
+          ReproducibleUUIDs.murmur3(ReproducibleUUIDs.NAMESPACE_URL)
+        }) {
+      final ReproducibleUUIDBuilder builder = generator.builder();
+      final UUID expected = builder.put(s).put(3).build();
+      assertEquals(generator.version(), expected.version());
+      assertEquals(expected, builder.put(1L).put(s).reset().put(s).put(3).build());
+      assertEquals(expected, generator.builder().put(s).put(3).build());
+    }
+  }
+}
@@ -0,0 +1,326 @@
+/*
+ * Copyright 2016-present Thomas Leplus
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.leplus.ristretto.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import org.junit.Test;
+
+/**
+ * Tests for the {@link org.leplus.ristretto.util.ReproducibleUUIDGenerator} class.
+ *
+ * @author Thomas Leplus
+ * @since 2.1.0
+ */
+@SuppressWarnings({"checkstyle:magicnumber"})
+public final class TestReproducibleUUIDGenerator {
+
+  /** Random number generator. */
+  private static final Random PRNG = new Random();
+
+  /** Default constructor. */
+  public TestReproducibleUUIDGenerator() {
+    super();
+  }
+
+  /** Tests the examples of RFC 9562. */
+  @Test
+  public void testRfcExamples() {
+    final String name = "www.example.com";
+    assertEquals(
+        UUID.fromString("5df41881-3aed-3515-88a7-2f4a814cf09e"),
+        ReproducibleUUIDs.v3(ReproducibleUUIDs.NAMESPACE_DNS).fromString(name));
+    assertEquals(
+        UUID.fromString("2ed6657d-e927-568b-95e1-2665a8aea6a2"),
+        ReproducibleUUIDs.v5(ReproducibleUUIDs.NAMESPACE_DNS).fromString(name));
+    assertEquals(
+        UUID.fromString("5c146b14-3c52-8afd-938a-375d0df1fbf6"),
+        ReproducibleUUIDs.v8(ReproducibleUUIDs.NAMESPACE_DNS).fromString(name));
+  }
+
+  /** Tests the version and variant of the generated UUIDs. */
+  @Test
+  public void testVersions() {
+    final byte[] bytes = new byte[100];
+    PRNG.nextBytes(bytes);
+    for (final UUID namespace :
+        new UUID[] {
+          null,
+          ReproducibleUUIDs.NAMESPACE_DNS,
+          ReproducibleUUIDs.NAMESPACE_URL,
+          ReproducibleUUIDs.NAMESPACE_OID,
+          ReproducibleUUIDs.NAMESPACE_X500
+        }) {
+      for (final ReproducibleUUIDGenerator generator :
+          new ReproducibleUUIDGenerator[] {
+            ReproducibleUUIDs.v3(namespace),
+            ReproducibleUUIDs.v5(namespace),
+            ReproducibleUUIDs.v8(namespace)
+          }) {
+        assertEquals(namespace, generator.namespace());
+        final UUID uuid = generator.fromBytes(bytes);
+        assertEquals(generator.version(), uuid.version());
+        assertEquals(2, uuid.variant());
+      }
+    }
+  }
+
+  /** Tests that the default generator is the one of the static methods. */
+  @Test
+  public void testDefault() {
+    final byte[] bytes = new byte[100];
+    PRNG.nextBytes(bytes);
+    assertSame(ReproducibleUUIDs.v3(null), ReproducibleUUIDs.v3(null));
+    assertEquals(UUID.nameUUIDFromBytes(bytes), ReproducibleUUIDs.v3(null).fromBytes(bytes));
+    assertNotEquals(
+        ReproducibleUUIDs.v3(null).fromBytes(bytes),
+        ReproducibleUUIDs.v3(ReproducibleUUIDs.NAMESPACE_URL).fromBytes(bytes));
+  }
+
+  /**
+   * Tests that all the entry points agree.
+   *
+   * @throws IOException if the test failed.
+   */
+  @Test
+  public void testEntryPoints() throws IOException {
+    final String s = "urn:test:" + PRNG.nextLong();
+    final byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+    final ReproducibleUUIDGenerator generator =
+        ReproducibleUUIDs.v5(ReproducibleUUIDs.NAMESPACE_URL);
+    final UUID expected = generator.fromString(s);
+    assertEquals(expected, generator.fromBytes(bytes));
+    assertEquals(expected, generator.fromByteBuffer(ByteBuffer.wrap(bytes)));
+    assertEquals(expected, generator.fromInputStream(new ByteArrayInputStream(bytes)));
+    assertNull(generator.fromString(null));
+    assertNull(generator.fromBytes((byte[]) null));
+    assertNull(generator.fromByteBuffer(null));
+    assertNull(generator.fromInputStream(null));
+    assertNull(generator.fromUUIDs((UUID[]) null));
+    assertEquals(
+        generator.fromBytes(UUIDConvertor.toBytes(expected)), generator.fromUUIDs(expected));
+    assertEquals(
+        generator.fromUUIDs(expected),
+        generator.fromPackedUUIDs(
+            new long[] {expected.getMostSignificantBits(), expected.getLeastSignificantBits()}));
+    assertSame(expected, ReproducibleUUIDs.v3(null).fromUUIDs(expected));
+    assertNotEquals(
+        expected, ReproducibleUUIDs.v3(ReproducibleUUIDs.NAMESPACE_URL).fromUUIDs(expected));
+    assertEquals(
+        generator.fromUUIDs(expected, ReproducibleUUIDs.NAMESPACE_DNS),
+        generator.fromUUIDs(expected, ReproducibleUUIDs.NAMESPACE_DNS));
+  }
+
+  /**
+   * Creates a temporary file deleted on exit.
+   *
+   * @param bytes the content of the file.
+   * @return the path of the file.
+   * @throws IOException if the test failed.
+   */
+  private static Path createTempFile(final byte[] bytes) throws IOException {
+    final Path path = Files.createTempFile("ristretto", ".bin");
+    path.toFile().deleteOnExit();
+    Files.write(path, bytes);
+    return path;
+  }
+
+  /**
+   * Tests that mapped files give the same UUIDs as streams.
+   *
+   * @throws IOException if the test failed.
+   */
+  @Test
+  public void testPath() throws IOException {
+    final int chunk = ReproducibleUUIDGenerator.TREE_HASH_CHUNK_SIZE;
+    for (final int size : new int[] {0, 10, 100_000, chunk + 17}) {
+      final byte[] bytes = new byte[size];
+      PRNG.nextBytes(bytes);
+      final Path path = createTempFile(bytes);
+      assertEquals(UUID.nameUUIDFromBytes(bytes), ReproducibleUUIDs.fromPath(path));
+      final ReproducibleUUIDGenerator generator =
+          ReproducibleUUIDs.v8(ReproducibleUUIDs.NAMESPACE_URL);
+      assertEquals(generator.fromBytes(bytes), generator.fromPath(path));
+      Files.delete(path);
+    }
+    assertNull(ReproducibleUUIDs.fromPath(null));
+    assertThrows(
+        IOException.class, () -> ReproducibleUUIDs.fromPath(Path.of("does", "not", "exist")));
+  }
+
+  /**
+   * Tests the tree hashes against their specification.
+   *
+   * @throws IOException if the test failed.
+   * @throws NoSuchAlgorithmException if the test failed.
+   */
+  @Test
+  public void testTreeHash() throws IOException, NoSuchAlgorithmException {
+    final int chunk = ReproducibleUUIDGenerator.TREE_HASH_CHUNK_SIZE;
+    final ForkJoinPool pool = new ForkJoinPool(4);
+    final ForkJoinPool single = new ForkJoinPool(1);
+    try {
+      for (final int size : new int[] {0, 10, chunk, 3 * chunk + 5}) {
+        final byte[] bytes = new byte[size];
+        PRNG.nextBytes(bytes);
+        final Path path = createTempFile(bytes);
+        final int chunks = (size + chunk - 1) / chunk;
+        final ByteBuffer expected = ByteBuffer.allocate(12 + 16 * chunks);
+        expected.putInt(0x52544801).putLong(size);
+        final MessageDigest md5 = MessageDigest.getInstance("MD5");
+        for (int i = 0; i < chunks; i++) {
+          md5.update(bytes, i * chunk, Math.min(chunk, size - i * chunk));
+          expected.put(md5.digest());
+        }
+        final UUID uuid = ReproducibleUUIDs.fromPathTreeHash(path);
+        assertEquals(UUID.nameUUIDFromBytes(expected.array()), uuid);
+        assertEquals(uuid, ReproducibleUUIDs.fromPathTreeHash(path, pool));
+        assertEquals(uuid, ReproducibleUUIDs.fromPathTreeHash(path, single));
+        assertNotEquals(ReproducibleUUIDs.fromPath(path), uuid);
+        final ReproducibleUUIDGenerator generator =
+            ReproducibleUUIDs.v5(ReproducibleUUIDs.NAMESPACE_OID);
+        assertEquals(generator.fromPathTreeHash(path), generator.fromPathTreeHash(path, pool));
+        Files.delete(path);
+      }
+    } finally {
+      pool.shutdown();
+      single.shutdown();
+    }
+    assertNull(ReproducibleUUIDs.fromPathTreeHash(null));
+    assertThrows(
+        IOException.class,
+        () -> ReproducibleUUIDs.fromPathTreeHash(Path.of("does", "not", "exist")));
+  }
+
+  /** Tests the batches against the single UUID methods. */
+  @Test
+  public void testBatches() {
+    final List<String> strings = new ArrayList<>();
+    final List<byte[]> bytes = new ArrayList<>();
+    for (int i = 0; i < 5000; i++) {
+      final String s =
+          i % 3 == 0 ? TestUtf8.randomString(PRNG.nextInt(80)) : "key-" + PRNG.nextInt();
+      strings.add(s);
+      bytes.add(s.getBytes(StandardCharsets.UTF_8));
+    }
+    final ForkJoinPool pool = new ForkJoinPool(3);
+    try {
+      for (final ReproducibleUUIDGenerator generator :
+          new ReproducibleUUIDGenerator[] {
+            ReproducibleUUIDs.v3(null),
+            ReproducibleUUIDs.v5(ReproducibleUUIDs.NAMESPACE_DNS),
+            ReproducibleUUIDs.murmur3(null)
+          }) {
+        final UUIDArrayList expected = new UUIDArrayList();
+        for (final String s : strings) {
+          expected.add(generator.fromString(s));
+        }
+        assertEquals(expected, new UUIDArrayList(generator.fromStrings(strings)));
+        assertEquals(expected, new UUIDArrayList(generator.fromStrings(strings, pool)));
+        assertEquals(
+            expected, new UUIDArrayList(generator.fromStrings(new LinkedList<>(strings), pool)));
+        assertEquals(expected, new UUIDArrayList(generator.fromByteArrays(bytes, pool)));
+        assertEquals(expected, strings.parallelStream().collect(generator.toUUIDArrayList()));
+        assertEquals(
+            expected.subList(0, 10),
+            strings.stream().limit(10).collect(generator.toUUIDArrayList()));
+      }
+    } finally {
+      pool.shutdown();
+    }
+    assertEquals(
+        strings.stream().map(ReproducibleUUIDs::fromString).collect(Collectors.toList()),
+        new UUIDArrayList(ReproducibleUUIDs.fromByteArrays(bytes)));
+    assertEquals(0, ReproducibleUUIDs.fromStrings(new ArrayList<>()).length);
+    assertNull(ReproducibleUUIDs.fromStrings(null));
+    assertNull(ReproducibleUUIDs.fromByteArrays(null));
+  }
+
+  /**
+   * Tests the directory hashes against their specification.
+   *
+   * @throws IOException if the test failed.
+   */
+  @Test
+  public void testDirectory() throws IOException {
+    final Path root = Files.createTempDirectory("ristretto");
+    final List<Path> paths = new ArrayList<>();
+    try {
+      final String[] names = {"a.txt", "b/c.bin", "b/d/e.txt", "f/big.bin"};
+      final byte[][] contents = new byte[names.length][];
+      for (int i = 0; i < names.length; i++) {
+        contents[i] = new byte[i == names.length - 1 ? 200_000 : PRNG.nextInt(1000)];
+        PRNG.nextBytes(contents[i]);
+        final Path path = root.resolve(names[i]);
+        Files.createDirectories(path.getParent());
+        Files.write(path, contents[i]);
+        paths.add(path);
+      }
+      final Path empty = Files.createDirectories(root.resolve("g/empty"));
+      paths.add(empty);
+      paths.add(empty.getParent());
+      final ReproducibleUUIDBuilder builder = ReproducibleUUIDs.builder().put(0x52444801).put(4L);
+      for (int i = 0; i < names.length; i++) {
+        builder.put(names[i]).put(ReproducibleUUIDs.fromBytes(contents[i]));
+      }
+      final UUID expected = builder.build();
+      assertEquals(expected, ReproducibleUUIDs.fromDirectory(root));
+      final ExecutorService executor = Executors.newSingleThreadExecutor();
+      try {
+        assertEquals(expected, ReproducibleUUIDs.fromDirectory(root, executor));
+      } finally {
+        executor.shutdown();
+      }
+      final ReproducibleUUIDGenerator generator = ReproducibleUUIDs.murmur3(null);
+      assertEquals(8, generator.fromDirectory(root).version());
+      Files.write(paths.get(0), new byte[] {1});
+      assertNotEquals(expected, ReproducibleUUIDs.fromDirectory(root));
+      assertNull(ReproducibleUUIDs.fromDirectory(null));
+      assertThrows(IOException.class, () -> ReproducibleUUIDs.fromDirectory(root.resolve("no")));
+    } finally {
+      paths.add(paths.get(1).getParent().resolve("d"));
+      paths.add(paths.get(1).getParent());
+      paths.add(paths.get(3).getParent());
+      paths.add(root);
+      for (final Path path : paths) {
+        Files.deleteIfExists(path);
+      }
+    }
+  }
+}
@@ -17,14 +17,27 @@
 package org.leplus.ristretto.util;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.ByteBuffer;
+import java.security.MessageDigest;
 import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import org.junit.Test;
+import org.leplus.ristretto.util.ReproducibleUUIDs.DigestPooling;
 
 /**
  * Tests for the {@link org.leplus.ristretto.util.ReproducibleUUIDs} class.
@@ -116,4 +129,178 @@ public final class TestReproducibleUUIDs {
     assertEquals(ReproducibleUUIDs.fromUUIDs(uuids), ReproducibleUUIDs.fromUUIDs(uuids));
     assertNull(ReproducibleUUIDs.fromUUIDs((UUID[]) null));
   }
+
+  /**
+   * Tests that all the pooling strategies generate the same UUIDs.
+   *
+   * @throws IOException if the test failed.
+   */
+  @Test
+  public void testDigestPooling() throws IOException {
+    assertEquals(DigestPooling.THREAD_LOCAL, ReproducibleUUIDs.getDigestPooling());
+    final SecureRandom random = new SecureRandom();
+    final byte[] bytes = new byte[NUMBER_OF_BYTES];
+    random.nextBytes(bytes);
+    final UUID expected = UUID.nameUUIDFromBytes(bytes);
+    try {
+      for (final DigestPooling pooling : DigestPooling.values()) {
+        ReproducibleUUIDs.setDigestPooling(pooling);
+        assertEquals(pooling, ReproducibleUUIDs.getDigestPooling());
+        for (int i = 0; i < 3; i++) {
+          assertEquals(expected, ReproducibleUUIDs.fromBytes(bytes));
+          assertEquals(expected, ReproducibleUUIDs.fromByteBuffer(ByteBuffer.wrap(bytes)));
+          assertEquals(
+              expected, ReproducibleUUIDs.fromInputStream(new ByteArrayInputStream(bytes)));
+        }
+      }
+      assertThrows(NullPointerException.class, () -> ReproducibleUUIDs.setDigestPooling(null));
+    } finally {
+      ReproducibleUUIDs.setDigestPooling(DigestPooling.THREAD_LOCAL);
+    }
+  }
+
+  /** Tests the reuse of the digests by the pool. */
+  @Test
+  public void testDigestPool() {
+    final DigestPool pool = DigestPool.of("MD5");
+    assertSame(pool, DigestPool.of("MD5"));
+    try {
+      for (final DigestPooling pooling : DigestPooling.values()) {
+        ReproducibleUUIDs.setDigestPooling(pooling);
+        final MessageDigest md = pool.acquire();
+        // A nested acquisition must not return the digest in use.
+        final MessageDigest nested = pool.acquire();
+        assertNotSame(md, nested);
+        pool.release(nested);
+        md.update((byte) 42);
+        pool.release(md);
+        final MessageDigest reused = pool.acquire();
+        // The bounded pool may hand out any idle digest, including ones of other tests.
+        if (pooling == DigestPooling.NONE) {
+          assertNotSame(md, reused);
+        } else if (pooling == DigestPooling.THREAD_LOCAL) {
+          assertSame(md, reused);
+        }
+        assertEquals(UUID.nameUUIDFromBytes(new byte[0]), fromDigest(reused));
+        pool.release(reused);
+      }
+    } finally {
+      ReproducibleUUIDs.setDigestPooling(DigestPooling.THREAD_LOCAL);
+    }
+    assertThrows(IllegalStateException.class, () -> DigestPool.of("NOPE"));
+  }
+
+  /**
+   * Builds a name-based UUID from a digest.
+   *
+   * @param md the digest.
+   * @return the UUID.
+   */
+  private static UUID fromDigest(final MessageDigest md) {
+    final byte[] hash = md.digest();
+    hash[6] = (byte) (hash[6] & 0x0f | 0x30);
+    hash[8] = (byte) (hash[8] & 0x3f | 0x80);
+    return UUIDConvertor.toUUID(hash);
+  }
+
+  /**
+   * Tests that a digest is not reused in a dirty state after a failure.
+   *
+   * @throws IOException if the test failed.
+   */
+  @Test
+  public void testDigestPoolingAfterFailure() throws IOException {
+    // Longer than a single MD5 block, so that the pooled digest is used.
+    final byte[] bytes = new byte[100];
+    Arrays.fill(bytes, (byte) 1);
+    final InputStream failing =
+        new InputStream() {
+          /** Number of bytes read. */
+          private int count;
+
+          /**
+           * @see java.io.InputStream#read()
+           */
+          @Override
+          public int read() throws IOException {
+            if (count++ > 1) {
+              throw new IOException("failure");
+            }
+            return count;
+          }
+        };
+    assertThrows(IOException.class, () -> ReproducibleUUIDs.fromInputStream(failing));
+    assertEquals(UUID.nameUUIDFromBytes(bytes), ReproducibleUUIDs.fromBytes(bytes));
+    assertEquals(
+        UUID.nameUUIDFromBytes(bytes),
+        ReproducibleUUIDs.fromInputStream(new ByteArrayInputStream(bytes)));
+  }
+
+  /**
+   * Tests the pooling strategies with concurrent threads.
+   *
+   * @throws Exception if the test failed.
+   */
+  @Test
+  public void testDigestPoolingConcurrency() throws Exception {
+    final int threads = 8;
+    final ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      for (final DigestPooling pooling : DigestPooling.values()) {
+        ReproducibleUUIDs.setDigestPooling(pooling);
+        final List<Future<Boolean>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+          futures.add(
+              executor.submit(
+                  () -> {
+                    for (int i = 0; i < 1000; i++) {
+                      final String s = Integer.toString(i);
+                      final UUID expected = UUID.nameUUIDFromBytes(s.getBytes("UTF-8"));
+                      if (!expected.equals(ReproducibleUUIDs.fromString(s))) {
+                        return false;
+                      }
+                    }
+                    return true;
+                  }));
+        }
+        for (final Future<Boolean> future : futures) {
+          assertEquals(Boolean.TRUE, future.get());
+        }
+      }
+    } finally {
+      executor.shutdown();
+      ReproducibleUUIDs.setDigestPooling(DigestPooling.THREAD_LOCAL);
+    }
+  }
+
+  /** Tests that all the ways to pass UUIDs give the same UUID. */
+  @Test
+  public void testStreamingUUIDs() {
+    final Random random = new Random();
+    for (final int n : new int[] {0, 1, 2, 3, 4, 31, 32, 33, 64, 65, 1000}) {
+      final List<UUID> uuids = new ArrayList<>();
+      final ByteBuffer bytes = ByteBuffer.allocate(16 * n);
+      for (int i = 0; i < n; i++) {
+        final UUID uuid = new UUID(random.nextLong(), random.nextLong());
+        uuids.add(uuid);
+        bytes.putLong(uuid.getMostSignificantBits()).putLong(uuid.getLeastSignificantBits());
+      }
+      final UUID expected =
+          n == 0 ? null : n == 1 ? uuids.get(0) : ReproducibleUUIDs.fromBytes(bytes.array());
+      assertEquals(expected, ReproducibleUUIDs.fromUUIDs(uuids.toArray(new UUID[0])));
+      assertEquals(expected, ReproducibleUUIDs.fromUUIDIterable(uuids));
+      assertEquals(expected, ReproducibleUUIDs.fromUUIDStream(uuids.parallelStream()));
+      assertEquals(
+          expected, ReproducibleUUIDs.fromPackedUUIDs(new UUIDArrayList(uuids).toPackedLongs()));
+      final ReproducibleUUIDGenerator generator = ReproducibleUUIDs.v5(null);
+      assertEquals(
+          generator.fromUUIDs(uuids.toArray(new UUID[0])),
+          generator.fromPackedUUIDs(new UUIDArrayList(uuids).toPackedLongs()));
+    }
+    assertNull(ReproducibleUUIDs.fromUUIDIterable(null));
+    assertNull(ReproducibleUUIDs.fromUUIDStream(null));
+    assertNull(ReproducibleUUIDs.fromPackedUUIDs(null));
+    assertThrows(
+        IllegalArgumentException.class, () -> ReproducibleUUIDs.fromPackedUUIDs(new long[3]));
+  }
 }
@@ -0,0 +1,172 @@
+/*
+ * Copyright 2016-present Thomas Leplus
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.leplus.ristretto.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import org.junit.Test;
+
+/**
+ * Tests for the {@link org.leplus.ristretto.util.SortedUUIDFile} class.
+ *
+ * @author Thomas Leplus
+ * @since 2.1.0
+ */
+@SuppressWarnings({"checkstyle:magicnumber"})
+public final class TestSortedUUIDFile {
+
+  /** Default constructor. */
+  public TestSortedUUIDFile() {
+    super();
+  }
+
+  /**
+   * Creates a temporary file deleted on exit.
+   *
+   * @return the path of the file.
+   * @throws IOException if the file could not be created.
+   */
+  private static Path tempFile() throws IOException {
+    final Path path = Files.createTempFile("ristretto", ".uuids");
+    path.toFile().deleteOnExit();
+    return path;
+  }
+
+  /**
+   * Sorts UUIDs in unsigned order.
+   *
+   * @param uuids the UUIDs.
+   * @return the sorted UUIDs.
+   */
+  private static UUID[] sortUnsigned(final UUID[] uuids) {
+    final UUID[] sorted = uuids.clone();
+    Arrays.sort(
+        sorted,
+        Comparator.comparing(UUID::getMostSignificantBits, Long::compareUnsigned)
+            .thenComparing(UUID::getLeastSignificantBits, Long::compareUnsigned));
+    return sorted;
+  }
+
+  /**
+   * Test.
+   *
+   * @throws IOException if the test failed.
+   */
+  @Test
+  public void testContains() throws IOException {
+    final UUID[] uuids = TestUUIDWriter.randomUUIDs(10000);
+    final Path path = tempFile();
+    SortedUUIDFile.builder().addAll(Arrays.asList(uuids)).add(uuids[0]).write(path);
+    assertEquals(
+        SortedUUIDFile.HEADER_BYTES + uuids.length * UUIDConvertor.UUID_BYTES, Files.size(path));
+    final UUID[] sorted = sortUnsigned(uuids);
+    final MutableUUID mutable = new MutableUUID();
+    for (final int stride : new int[] {0, 1, 7, 4096, 20000}) {
+      try (SortedUUIDFile file = SortedUUIDFile.open(path, stride)) {
+        assertEquals(uuids.length, file.size());
+        for (int i = 0; i < sorted.length; i++) {
+          assertEquals(sorted[i], file.get(i));
+          assertTrue(file.get(i, mutable).matches(sorted[i]));
+          assertEquals(i, file.indexOf(sorted[i]));
+          assertTrue(file.contains(sorted[i]));
+        }
+        for (final UUID uuid : TestUUIDWriter.randomUUIDs(1000)) {
+          assertEquals(Arrays.asList(uuids).contains(uuid), file.contains(uuid));
+        }
+        assertFalse(file.contains(new UUID(0, 0)));
+        assertFalse(file.contains(new UUID(-1, -1)));
+        assertEquals(-1, file.indexOf(new UUID(0, 0)));
+        assertEquals(-uuids.length - 1, file.indexOf(new UUID(-1, -1)));
+        assertThrows(IndexOutOfBoundsException.class, () -> file.get(-1));
+        assertThrows(IndexOutOfBoundsException.class, () -> file.get(uuids.length));
+        assertThrows(IndexOutOfBoundsException.class, () -> file.get(-1, mutable));
+      }
+    }
+  }
+
+  /**
+   * Test.
+   *
+   * @throws IOException if the test failed.
+   */
+  @Test
+  public void testRange() throws IOException {
+    final UUID[] uuids = new UUID[100];
+    for (int i = 0; i < uuids.length; i++) {
+      uuids[i] = new UUID(i * 2L - 100, 0);
+    }
+    final Path path = tempFile();
+    SortedUUIDFile.builder().addAll(Arrays.asList(uuids)).write(path);
+    final UUID[] sorted = sortUnsigned(uuids);
+    try (SortedUUIDFile file = SortedUUIDFile.open(path, 8)) {
+      final List<UUID> range =
+          file.range(new UUID(-41, 0), new UUID(0, 0)).collect(Collectors.toList());
+      assertTrue(range.isEmpty());
+      assertEquals(
+          Arrays.asList(sorted).subList(0, 50),
+          file.range(new UUID(0, 0), new UUID(-100, 0)).collect(Collectors.toList()));
+      assertEquals(
+          Arrays.asList(sorted).subList(55, 81),
+          file.range(new UUID(-90, 0), new UUID(-39, 0)).collect(Collectors.toList()));
+      assertEquals(55, file.lowerBound(new UUID(-90, 0)));
+      assertEquals(56, file.lowerBound(new UUID(-90, 1)));
+    }
+  }
+
+  /**
+   * Test.
+   *
+   * @throws IOException if the test failed.
+   */
+  @Test
+  public void testEmpty() throws IOException {
+    final Path path = tempFile();
+    SortedUUIDFile.builder().write(path);
+    try (SortedUUIDFile file = SortedUUIDFile.open(path, 16)) {
+      assertEquals(0, file.size());
+      assertFalse(file.contains(UUID.randomUUID()));
+      assertEquals(0, file.range(new UUID(0, 0), new UUID(-1, -1)).count());
+    }
+  }
+
+  /**
+   * Test.
+   *
+   * @throws IOException if the test failed.
+   */
+  @Test
+  public void testInvalid() throws IOException {
+    final Path path = tempFile();
+    Files.write(path, new byte[] {1, 2, 3});
+    assertThrows(IOException.class, () -> SortedUUIDFile.open(path));
+    SortedUUIDFile.builder().add(UUID.randomUUID()).write(path);
+    Files.write(path, new byte[] {0}, java.nio.file.StandardOpenOption.APPEND);
+    assertThrows(IOException.class, () -> SortedUUIDFile.open(path));
+    assertThrows(IllegalArgumentException.class, () -> SortedUUIDFile.open(path, -1));
+  }
+}
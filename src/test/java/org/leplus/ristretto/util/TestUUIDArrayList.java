@@ -0,0 +1,252 @@
+/*
+ * Copyright 2016-present Thomas Leplus
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.leplus.ristretto.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.collect.testing.ListTestSuiteBuilder;
+import com.google.common.collect.testing.SampleElements;
+import com.google.common.collect.testing.TestListGenerator;
+import com.google.common.collect.testing.features.CollectionFeature;
+import com.google.common.collect.testing.features.CollectionSize;
+import com.google.common.collect.testing.features.ListFeature;
+import com.google.common.testing.EqualsTester;
+import com.google.common.testing.SerializableTester;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import junit.framework.TestSuite;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Suite;
+
+/**
+ * Tests the {@link org.leplus.ristretto.util.UUIDArrayList} class.
+ *
+ * @author Thomas Leplus
+ * @since 2.1.0
+ */
+@RunWith(Suite.class)
+@Suite.SuiteClasses({TestUUIDArrayList.GuavaTests.class, TestUUIDArrayList.AdditionalTests.class})
+@SuppressWarnings({"checkstyle:magicnumber"})
+public final class TestUUIDArrayList {
+
+  /** Default constructor. */
+  public TestUUIDArrayList() {
+    super();
+  }
+
+  /**
+   * Some additional tests.
+   *
+   * @author Thomas Leplus
+   * @since 2.1.0
+   */
+  public static class AdditionalTests {
+
+    /** Default constructor. */
+    public AdditionalTests() {
+      super();
+    }
+
+    /** Test. */
+    @Test
+    public void testPrimitiveAccess() {
+      final UUIDArrayList list = new UUIDArrayList(0);
+      for (int i = 0; i < 100; i++) {
+        list.add(i, -i);
+      }
+      assertEquals(100, list.size());
+      for (int i = 0; i < 100; i++) {
+        assertEquals(i, list.getMsb(i));
+        assertEquals(-i, list.getLsb(i));
+        assertEquals(new UUID(i, -i), list.get(i));
+        assertEquals(i, list.indexOf(i, -i));
+      }
+      assertTrue(list.contains(42, -42));
+      assertFalse(list.contains(42, 42));
+      list.set(42, 1, 2);
+      assertEquals(new UUID(1, 2), list.get(42));
+      assertThrows(IndexOutOfBoundsException.class, () -> list.getMsb(100));
+      assertThrows(IndexOutOfBoundsException.class, () -> list.getLsb(-1));
+      assertThrows(IndexOutOfBoundsException.class, () -> list.set(100, 0, 0));
+      assertThrows(NullPointerException.class, () -> list.add(null));
+      assertThrows(IllegalArgumentException.class, () -> new UUIDArrayList(-1));
+      assertThrows(
+          IllegalArgumentException.class, () -> new UUIDArrayList(Integer.MAX_VALUE / 2 + 1));
+      assertThrows(IllegalArgumentException.class, () -> new UUIDArrayList(Integer.MAX_VALUE));
+    }
+
+    /** Test. */
+    @Test
+    public void testBulk() {
+      final UUID[] uuids = TestUUIDWriter.randomUUIDs(1000);
+      final UUIDArrayList list = new UUIDArrayList(UUIDConvertor.toPackedLongs(uuids));
+      assertEquals(Arrays.asList(uuids), list);
+      assertArrayEquals(UUIDConvertor.toPackedLongs(uuids), list.toPackedLongs());
+      assertArrayEquals(UUIDConvertor.toPackedBytes(uuids), list.toPackedBytes());
+      for (final UUIDLayout layout : UUIDLayout.values()) {
+        final byte[] bytes = UUIDConvertor.toPackedBytes(uuids, layout);
+        assertArrayEquals(bytes, list.toPackedBytes(layout));
+        final UUIDArrayList copy = new UUIDArrayList();
+        copy.addAll(bytes, layout);
+        assertEquals(list, copy);
+      }
+      assertThrows(IllegalArgumentException.class, () -> list.addAll(new long[3]));
+      assertThrows(
+          IllegalArgumentException.class, () -> list.addAll(new byte[15], UUIDLayout.GUID));
+      assertThrows(NullPointerException.class, () -> list.addAll(Arrays.asList(uuids[0], null)));
+      assertEquals(1000, list.size());
+    }
+
+    /** Test. */
+    @Test
+    public void testEquals() {
+      final UUID[] uuids = TestUUIDWriter.randomUUIDs(10);
+      final UUIDArrayList list = new UUIDArrayList(Arrays.asList(uuids));
+      list.ensureCapacity(100);
+      final UUIDArrayList trimmed = list.clone();
+      trimmed.trimToSize();
+      new EqualsTester()
+          .addEqualityGroup(new UUIDArrayList(), new UUIDArrayList(7), new ArrayList<UUID>())
+          .addEqualityGroup(list, trimmed, new ArrayList<>(Arrays.asList(uuids)))
+          .testEquals();
+      SerializableTester.reserializeAndAssert(new UUIDArrayList());
+      SerializableTester.reserializeAndAssert(list);
+    }
+
+    /**
+     * Test.
+     *
+     * @throws IOException if the test failed.
+     */
+    @Test
+    public void testSerializedSizeTooLarge() throws IOException {
+      final UUID uuid = new UUID(0x0123456789abcdefL, 0xfedcba9876543210L);
+      final ByteArrayOutputStream out = new ByteArrayOutputStream();
+      try (ObjectOutputStream oos = new ObjectOutputStream(out)) {
+        oos.writeObject(new UUIDArrayList(Arrays.asList(uuid)));
+      }
+      final byte[] bytes = out.toByteArray();
+      // The size field precedes the header of the block of data holding the longs.
+      final byte[] size = {0, 0, 0, 1};
+      final byte[] longs = UUIDConvertor.toBytes(uuid);
+      int pos = 0;
+      while (!Arrays.equals(bytes, pos, pos + longs.length, longs, 0, longs.length)) {
+        pos++;
+      }
+      pos -= 2 + size.length;
+      assertArrayEquals(size, Arrays.copyOfRange(bytes, pos, pos + size.length));
+      bytes[pos] = (byte) 0x7f;
+      bytes[pos + 1] = (byte) 0xff;
+      bytes[pos + 2] = (byte) 0xff;
+      bytes[pos + 3] = (byte) 0xff;
+      assertThrows(
+          InvalidObjectException.class,
+          () -> new ObjectInputStream(new ByteArrayInputStream(bytes)).readObject());
+    }
+  }
+
+  /**
+   * Guava collection testing.
+   *
+   * @author Thomas Leplus
+   * @since 2.1.0
+   */
+  public static final class GuavaTests {
+
+    /** Private constructor. */
+    private GuavaTests() {
+      super();
+    }
+
+    /**
+     * Creates the test suite.
+     *
+     * @return a test suite.
+     */
+    public static TestSuite suite() {
+      return ListTestSuiteBuilder.using(
+              new TestListGenerator<UUID>() {
+
+                /**
+                 * @see com.google.common.collect.testing.TestContainerGenerator#samples()
+                 */
+                @Override
+                public SampleElements<UUID> samples() {
+                  return new SampleElements<>(
+                      new UUID(0, 0),
+                      new UUID(0, 1),
+                      new UUID(-1, 0),
+                      new UUID(1, -1),
+                      new UUID(Long.MIN_VALUE, Long.MAX_VALUE));
+                }
+
+                /**
+                 * @see com.google.common.collect.testing.TestContainerGenerator#create(
+                 *     java.lang.Object[])
+                 */
+                @Override
+                public List<UUID> create(final Object... elements) {
+                  final UUIDArrayList list = new UUIDArrayList();
+                  for (final Object element : elements) {
+                    list.add((UUID) element);
+                  }
+                  return list;
+                }
+
+                /**
+                 * @see com.google.common.collect.testing.TestContainerGenerator#createArray(int)
+                 */
+                @Override
+                public UUID[] createArray(final int length) {
+                  return new UUID[length];
+                }
+
+                /**
+                 * @see com.google.common.collect.testing.TestContainerGenerator#order(
+                 *     java.util.List)
+                 */
+                @Override
+                public Iterable<UUID> order(final List<UUID> insertionOrder) {
+                  return insertionOrder;
+                }
+              })
+          .named("UUIDArrayList tests")
+          .withFeatures(
+              ListFeature.GENERAL_PURPOSE,
+              CollectionFeature.ALLOWS_NULL_QUERIES,
+              CollectionFeature.FAILS_FAST_ON_CONCURRENT_MODIFICATION,
+              CollectionFeature.KNOWN_ORDER,
+              CollectionFeature.RESTRICTS_ELEMENTS,
+              CollectionFeature.SERIALIZABLE,
+              CollectionSize.ANY)
+          .createTestSuite();
+    }
+  }
+}
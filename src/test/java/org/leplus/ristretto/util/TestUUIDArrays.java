@@ -0,0 +1,133 @@
+/*
+ * Copyright 2016-present Thomas Leplus
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.leplus.ristretto.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.UUID;
+import org.junit.Test;
+
+/**
+ * Tests for the {@link org.leplus.ristretto.util.UUIDArrays} class.
+ *
+ * @author Thomas Leplus
+ * @since 2.1.0
+ */
+@SuppressWarnings({"checkstyle:magicnumber"})
+public final class TestUUIDArrays {
+
+  /** Pseudo-random number generator. */
+  private static final Random PRNG = new Random();
+
+  /** Reference order: the big-endian bytes compared as unsigned values. */
+  private static final Comparator<UUID> BYTE_ORDER =
+      (a, b) -> Arrays.compareUnsigned(UUIDConvertor.toBytes(a), UUIDConvertor.toBytes(b));
+
+  /** Default constructor. */
+  public TestUUIDArrays() {
+    super();
+  }
+
+  /**
+   * Generates UUIDs with few distinct values in some byte positions and many duplicates.
+   *
+   * @param count the number of UUIDs.
+   * @return the UUIDs.
+   */
+  private static UUID[] structuredUUIDs(final int count) {
+    final UUID[] uuids = new UUID[count];
+    for (int i = 0; i < count; i++) {
+      uuids[i] = new UUID(0x0190_0000_0000_7000L | PRNG.nextInt(1 << 20), PRNG.nextInt(50) - 25);
+    }
+    return uuids;
+  }
+
+  /**
+   * Checks that a sort method sorts like the reference order.
+   *
+   * @param uuids the UUIDs to sort.
+   * @param parallel whether to use the parallel sort.
+   */
+  private static void checkSort(final UUID[] uuids, final boolean parallel) {
+    final long[] packed = UUIDConvertor.toPackedLongs(uuids);
+    if (parallel) {
+      UUIDArrays.parallelSort(packed);
+    } else {
+      UUIDArrays.sort(packed);
+    }
+    final UUID[] expected = uuids.clone();
+    Arrays.sort(expected, BYTE_ORDER);
+    assertArrayEquals(expected, UUIDConvertor.toUUIDs(packed));
+  }
+
+  /** Test. */
+  @Test
+  public void testCompareUnsigned() {
+    final UUID[] uuids = TestUUIDWriter.randomUUIDs(100);
+    uuids[0] = new UUID(0, 0);
+    uuids[1] = new UUID(-1, -1);
+    uuids[2] = new UUID(Long.MIN_VALUE, 0);
+    uuids[3] = new UUID(Long.MAX_VALUE, -1);
+    for (final UUID a : uuids) {
+      for (final UUID b : uuids) {
+        assertEquals(
+            Integer.signum(BYTE_ORDER.compare(a, b)),
+            Integer.signum(UUIDArrays.UNSIGNED_ORDER.compare(a, b)));
+      }
+    }
+  }
+
+  /** Test. */
+  @Test
+  public void testSort() {
+    for (final int size : new int[] {0, 1, 2, 31, 32, 33, 1000, 100000}) {
+      checkSort(TestUUIDWriter.randomUUIDs(size), false);
+      checkSort(structuredUUIDs(size), false);
+    }
+    final long[] packed = UUIDConvertor.toPackedLongs(structuredUUIDs(100));
+    final long[] expected = packed.clone();
+    final long[] middle = Arrays.copyOfRange(packed, 20, 180);
+    UUIDArrays.sort(middle);
+    System.arraycopy(middle, 0, expected, 20, middle.length);
+    UUIDArrays.sort(packed, 10, 90);
+    assertArrayEquals(expected, packed);
+    final long[] random = UUIDConvertor.toPackedLongs(TestUUIDWriter.randomUUIDs(2000));
+    final long[] sorted = random.clone();
+    final long[] range = Arrays.copyOfRange(random, 200, 2200);
+    UUIDArrays.sort(range);
+    System.arraycopy(range, 0, sorted, 200, range.length);
+    UUIDArrays.sort(random, 100, 1100);
+    assertArrayEquals(sorted, random);
+    assertThrows(IllegalArgumentException.class, () -> UUIDArrays.sort(new long[3]));
+    assertThrows(IndexOutOfBoundsException.class, () -> UUIDArrays.sort(new long[4], 1, 3));
+  }
+
+  /** Test. */
+  @Test
+  public void testParallelSort() {
+    for (final int size : new int[] {0, 1000, 300000}) {
+      checkSort(TestUUIDWriter.randomUUIDs(size), true);
+      checkSort(structuredUUIDs(size), true);
+    }
+    assertThrows(IllegalArgumentException.class, () -> UUIDArrays.parallelSort(new long[3]));
+  }
+}
@@ -16,10 +16,22 @@
 
 package org.leplus.ristretto.util;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
 import java.util.Random;
+import java.util.UUID;
 import org.junit.Test;
 
 /**
@@ -28,6 +40,7 @@ import org.junit.Test;
  * @author Thomas Leplus
  * @since 1.0.0
  */
+@SuppressWarnings({"checkstyle:magicnumber"})
 public final class TestUUIDConvertor {
 
   /** Default constructor. */
@@ -184,4 +197,282 @@ public final class TestUUIDConvertor {
     }
     assertNull(UUIDConvertor.toUUID((String) null));
   }
+
+  /** Test. */
+  @Test
+  public void testArraysWithOffset() {
+    final int off = 3;
+    for (int i = 0; i < 100; i++) {
+      final UUID uuid = new UUID(PRNG.nextLong(), PRNG.nextLong());
+      final byte[] bytes = new byte[off + UUIDConvertor.MAX_BYTES];
+      UUIDConvertor.toBytes(uuid, bytes, off);
+      assertArrayEquals(
+          UUIDConvertor.toBytes(uuid), Arrays.copyOfRange(bytes, off, bytes.length));
+      assertEquals(uuid, UUIDConvertor.toUUID(bytes, off));
+      final char[] chars = new char[off + UUIDConvertor.MAX_CHARS];
+      UUIDConvertor.toChars(uuid, chars, off);
+      assertArrayEquals(
+          UUIDConvertor.toChars(uuid), Arrays.copyOfRange(chars, off, chars.length));
+      assertEquals(uuid, UUIDConvertor.toUUID(chars, off));
+      final double[] doubles = new double[off + UUIDConvertor.MAX_DOUBLES];
+      UUIDConvertor.toDoubles(uuid, doubles, off);
+      assertArrayEquals(
+          UUIDConvertor.toDoubles(uuid), Arrays.copyOfRange(doubles, off, doubles.length), 0);
+      assertEquals(uuid, UUIDConvertor.toUUID(doubles, off));
+      final float[] floats = new float[off + UUIDConvertor.MAX_FLOATS];
+      UUIDConvertor.toFloats(uuid, floats, off);
+      assertArrayEquals(
+          UUIDConvertor.toFloats(uuid), Arrays.copyOfRange(floats, off, floats.length), 0);
+      assertEquals(uuid, UUIDConvertor.toUUID(floats, off));
+      final int[] ints = new int[off + UUIDConvertor.MAX_INTS];
+      UUIDConvertor.toInts(uuid, ints, off);
+      assertArrayEquals(UUIDConvertor.toInts(uuid), Arrays.copyOfRange(ints, off, ints.length));
+      assertEquals(uuid, UUIDConvertor.toUUID(ints, off));
+      final long[] longs = new long[off + UUIDConvertor.MAX_LONGS];
+      UUIDConvertor.toLongs(uuid, longs, off);
+      assertArrayEquals(
+          UUIDConvertor.toLongs(uuid), Arrays.copyOfRange(longs, off, longs.length));
+      assertEquals(uuid, UUIDConvertor.toUUID(longs, off));
+      final short[] shorts = new short[off + UUIDConvertor.MAX_SHORTS];
+      UUIDConvertor.toShorts(uuid, shorts, off);
+      assertArrayEquals(
+          UUIDConvertor.toShorts(uuid), Arrays.copyOfRange(shorts, off, shorts.length));
+      assertEquals(uuid, UUIDConvertor.toUUID(shorts, off));
+    }
+    assertNull(UUIDConvertor.toUUID((byte[]) null, 0));
+    assertThrows(
+        ArrayIndexOutOfBoundsException.class,
+        () -> UUIDConvertor.toUUID(new byte[UUIDConvertor.MAX_BYTES], 1));
+    assertThrows(
+        ArrayIndexOutOfBoundsException.class,
+        () -> UUIDConvertor.toLongs(UUID.randomUUID(), new long[UUIDConvertor.MAX_LONGS], -1));
+  }
+
+  /** Test. */
+  @Test
+  public void testPacked() {
+    for (final int size : new int[] {0, 1, 7, 20_000}) {
+      final UUID[] uuids = new UUID[size];
+      for (int i = 0; i < size; i++) {
+        uuids[i] = new UUID(PRNG.nextLong(), PRNG.nextLong());
+      }
+      final List<UUID> list = Arrays.asList(uuids);
+      final long[] longs = UUIDConvertor.toPackedLongs(uuids);
+      assertEquals(size * UUIDConvertor.MAX_LONGS, longs.length);
+      for (int i = 0; i < size; i++) {
+        assertEquals(uuids[i].getMostSignificantBits(), longs[2 * i]);
+        assertEquals(uuids[i].getLeastSignificantBits(), longs[2 * i + 1]);
+      }
+      assertArrayEquals(longs, UUIDConvertor.toPackedLongs(list));
+      assertArrayEquals(longs, UUIDConvertor.parallelToPackedLongs(uuids));
+      assertArrayEquals(uuids, UUIDConvertor.toUUIDs(longs));
+      assertArrayEquals(uuids, UUIDConvertor.parallelToUUIDs(longs));
+      final byte[] bytes = UUIDConvertor.toPackedBytes(uuids);
+      assertEquals(size * UUIDConvertor.MAX_BYTES, bytes.length);
+      for (int i = 0; i < size; i++) {
+        assertArrayEquals(
+            UUIDConvertor.toBytes(uuids[i]),
+            Arrays.copyOfRange(
+                bytes, i * UUIDConvertor.MAX_BYTES, (i + 1) * UUIDConvertor.MAX_BYTES));
+      }
+      assertArrayEquals(bytes, UUIDConvertor.toPackedBytes(list));
+      assertArrayEquals(bytes, UUIDConvertor.parallelToPackedBytes(uuids));
+      assertArrayEquals(uuids, UUIDConvertor.toUUIDs(bytes));
+      assertArrayEquals(uuids, UUIDConvertor.parallelToUUIDs(bytes));
+    }
+    assertNull(UUIDConvertor.toPackedLongs((UUID[]) null));
+    assertNull(UUIDConvertor.toUUIDs((byte[]) null));
+    assertThrows(IllegalArgumentException.class, () -> UUIDConvertor.toUUIDs(new long[3]));
+    assertThrows(IllegalArgumentException.class, () -> UUIDConvertor.toUUIDs(new byte[17]));
+    final List<UUID> huge = Collections.nCopies(Integer.MAX_VALUE, UUID.randomUUID());
+    assertThrows(ArithmeticException.class, () -> UUIDConvertor.toPackedLongs(huge));
+    assertThrows(ArithmeticException.class, () -> UUIDConvertor.toPackedBytes(huge));
+  }
+
+  /** Test. */
+  @Test
+  public void testBigEndianLayout() {
+    for (int i = 0; i < 100; i++) {
+      final UUID uuid = new UUID(PRNG.nextLong(), PRNG.nextLong());
+      final ByteBuffer expected = ByteBuffer.allocate(UUIDConvertor.UUID_BYTES);
+      expected.putLong(uuid.getMostSignificantBits()).putLong(uuid.getLeastSignificantBits());
+      assertArrayEquals(expected.array(), UUIDConvertor.toBytes(uuid));
+      expected.rewind();
+      for (final char c : UUIDConvertor.toChars(uuid)) {
+        assertEquals(expected.getChar(), c);
+      }
+      expected.rewind();
+      for (final int n : UUIDConvertor.toInts(uuid)) {
+        assertEquals(expected.getInt(), n);
+      }
+      expected.rewind();
+      for (final short n : UUIDConvertor.toShorts(uuid)) {
+        assertEquals(expected.getShort(), n);
+      }
+      final byte[] prefix = Arrays.copyOf(expected.array(), 5);
+      expected.rewind();
+      expected.put(5, new byte[UUIDConvertor.MAX_BYTES - 5]);
+      assertEquals(
+          new UUID(expected.getLong(), expected.getLong()), UUIDConvertor.toUUID(prefix));
+    }
+  }
+
+  /** Test. */
+  @Test
+  public void testByteBuffers() {
+    final int index = 5;
+    for (final ByteBuffer buffer :
+        new ByteBuffer[] {
+          ByteBuffer.allocate(32),
+          ByteBuffer.allocateDirect(32),
+          ByteBuffer.allocateDirect(32).order(ByteOrder.LITTLE_ENDIAN)
+        }) {
+      final UUID uuid = new UUID(PRNG.nextLong(), PRNG.nextLong());
+      buffer.position(1);
+      UUIDConvertor.toBytes(uuid, buffer, index);
+      assertEquals(1, buffer.position());
+      assertEquals(uuid, UUIDConvertor.toUUID(buffer, index));
+      assertEquals(uuid, UUIDConvertor.toUUID(buffer.asReadOnlyBuffer(), index));
+      final byte[] bytes = new byte[UUIDConvertor.MAX_BYTES];
+      buffer.get(index, bytes);
+      assertArrayEquals(UUIDConvertor.toBytes(uuid), bytes);
+      assertEquals(1, buffer.position());
+      assertThrows(
+          IndexOutOfBoundsException.class,
+          () -> UUIDConvertor.toUUID(buffer, buffer.limit() - UUIDConvertor.MAX_BYTES + 1));
+    }
+    assertNull(UUIDConvertor.toUUID((ByteBuffer) null, 0));
+  }
+
+  /** Test. */
+  @Test
+  public void testParseCanonical() {
+    final long[] longs = new long[UUIDConvertor.MAX_LONGS];
+    for (int i = 0; i < 1000; i++) {
+      final UUID uuid = new UUID(PRNG.nextLong(), PRNG.nextLong());
+      final String text =
+          "id=" + (i % 2 == 0 ? uuid.toString() : uuid.toString().toUpperCase(Locale.ROOT));
+      assertEquals(uuid, UUIDConvertor.parseCanonical(text, 3));
+      final byte[] bytes = text.getBytes(StandardCharsets.US_ASCII);
+      assertEquals(uuid, UUIDConvertor.parseCanonical(bytes, 3));
+      assertTrue(UUIDConvertor.tryParseCanonical(text, 3, longs, 0));
+      assertEquals(uuid, UUIDConvertor.toUUID(longs, 0));
+      Arrays.fill(longs, 0);
+      assertTrue(UUIDConvertor.tryParseCanonical(bytes, 3, longs, 0));
+      assertEquals(uuid, UUIDConvertor.toUUID(longs, 0));
+    }
+    final String valid = "123e4567-e89b-12d3-a456-426614174000";
+    for (final String invalid :
+        new String[] {
+          "123e4567-e89b-12d3-a456+426614174000",
+          "123e4567e-89b-12d3-a456-426614174000",
+          "123e4567-e89b-12d3-a456-42661417400g",
+          "123e4567-e89b-12d3-a456-42661417400\u0130",
+          "123e4567-e89b-12d3-a456-42661417400\u00e0"
+        }) {
+      assertThrows(
+          IllegalArgumentException.class, () -> UUIDConvertor.parseCanonical(invalid, 0));
+      assertFalse(UUIDConvertor.tryParseCanonical(invalid, 0, longs, 0));
+      final byte[] bytes = invalid.getBytes(StandardCharsets.ISO_8859_1);
+      assertThrows(IllegalArgumentException.class, () -> UUIDConvertor.parseCanonical(bytes, 0));
+      assertFalse(UUIDConvertor.tryParseCanonical(bytes, 0, longs, 0));
+    }
+    assertFalse(UUIDConvertor.tryParseCanonical(valid, 1, longs, 0));
+    assertFalse(UUIDConvertor.tryParseCanonical((CharSequence) null, 0, longs, 0));
+    assertThrows(IndexOutOfBoundsException.class, () -> UUIDConvertor.parseCanonical(valid, 1));
+    assertNull(UUIDConvertor.parseCanonical((CharSequence) null, 0));
+  }
+
+  /** Test. */
+  @Test
+  public void testParseCanonicalNonAsciiBytes() {
+    final long[] longs = new long[UUIDConvertor.MAX_LONGS];
+    final byte[] valid =
+        "123e4567-e89b-12d3-a456-426614174000".getBytes(StandardCharsets.US_ASCII);
+    // Once masked to 7 bits, these bytes are the ASCII digits '1', 'A' and 'a'.
+    for (final byte b : new byte[] {(byte) 0xb1, (byte) 0xc1, (byte) 0xe1}) {
+      for (final int position : new int[] {0, 9, 20, valid.length - 1}) {
+        final byte[] bytes = valid.clone();
+        bytes[position] = b;
+        assertThrows(
+            IllegalArgumentException.class, () -> UUIDConvertor.parseCanonical(bytes, 0));
+        assertFalse(UUIDConvertor.tryParseCanonical(bytes, 0, longs, 0));
+        assertThrows(IllegalArgumentException.class, () -> UUIDFormat.CANONICAL.parse(bytes, 0));
+      }
+    }
+  }
+
+  /** Test. */
+  @Test
+  public void testLayouts() {
+    final UUID uuid = UUID.fromString("00112233-4455-6677-8899-aabbccddeeff");
+    assertArrayEquals(
+        new byte[] {
+          0x00, 0x11, 0x22, 0x33, 0x44, 0x55, 0x66, 0x77,
+          (byte) 0x88, (byte) 0x99, (byte) 0xaa, (byte) 0xbb,
+          (byte) 0xcc, (byte) 0xdd, (byte) 0xee, (byte) 0xff
+        },
+        UUIDConvertor.toBytes(uuid, UUIDLayout.BIG_ENDIAN));
+    assertArrayEquals(
+        new byte[] {
+          0x77, 0x66, 0x55, 0x44, 0x33, 0x22, 0x11, 0x00,
+          (byte) 0xff, (byte) 0xee, (byte) 0xdd, (byte) 0xcc,
+          (byte) 0xbb, (byte) 0xaa, (byte) 0x99, (byte) 0x88
+        },
+        UUIDConvertor.toBytes(uuid, UUIDLayout.LITTLE_ENDIAN));
+    assertArrayEquals(
+        new byte[] {
+          0x33, 0x22, 0x11, 0x00, 0x55, 0x44, 0x77, 0x66,
+          (byte) 0x88, (byte) 0x99, (byte) 0xaa, (byte) 0xbb,
+          (byte) 0xcc, (byte) 0xdd, (byte) 0xee, (byte) 0xff
+        },
+        UUIDConvertor.toBytes(uuid, UUIDLayout.GUID));
+    final int off = 3;
+    for (final UUIDLayout layout : UUIDLayout.values()) {
+      for (int i = 0; i < 100; i++) {
+        final UUID random = new UUID(PRNG.nextLong(), PRNG.nextLong());
+        final byte[] bytes = new byte[off + UUIDConvertor.MAX_BYTES];
+        UUIDConvertor.toBytes(random, bytes, off, layout);
+        assertEquals(random, UUIDConvertor.toUUID(bytes, off, layout));
+      }
+    }
+    assertArrayEquals(
+        UUIDConvertor.toBytes(uuid), UUIDConvertor.toBytes(uuid, UUIDLayout.BIG_ENDIAN));
+    assertNull(UUIDConvertor.toUUID((byte[]) null, 0, UUIDLayout.GUID));
+  }
+
+  /** Test. */
+  @Test
+  public void testTimeSwappedLayout() {
+    // Example from the MySQL documentation of UUID_TO_BIN.
+    final UUID uuid = UUID.fromString("6ccd780c-baba-1026-9564-5b8c656024db");
+    assertEquals(
+        "1026baba6ccd780c95645b8c656024db",
+        UUIDFormat.HEX.format(
+            UUIDConvertor.toUUID(UUIDConvertor.toBytes(uuid, UUIDLayout.TIME_SWAPPED))));
+    // Version 1 UUIDs sort by timestamp once time-swapped.
+    final UUID[] uuids = new UUID[100];
+    for (int i = 0; i < uuids.length; i++) {
+      final long timestamp = 0x1ec9414c232ab00L + (long) i * 0x10000001L;
+      final long msb = (timestamp << 32) | ((timestamp >>> 16) & 0xffff0000L) | 0x1000L
+          | (timestamp >>> 48);
+      uuids[i] = new UUID(msb, PRNG.nextLong());
+      assertEquals(timestamp, uuids[i].timestamp());
+    }
+    final byte[] packed = UUIDConvertor.toPackedBytes(uuids, UUIDLayout.TIME_SWAPPED);
+    for (int i = 1; i < uuids.length; i++) {
+      assertTrue(
+          Arrays.compareUnsigned(
+                  packed,
+                  (i - 1) * UUIDConvertor.MAX_BYTES,
+                  i * UUIDConvertor.MAX_BYTES,
+                  packed,
+                  i * UUIDConvertor.MAX_BYTES,
+                  (i + 1) * UUIDConvertor.MAX_BYTES)
+              < 0);
+    }
+    assertArrayEquals(uuids, UUIDConvertor.toUUIDs(packed, UUIDLayout.TIME_SWAPPED));
+    assertArrayEquals(
+        packed, UUIDConvertor.toPackedBytes(Arrays.asList(uuids), UUIDLayout.TIME_SWAPPED));
+  }
 }
@@ -0,0 +1,190 @@
+/*
+ * Copyright 2016-present Thomas Leplus
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.leplus.ristretto.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Locale;
+import java.util.Random;
+import java.util.UUID;
+import org.junit.Test;
+
+/**
+ * Tests for the {@link org.leplus.ristretto.util.UUIDFormat} enum.
+ *
+ * @author Thomas Leplus
+ * @since 2.1.0
+ */
+@SuppressWarnings({"checkstyle:magicnumber"})
+public final class TestUUIDFormat {
+
+  /** Default constructor. */
+  public TestUUIDFormat() {
+    super();
+  }
+
+  /** The random number generator. */
+  private static final Random PRNG = new Random();
+
+  /**
+   * Generates a random UUID.
+   *
+   * @return the UUID.
+   */
+  private static UUID random() {
+    return new UUID(PRNG.nextLong(), PRNG.nextLong());
+  }
+
+  /** Test. */
+  @Test
+  public void testLengths() {
+    assertEquals(36, UUIDFormat.CANONICAL.length());
+    assertEquals(32, UUIDFormat.HEX.length());
+    assertEquals(22, UUIDFormat.BASE64_URL.length());
+    assertEquals(26, UUIDFormat.BASE32_CROCKFORD.length());
+  }
+
+  /** Test. */
+  @Test
+  public void testCanonical() {
+    for (int i = 0; i < 1000; i++) {
+      final UUID uuid = random();
+      final String expected = uuid.toString();
+      assertEquals(expected, UUIDFormat.CANONICAL.format(uuid));
+      assertEquals(uuid, UUIDFormat.CANONICAL.parse(expected));
+      assertEquals(uuid, UUIDFormat.CANONICAL.parse(expected.toUpperCase(Locale.ROOT)));
+    }
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> UUIDFormat.CANONICAL.parse("123e4567-e89b-12d3-a456+426614174000"));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> UUIDFormat.CANONICAL.parse("123e4567-e89b-12d3-a456-42661417400g"));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> UUIDFormat.CANONICAL.parse("123e4567-e89b-12d3-a456-42661417400"));
+    assertNull(UUIDFormat.CANONICAL.parse((CharSequence) null));
+  }
+
+  /** Test. */
+  @Test
+  public void testHex() {
+    for (int i = 0; i < 1000; i++) {
+      final UUID uuid = random();
+      final String expected = uuid.toString().replace("-", "");
+      assertEquals(expected, UUIDFormat.HEX.format(uuid));
+      assertEquals(uuid, UUIDFormat.HEX.parse(expected));
+    }
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> UUIDFormat.HEX.parse("123e4567e89b12d3a456426614174\u0660\u0660\u0660"));
+  }
+
+  /** Test. */
+  @Test
+  public void testBase64Url() {
+    final Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+    for (int i = 0; i < 1000; i++) {
+      final UUID uuid = random();
+      final String expected = encoder.encodeToString(UUIDConvertor.toBytes(uuid));
+      assertEquals(expected, UUIDFormat.BASE64_URL.format(uuid));
+      assertEquals(uuid, UUIDFormat.BASE64_URL.parse(expected));
+    }
+    // Last digit has non-zero unused bits.
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> UUIDFormat.BASE64_URL.parse("AAAAAAAAAAAAAAAAAAAAAB"));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> UUIDFormat.BASE64_URL.parse("AAAAAAAAAAAAAAAAAAAA+A"));
+  }
+
+  /**
+   * Compares two UUIDs as unsigned 128-bit numbers.
+   *
+   * @param a the first UUID.
+   * @param b the second UUID.
+   * @return the comparison result.
+   */
+  private static int compareUnsigned(final UUID a, final UUID b) {
+    final int result = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+    if (result != 0) {
+      return result;
+    }
+    return Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+  }
+
+  /** Test. */
+  @Test
+  public void testBase32Crockford() {
+    assertEquals("00000000000000000000000000", UUIDFormat.BASE32_CROCKFORD.format(new UUID(0, 0)));
+    assertEquals(
+        "7ZZZZZZZZZZZZZZZZZZZZZZZZZ", UUIDFormat.BASE32_CROCKFORD.format(new UUID(-1, -1)));
+    assertEquals(new UUID(-1, -1), UUIDFormat.BASE32_CROCKFORD.parse("7zzzzzzzzzzzzzzzzzzzzzzzzz"));
+    assertEquals(new UUID(0, 1), UUIDFormat.BASE32_CROCKFORD.parse("OOOOOOOOOOOOOOOOOOOOOOOOOI"));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> UUIDFormat.BASE32_CROCKFORD.parse("80000000000000000000000000"));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> UUIDFormat.BASE32_CROCKFORD.parse("0000000000000000000000000U"));
+    UUID previous = random();
+    for (int i = 0; i < 1000; i++) {
+      final UUID uuid = random();
+      final String encoded = UUIDFormat.BASE32_CROCKFORD.format(uuid);
+      assertEquals(uuid, UUIDFormat.BASE32_CROCKFORD.parse(encoded));
+      // The encoding preserves the unsigned order.
+      assertEquals(
+          Integer.signum(compareUnsigned(previous, uuid)),
+          Integer.signum(UUIDFormat.BASE32_CROCKFORD.format(previous).compareTo(encoded)));
+      previous = uuid;
+    }
+  }
+
+  /** Test. */
+  @Test
+  public void testSinks() {
+    final int off = 3;
+    for (final UUIDFormat format : UUIDFormat.values()) {
+      final UUID uuid = random();
+      final String expected = format.format(uuid);
+      final char[] chars = new char[off + format.length()];
+      format.format(uuid, chars, off);
+      assertEquals(expected, new String(chars, off, format.length()));
+      final byte[] bytes = new byte[off + format.length()];
+      format.format(uuid, bytes, off);
+      assertEquals(
+          expected, new String(bytes, off, format.length(), StandardCharsets.US_ASCII));
+      assertEquals(uuid, format.parse(bytes, off));
+      final StringBuilder builder = new StringBuilder("abc");
+      format.format(uuid, builder);
+      assertEquals("abc" + expected, builder.toString());
+      assertEquals(uuid, format.parse(builder, off));
+      assertEquals(expected, UUIDConvertor.toString(uuid, format));
+      assertEquals(uuid, UUIDConvertor.toUUID(expected, format));
+      assertTrue(expected.chars().allMatch(c -> c > ' ' && c < 127));
+      assertThrows(
+          ArrayIndexOutOfBoundsException.class,
+          () -> format.format(uuid, new char[format.length()], 1));
+    }
+  }
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright 2016-present Thomas Leplus
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.leplus.ristretto.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.collect.testing.SampleElements;
+import com.google.common.collect.testing.SetTestSuiteBuilder;
+import com.google.common.collect.testing.TestSetGenerator;
+import com.google.common.collect.testing.features.CollectionFeature;
+import com.google.common.collect.testing.features.CollectionSize;
+import com.google.common.collect.testing.features.SetFeature;
+import com.google.common.testing.SerializableTester;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import junit.framework.TestSuite;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Suite;
+
+/**
+ * Tests the {@link org.leplus.ristretto.util.UUIDHashSet} class.
+ *
+ * @author Thomas Leplus
+ * @since 2.1.0
+ */
+@RunWith(Suite.class)
+@Suite.SuiteClasses({TestUUIDHashSet.GuavaTests.class, TestUUIDHashSet.AdditionalTests.class})
+@SuppressWarnings({"checkstyle:magicnumber"})
+public final class TestUUIDHashSet {
+
+  /** Default constructor. */
+  public TestUUIDHashSet() {
+    super();
+  }
+
+  /**
+   * Some additional tests.
+   *
+   * @author Thomas Leplus
+   * @since 2.1.0
+   */
+  public static class AdditionalTests {
+
+    /** Pseudo-random number generator. */
+    private static final Random PRNG = new Random();
+
+    /** Default constructor. */
+    public AdditionalTests() {
+      super();
+    }
+
+    /** Test. */
+    @Test
+    public void testAgainstHashSet() {
+      for (final boolean uniform : new boolean[] {false, true}) {
+        final UUIDHashSet actual = new UUIDHashSet(0, uniform);
+        final Set<UUID> expected = new HashSet<>();
+        for (int i = 0; i < 100000; i++) {
+          // A small key space with many collisions when the keys are not mixed.
+          final long msb = PRNG.nextInt(64);
+          final long lsb = PRNG.nextInt(4) << 20;
+          switch (PRNG.nextInt(3)) {
+            case 0:
+              assertEquals(
+                  expected.remove(new UUID(msb, lsb)), actual.remove(new UUID(msb, lsb)));
+              break;
+            case 1:
+              assertEquals(expected.contains(new UUID(msb, lsb)), actual.contains(msb, lsb));
+              break;
+            default:
+              assertEquals(expected.add(new UUID(msb, lsb)), actual.add(msb, lsb));
+              break;
+          }
+          assertEquals(expected.size(), actual.size());
+          if (i % 1000 == 0) {
+            assertEquals(expected, actual);
+            assertEquals(expected.hashCode(), actual.hashCode());
+            final long mod = PRNG.nextInt(3) + 2;
+            expected.removeIf(uuid -> uuid.getMostSignificantBits() % mod == 0);
+            actual.removeIf(uuid -> uuid.getMostSignificantBits() % mod == 0);
+            assertEquals(expected, actual);
+          }
+        }
+      }
+    }
+
+    /** Test. */
+    @Test
+    public void testGrowth() {
+      final UUID[] uuids = TestUUIDWriter.randomUUIDs(100000);
+      final UUIDHashSet set = new UUIDHashSet(List.of(uuids));
+      assertEquals(uuids.length, set.size());
+      for (final UUID uuid : uuids) {
+        assertTrue(set.contains(uuid));
+        assertFalse(set.add(uuid));
+      }
+      final UUIDHashSet clone = set.clone();
+      for (final UUID uuid : uuids) {
+        assertTrue(set.remove(uuid));
+      }
+      assertTrue(set.isEmpty());
+      assertEquals(uuids.length, clone.size());
+      SerializableTester.reserializeAndAssert(clone);
+      assertThrows(IllegalArgumentException.class, () -> new UUIDHashSet(-1));
+      assertThrows(NullPointerException.class, () -> clone.add(null));
+    }
+  }
+
+  /**
+   * Guava collection testing.
+   *
+   * @author Thomas Leplus
+   * @since 2.1.0
+   */
+  public static final class GuavaTests {
+
+    /** Private constructor. */
+    private GuavaTests() {
+      super();
+    }
+
+    /**
+     * Creates the test suite.
+     *
+     * @return the test suite
+     */
+    public static TestSuite suite() {
+      return SetTestSuiteBuilder.using(
+              new TestSetGenerator<UUID>() {
+
+                /**
+                 * @see com.google.common.collect.testing.TestContainerGenerator#samples()
+                 */
+                @Override
+                public SampleElements<UUID> samples() {
+                  return new SampleElements<>(
+                      new UUID(0, 0),
+                      new UUID(0, 1),
+                      new UUID(-1, 0),
+                      new UUID(1, -1),
+                      new UUID(Long.MIN_VALUE, Long.MAX_VALUE));
+                }
+
+                /**
+                 * @see com.google.common.collect.testing.TestContainerGenerator#create(
+                 *     java.lang.Object[])
+                 */
+                @Override
+                public Set<UUID> create(final Object... elements) {
+                  final UUIDHashSet set = new UUIDHashSet();
+                  for (final Object element : elements) {
+                    set.add((UUID) element);
+                  }
+                  return set;
+                }
+
+                /**
+                 * @see com.google.common.collect.testing.TestContainerGenerator#createArray(int)
+                 */
+                @Override
+                public UUID[] createArray(final int length) {
+                  return new UUID[length];
+                }
+
+                /**
+                 * @see com.google.common.collect.testing.TestContainerGenerator#order(
+                 *     java.util.List)
+                 */
+                @Override
+                public Iterable<UUID> order(final List<UUID> insertionOrder) {
+                  return insertionOrder;
+                }
+              })
+          .named("UUIDHashSet tests")
+          .withFeatures(
+              SetFeature.GENERAL_PURPOSE,
+              CollectionFeature.ALLOWS_NULL_QUERIES,
+              CollectionFeature.RESTRICTS_ELEMENTS,
+              CollectionFeature.SERIALIZABLE,
+              CollectionFeature.SUPPORTS_ITERATOR_REMOVE,
+              CollectionSize.ANY)
+          .createTestSuite();
+    }
+  }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2016-present Thomas Leplus
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.leplus.ristretto.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import org.junit.Test;
+
+/**
+ * Tests for the {@link org.leplus.ristretto.util.UUIDInterner} class.
+ *
+ * @author Thomas Leplus
+ * @since 2.1.0
+ */
+@SuppressWarnings({"checkstyle:magicnumber"})
+public final class TestUUIDInterner {
+
+  /** Default constructor. */
+  public TestUUIDInterner() {
+    super();
+  }
+
+  /** Test. */
+  @Test
+  public void testIntern() {
+    final UUIDInterner interner = new UUIDInterner(1000);
+    assertEquals(1024, interner.capacity());
+    final UUID uuid = UUID.randomUUID();
+    assertSame(uuid, interner.intern(uuid));
+    final long msb = uuid.getMostSignificantBits();
+    final long lsb = uuid.getLeastSignificantBits();
+    assertSame(uuid, interner.intern(new UUID(msb, lsb)));
+    assertSame(uuid, interner.intern(msb, lsb));
+    assertEquals(2, interner.hitCount());
+    assertEquals(1, interner.missCount());
+    final UUID other = interner.intern(0, 0);
+    assertEquals(new UUID(0, 0), other);
+    assertSame(other, interner.intern(new UUID(0, 0)));
+    assertNull(interner.intern(null));
+    interner.clear();
+    assertEquals(0, interner.hitCount());
+    assertEquals(0, interner.missCount());
+    assertEquals(uuid, interner.intern(msb, lsb));
+    assertEquals(1, interner.missCount());
+    assertThrows(IllegalArgumentException.class, () -> new UUIDInterner(0));
+  }
+
+  /** Test. */
+  @Test
+  public void testBounded() {
+    final UUIDInterner interner = new UUIDInterner(64);
+    final UUID[] uuids = TestUUIDWriter.randomUUIDs(10000);
+    for (final UUID uuid : uuids) {
+      assertSame(uuid, interner.intern(uuid));
+    }
+    for (final UUID uuid : uuids) {
+      assertEquals(
+          uuid,
+          interner.intern(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits()));
+    }
+    assertEquals(20000, interner.hitCount() + interner.missCount());
+    assertTrue(interner.hitCount() <= 64);
+  }
+
+  /** Test. */
+  @Test
+  public void testConcurrent() {
+    final UUIDInterner interner = new UUIDInterner();
+    final UUID[] uuids = TestUUIDWriter.randomUUIDs(100);
+    IntStream.range(0, 100000)
+        .parallel()
+        .forEach(
+            i -> {
+              final UUID uuid = uuids[i % uuids.length];
+              assertEquals(
+                  uuid,
+                  interner.intern(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits()));
+            });
+    assertEquals(100000, interner.hitCount() + interner.missCount());
+    assertTrue(interner.hitCount() >= 100000 - 1000);
+  }
+
+  /** Test. */
+  @Test
+  public void testConvertor() {
+    final UUIDInterner interner = new UUIDInterner();
+    final UUID uuid = UUID.randomUUID();
+    final byte[] bytes = UUIDConvertor.toBytes(uuid);
+    final UUID first = UUIDConvertor.toUUID(bytes, 0, interner);
+    assertEquals(uuid, first);
+    assertSame(first, UUIDConvertor.toUUID(ByteBuffer.wrap(bytes), 0, interner));
+    assertSame(first, UUIDConvertor.toUUID(UUIDConvertor.toLongs(uuid), 0, interner));
+    for (final UUIDLayout layout : UUIDLayout.values()) {
+      assertSame(
+          first, UUIDConvertor.toUUID(UUIDConvertor.toBytes(uuid, layout), 0, layout, interner));
+    }
+    assertEquals(1, interner.missCount());
+    assertNull(UUIDConvertor.toUUID((byte[]) null, 0, interner));
+    assertNull(UUIDConvertor.toUUID((long[]) null, 0, interner));
+    assertNull(UUIDConvertor.toUUID((ByteBuffer) null, 0, interner));
+    assertThrows(
+        ArrayIndexOutOfBoundsException.class, () -> UUIDConvertor.toUUID(bytes, 1, interner));
+  }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2016-present Thomas Leplus
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.leplus.ristretto.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import org.junit.Test;
+
+/**
+ * Tests for the {@link org.leplus.ristretto.util.UUIDMultisetDigest} class.
+ *
+ * @author Thomas Leplus
+ * @since 2.1.0
+ */
+@SuppressWarnings({"checkstyle:magicnumber"})
+public final class TestUUIDMultisetDigest {
+
+  /** Random number generator. */
+  private static final Random PRNG = new Random();
+
+  /** Default constructor. */
+  public TestUUIDMultisetDigest() {
+    super();
+  }
+
+  /** Tests that the order of the UUIDs does not matter. */
+  @Test
+  public void testOrder() {
+    final List<UUID> uuids = new ArrayList<>(Arrays.asList(TestUUIDWriter.randomUUIDs(10_000)));
+    uuids.add(uuids.get(0));
+    final UUID expected = ReproducibleUUIDs.multisetDigest().addAll(uuids).toUUID();
+    assertEquals(3, expected.version());
+    Collections.shuffle(uuids, PRNG);
+    assertEquals(expected, ReproducibleUUIDs.multisetDigest().addAll(uuids).toUUID());
+    assertEquals(expected, uuids.parallelStream().collect(ReproducibleUUIDs.toUnorderedUUID()));
+    assertEquals(
+        expected,
+        ReproducibleUUIDs.multisetDigest()
+            .addAll(new UUIDArrayList(uuids).toPackedLongs())
+            .toUUID());
+    final UUIDMultisetDigest left = ReproducibleUUIDs.multisetDigest();
+    left.addAll(uuids.subList(0, 4000));
+    final UUIDMultisetDigest right = ReproducibleUUIDs.multisetDigest();
+    right.addAll(uuids.subList(4000, uuids.size()));
+    assertEquals(expected, left.combine(right).toUUID());
+    assertEquals(uuids.size(), left.size());
+    // Duplicates count.
+    uuids.remove(0);
+    assertNotEquals(expected, ReproducibleUUIDs.multisetDigest().addAll(uuids).toUUID());
+  }
+
+  /** Tests removals. */
+  @Test
+  public void testRemove() {
+    final List<UUID> uuids = new ArrayList<>(Arrays.asList(TestUUIDWriter.randomUUIDs(100)));
+    uuids.add(new UUID(0, 0));
+    final UUIDMultisetDigest digest = ReproducibleUUIDs.multisetDigest();
+    final UUID expected = digest.addAll(uuids.subList(0, 50)).toUUID();
+    for (final UUID uuid : uuids.subList(50, uuids.size())) {
+      digest.add(uuid);
+    }
+    assertNotEquals(expected, digest.toUUID());
+    for (final UUID uuid : new ArrayList<>(uuids.subList(50, uuids.size()))) {
+      digest.remove(uuid);
+    }
+    assertEquals(expected, digest.toUUID());
+    assertEquals(50, digest.size());
+    assertNull(digest.clear().toUUID());
+    assertNull(ReproducibleUUIDs.multisetDigest().add(uuids.get(0)).remove(uuids.get(0)).toUUID());
+  }
+
+  /** Tests the other generators. */
+  @Test
+  public void testGenerators() {
+    final List<UUID> uuids = new ArrayList<>(Arrays.asList(TestUUIDWriter.randomUUIDs(10)));
+    final UUIDMultisetDigest digest =
+        ReproducibleUUIDs.v5(ReproducibleUUIDs.NAMESPACE_DNS).multisetDigest().addAll(uuids);
+    assertEquals(5, digest.toUUID().version());
+    assertEquals(digest.toUUID(), digest.toUUID());
+    assertNotEquals(ReproducibleUUIDs.multisetDigest().addAll(uuids).toUUID(), digest.toUUID());
+    assertEquals(
+        8,
+        uuids.stream()
+            .collect(ReproducibleUUIDs.murmur3(null).toUnorderedUUID())
+            .version());
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> ReproducibleUUIDs.multisetDigest().addAll(new long[] {1}));
+  }
+}
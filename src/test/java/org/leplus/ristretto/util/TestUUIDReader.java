@@ -0,0 +1,121 @@
+/*
+ * Copyright 2016-present Thomas Leplus
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.leplus.ristretto.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.util.Arrays;
+import java.util.UUID;
+import org.junit.Test;
+
+/**
+ * Tests for the {@link org.leplus.ristretto.util.UUIDReader} class.
+ *
+ * @author Thomas Leplus
+ * @since 2.1.0
+ */
+@SuppressWarnings({"checkstyle:magicnumber"})
+public final class TestUUIDReader {
+
+  /** Default constructor. */
+  public TestUUIDReader() {
+    super();
+  }
+
+  /**
+   * Wraps a stream so that it returns at most 7 bytes per read.
+   *
+   * @param in the stream to wrap.
+   * @return the wrapped stream.
+   */
+  private static InputStream trickle(final InputStream in) {
+    return new FilterInputStream(in) {
+      @Override
+      public int read(final byte[] b, final int off, final int len) throws IOException {
+        return super.read(b, off, Math.min(len, 7));
+      }
+    };
+  }
+
+  /**
+   * Test.
+   *
+   * @throws IOException if the test failed.
+   */
+  @Test
+  public void testInputStream() throws IOException {
+    final UUID[] uuids = TestUUIDWriter.randomUUIDs(1000);
+    final byte[] bytes = UUIDConvertor.toPackedBytes(uuids);
+    try (UUIDReader reader =
+        new UUIDReader(trickle(new ByteArrayInputStream(bytes)), 40, UUIDLayout.BIG_ENDIAN)) {
+      for (final UUID uuid : uuids) {
+        assertEquals(uuid, reader.read());
+      }
+      assertNull(reader.read());
+      assertEquals(-1, reader.read(new long[2]));
+    }
+  }
+
+  /**
+   * Test.
+   *
+   * @throws IOException if the test failed.
+   */
+  @Test
+  public void testBulk() throws IOException {
+    final UUID[] uuids = TestUUIDWriter.randomUUIDs(1000);
+    final byte[] bytes = UUIDConvertor.toPackedBytes(uuids, UUIDLayout.GUID);
+    final long[] expected = UUIDConvertor.toPackedLongs(uuids);
+    final long[] actual = new long[expected.length];
+    try (UUIDReader reader =
+        new UUIDReader(
+            Channels.newChannel(new ByteArrayInputStream(bytes)), 1000, UUIDLayout.GUID)) {
+      int total = 0;
+      int n;
+      while ((n = reader.read(actual, total * 2, Math.min(77, uuids.length - total))) > 0) {
+        total += n;
+      }
+      assertEquals(uuids.length, total);
+      assertEquals(-1, reader.read(actual));
+    }
+    assertArrayEquals(expected, actual);
+  }
+
+  /**
+   * Test.
+   *
+   * @throws IOException if the test failed.
+   */
+  @Test
+  public void testTruncated() throws IOException {
+    final byte[] bytes =
+        Arrays.copyOf(UUIDConvertor.toPackedBytes(TestUUIDWriter.randomUUIDs(2)), 20);
+    try (UUIDReader reader = new UUIDReader(new ByteArrayInputStream(bytes))) {
+      reader.read();
+      assertThrows(EOFException.class, reader::read);
+    }
+  }
+}
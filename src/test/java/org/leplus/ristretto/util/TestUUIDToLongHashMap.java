@@ -0,0 +1,239 @@
+/*
+ * Copyright 2016-present Thomas Leplus
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.leplus.ristretto.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.collect.testing.Helpers;
+import com.google.common.collect.testing.MapTestSuiteBuilder;
+import com.google.common.collect.testing.SampleElements;
+import com.google.common.collect.testing.TestMapGenerator;
+import com.google.common.collect.testing.features.CollectionFeature;
+import com.google.common.collect.testing.features.CollectionSize;
+import com.google.common.collect.testing.features.MapFeature;
+import com.google.common.testing.SerializableTester;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import junit.framework.TestSuite;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Suite;
+
+/**
+ * Tests the {@link org.leplus.ristretto.util.UUIDToLongHashMap} class.
+ *
+ * @author Thomas Leplus
+ * @since 2.1.0
+ */
+@RunWith(Suite.class)
+@Suite.SuiteClasses({
+  TestUUIDToLongHashMap.GuavaTests.class,
+  TestUUIDToLongHashMap.AdditionalTests.class
+})
+@SuppressWarnings({"checkstyle:magicnumber"})
+public final class TestUUIDToLongHashMap {
+
+  /** Default constructor. */
+  public TestUUIDToLongHashMap() {
+    super();
+  }
+
+  /**
+   * Some additional tests.
+   *
+   * @author Thomas Leplus
+   * @since 2.1.0
+   */
+  public static class AdditionalTests {
+
+    /** Pseudo-random number generator. */
+    private static final Random PRNG = new Random();
+
+    /** Default constructor. */
+    public AdditionalTests() {
+      super();
+    }
+
+    /** Test. */
+    @Test
+    public void testAgainstHashMap() {
+      for (final boolean uniform : new boolean[] {false, true}) {
+        final UUIDToLongHashMap actual = new UUIDToLongHashMap(0, uniform);
+        final Map<UUID, Long> expected = new HashMap<>();
+        for (int i = 0; i < 100000; i++) {
+          final long msb = PRNG.nextInt(64);
+          final long lsb = PRNG.nextInt(4) << 20;
+          final UUID key = new UUID(msb, lsb);
+          switch (PRNG.nextInt(4)) {
+            case 0:
+              assertEquals(expected.remove(key), actual.remove(key));
+              break;
+            case 1:
+              assertEquals(
+                  expected.getOrDefault(key, -1L).longValue(), actual.getOrDefault(msb, lsb, -1));
+              break;
+            case 2:
+              assertEquals(
+                  expected.merge(key, 3L, Long::sum).longValue(), actual.addTo(msb, lsb, 3));
+              break;
+            default:
+              assertEquals(expected.put(key, (long) i), actual.put(key, (long) i));
+              break;
+          }
+          assertEquals(expected.size(), actual.size());
+          if (i % 1000 == 0) {
+            assertEquals(expected, actual);
+            final long mod = PRNG.nextInt(3) + 2;
+            expected.keySet().removeIf(uuid -> uuid.getMostSignificantBits() % mod == 0);
+            actual.keySet().removeIf(uuid -> uuid.getMostSignificantBits() % mod == 0);
+            assertEquals(expected, actual);
+          }
+        }
+      }
+    }
+
+    /** Test. */
+    @Test
+    public void testPrimitiveAccess() {
+      final UUIDToLongHashMap map = new UUIDToLongHashMap();
+      map.put(0, 0, 42);
+      map.put(1, 2, 3);
+      assertTrue(map.containsKey(0, 0));
+      assertEquals(42, map.getOrDefault(0, 0, -1));
+      assertEquals(3, map.getOrDefault(1, 2, -1));
+      assertEquals(-1, map.getOrDefault(2, 1, -1));
+      assertEquals(45, map.addTo(0, 0, 3));
+      assertTrue(map.remove(0, 0));
+      assertFalse(map.remove(0, 0));
+      assertNull(map.get(new UUID(0, 0)));
+      assertNull(map.get("foo"));
+      final UUIDToLongHashMap clone = map.clone();
+      map.clear();
+      assertTrue(map.isEmpty());
+      assertEquals(Long.valueOf(3), clone.get(new UUID(1, 2)));
+      SerializableTester.reserializeAndAssert(clone);
+      assertEquals(
+          "value",
+          assertThrows(NullPointerException.class, () -> clone.put(new UUID(0, 0), null))
+              .getMessage());
+      assertThrows(NullPointerException.class, () -> clone.put(null, 0L));
+    }
+  }
+
+  /**
+   * Guava collection testing.
+   *
+   * @author Thomas Leplus
+   * @since 2.1.0
+   */
+  public static final class GuavaTests {
+
+    /** Private constructor. */
+    private GuavaTests() {
+      super();
+    }
+
+    /**
+     * Creates the test suite.
+     *
+     * @return the test suite
+     */
+    public static TestSuite suite() {
+      return MapTestSuiteBuilder.using(
+              new TestMapGenerator<UUID, Long>() {
+
+                /**
+                 * @see com.google.common.collect.testing.TestContainerGenerator#samples()
+                 */
+                @Override
+                public SampleElements<Map.Entry<UUID, Long>> samples() {
+                  return new SampleElements<>(
+                      Helpers.mapEntry(new UUID(0, 0), 0L),
+                      Helpers.mapEntry(new UUID(0, 1), -1L),
+                      Helpers.mapEntry(new UUID(-1, 0), 1L),
+                      Helpers.mapEntry(new UUID(1, -1), Long.MIN_VALUE),
+                      Helpers.mapEntry(new UUID(Long.MIN_VALUE, Long.MAX_VALUE), Long.MAX_VALUE));
+                }
+
+                /**
+                 * @see com.google.common.collect.testing.TestContainerGenerator#create(
+                 *     java.lang.Object[])
+                 */
+                @Override
+                public Map<UUID, Long> create(final Object... entries) {
+                  final UUIDToLongHashMap map = new UUIDToLongHashMap();
+                  for (final Object entry : entries) {
+                    @SuppressWarnings("unchecked")
+                    final Map.Entry<UUID, Long> e = (Map.Entry<UUID, Long>) entry;
+                    map.put(e.getKey(), e.getValue());
+                  }
+                  return map;
+                }
+
+                /**
+                 * @see com.google.common.collect.testing.TestContainerGenerator#createArray(int)
+                 */
+                @Override
+                @SuppressWarnings({"unchecked", "rawtypes"})
+                public Map.Entry<UUID, Long>[] createArray(final int length) {
+                  return new Map.Entry[length];
+                }
+
+                /**
+                 * @see com.google.common.collect.testing.TestContainerGenerator#order(
+                 *     java.util.List)
+                 */
+                @Override
+                public Iterable<Map.Entry<UUID, Long>> order(
+                    final List<Map.Entry<UUID, Long>> insertionOrder) {
+                  return insertionOrder;
+                }
+
+                /**
+                 * @see com.google.common.collect.testing.TestMapGenerator#createKeyArray(int)
+                 */
+                @Override
+                public UUID[] createKeyArray(final int length) {
+                  return new UUID[length];
+                }
+
+                /**
+                 * @see com.google.common.collect.testing.TestMapGenerator#createValueArray(int)
+                 */
+                @Override
+                public Long[] createValueArray(final int length) {
+                  return new Long[length];
+                }
+              })
+          .named("UUIDToLongHashMap tests")
+          .withFeatures(
+              MapFeature.GENERAL_PURPOSE,
+              MapFeature.ALLOWS_NULL_ENTRY_QUERIES,
+              CollectionFeature.SERIALIZABLE,
+              CollectionFeature.SUPPORTS_ITERATOR_REMOVE,
+              CollectionSize.ANY)
+          .createTestSuite();
+    }
+  }
+}
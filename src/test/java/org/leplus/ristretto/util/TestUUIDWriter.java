@@ -0,0 +1,111 @@
+/*
+ * Copyright 2016-present Thomas Leplus
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.leplus.ristretto.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.util.Random;
+import java.util.UUID;
+import org.junit.Test;
+
+/**
+ * Tests for the {@link org.leplus.ristretto.util.UUIDWriter} class.
+ *
+ * @author Thomas Leplus
+ * @since 2.1.0
+ */
+@SuppressWarnings({"checkstyle:magicnumber"})
+public final class TestUUIDWriter {
+
+  /** Default constructor. */
+  public TestUUIDWriter() {
+    super();
+  }
+
+  /** The random number generator. */
+  private static final Random PRNG = new Random();
+
+  /**
+   * Generates random UUIDs.
+   *
+   * @param count the number of UUIDs.
+   * @return the UUIDs.
+   */
+  static UUID[] randomUUIDs(final int count) {
+    final UUID[] uuids = new UUID[count];
+    for (int i = 0; i < count; i++) {
+      uuids[i] = new UUID(PRNG.nextLong(), PRNG.nextLong());
+    }
+    return uuids;
+  }
+
+  /**
+   * Test.
+   *
+   * @throws IOException if the test failed.
+   */
+  @Test
+  public void testOutputStream() throws IOException {
+    final UUID[] uuids = randomUUIDs(1000);
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (UUIDWriter writer = new UUIDWriter(out, 40, UUIDLayout.BIG_ENDIAN)) {
+      writer.write(uuids[0]);
+      writer.write(uuids[1].getMostSignificantBits(), uuids[1].getLeastSignificantBits());
+      final long[] packed = UUIDConvertor.toPackedLongs(uuids);
+      writer.write(packed, 4, 500);
+      for (int i = 502; i < uuids.length; i++) {
+        writer.write(uuids[i]);
+      }
+      writer.flush();
+      assertEquals(uuids.length * UUIDConvertor.UUID_BYTES, out.size());
+    }
+    assertArrayEquals(UUIDConvertor.toPackedBytes(uuids), out.toByteArray());
+  }
+
+  /**
+   * Test.
+   *
+   * @throws IOException if the test failed.
+   */
+  @Test
+  public void testChannel() throws IOException {
+    final UUID[] uuids = randomUUIDs(1000);
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (UUIDWriter writer =
+        new UUIDWriter(Channels.newChannel(out), 100, UUIDLayout.TIME_SWAPPED)) {
+      writer.write(uuids);
+    }
+    assertArrayEquals(
+        UUIDConvertor.toPackedBytes(uuids, UUIDLayout.TIME_SWAPPED), out.toByteArray());
+  }
+
+  /** Test. */
+  @Test
+  public void testInvalid() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> new UUIDWriter(new ByteArrayOutputStream(), 15, UUIDLayout.BIG_ENDIAN));
+    assertThrows(
+        IndexOutOfBoundsException.class,
+        () -> new UUIDWriter(new ByteArrayOutputStream()).write(new long[3], 0, 2));
+  }
+}
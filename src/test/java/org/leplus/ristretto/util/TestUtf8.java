@@ -0,0 +1,133 @@
+/*
+ * Copyright 2016-present Thomas Leplus
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.leplus.ristretto.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Random;
+import java.util.UUID;
+import org.junit.Test;
+
+/**
+ * Tests for the {@link org.leplus.ristretto.util.Utf8} class.
+ *
+ * @author Thomas Leplus
+ * @since 2.1.0
+ */
+@SuppressWarnings({"checkstyle:magicnumber"})
+public final class TestUtf8 {
+
+  /** Random number generator. */
+  private static final Random PRNG = new Random();
+
+  /** Default constructor. */
+  public TestUtf8() {
+    super();
+  }
+
+  /**
+   * Generates a random string mixing all the kinds of chars, including unpaired surrogates.
+   *
+   * @param length the number of chars.
+   * @return the string.
+   */
+  static String randomString(final int length) {
+    final char[] chars = new char[length];
+    for (int i = 0; i < length; i++) {
+      switch (PRNG.nextInt(6)) {
+        case 0:
+          chars[i] = (char) PRNG.nextInt(0x80);
+          break;
+        case 1:
+          chars[i] = (char) PRNG.nextInt(0x100);
+          break;
+        case 2:
+          chars[i] = (char) PRNG.nextInt(0x800);
+          break;
+        case 3:
+          chars[i] = (char) PRNG.nextInt(0x10000);
+          break;
+        case 4:
+          chars[i] = (char) (0xd800 + PRNG.nextInt(0x400));
+          break;
+        default:
+          chars[i] = (char) (0xdc00 + PRNG.nextInt(0x400));
+          break;
+      }
+    }
+    return new String(chars);
+  }
+
+  /**
+   * Test against the JDK encoder.
+   *
+   * @throws NoSuchAlgorithmException if the test failed.
+   */
+  @Test
+  public void testEncode() throws NoSuchAlgorithmException {
+    final MessageDigest expected = MessageDigest.getInstance("SHA-256");
+    final MessageDigest actual = MessageDigest.getInstance("SHA-256");
+    for (int n = 0; n < 200; n++) {
+      final String s = randomString(PRNG.nextInt(300));
+      final byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+      assertEquals(bytes.length, Utf8.encodedLength(s));
+      final byte[] digest = expected.digest(bytes);
+      final char[] array = ("ab" + s + "cd").toCharArray();
+      for (final CharSequence input :
+          new CharSequence[] {
+            s,
+            new StringBuilder(s),
+            new StringBuffer(s),
+            CharBuffer.wrap(array, 2, s.length()).slice(),
+            CharBuffer.wrap(array, 2, s.length()),
+            CharBuffer.wrap(s)
+          }) {
+        // Small buffers so that the chunks split the surrogate pairs.
+        final char[] chars = new char[2 + PRNG.nextInt(10)];
+        final byte[] buffer = new byte[Utf8.MAX_BYTES_PER_CODE_POINT + PRNG.nextInt(20)];
+        final int position = Utf8.encode(input, chars, actual, buffer, 0);
+        actual.update(buffer, 0, position);
+        assertArrayEquals(digest, actual.digest());
+      }
+    }
+  }
+
+  /** Tests the reproducible UUIDs of strings and other chars against the JDK encoder. */
+  @Test
+  public void testReproducibleUUIDs() {
+    final ReproducibleUUIDGenerator sha1 = ReproducibleUUIDs.v5(null);
+    for (int n = 0; n < 200; n++) {
+      final int len = PRNG.nextInt(5) == 0 ? PRNG.nextInt(20_000) : PRNG.nextInt(100);
+      final String s =
+          PRNG.nextBoolean() ? randomString(len) : "x".repeat(len) + randomString(PRNG.nextInt(3));
+      final byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+      final UUID expected = UUID.nameUUIDFromBytes(bytes);
+      assertEquals(expected, ReproducibleUUIDs.fromString(s));
+      assertEquals(expected, ReproducibleUUIDs.fromCharSequence(new StringBuilder(s)));
+      final CharBuffer buffer = CharBuffer.wrap("ab" + s + "cd");
+      buffer.position(2).limit(2 + s.length());
+      assertEquals(expected, ReproducibleUUIDs.fromCharSequence(buffer));
+      assertEquals(sha1.fromBytes(bytes), sha1.fromCharSequence(new StringBuilder(s)));
+    }
+  }
+}